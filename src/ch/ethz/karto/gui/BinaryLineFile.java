@@ -0,0 +1,400 @@
+package ch.ethz.karto.gui;
+
+import java.awt.geom.Rectangle2D;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A compact binary container for lines, for data that is read many times,
+ * such as preprocessed base maps.
+ *
+ * Coordinates are quantized to a multiple of a resolution, and each point is
+ * stored as the difference to the previous point, zigzag-encoded and packed
+ * into a variable number of bytes (7 bits per byte). An index with the
+ * position, the number of points and the bounding box of each line precedes
+ * the coordinates, so that single lines can be decoded without reading the
+ * rest of the file.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * header   int magic, int version, int lineCount, int reserved,
+ *          double resolution, double minX, minY, maxX, maxY
+ * index    per line: int data offset, int point count,
+ *          double minX, minY, maxX, maxY
+ * data     per line: 2 varints per point
+ * </pre>
+ *
+ * Files are memory-mapped when opened, so opening takes constant time and
+ * lines are decoded from the mapped bytes only when they are requested. A
+ * BinaryLineFile is immutable and can be read by multiple threads. Files are
+ * limited to 2 GB.
+ */
+public final class BinaryLineFile {
+
+    /**
+     * Default resolution in degrees, about 1 cm on the equator.
+     */
+    public static final double DEFAULT_RESOLUTION = 1e-7;
+
+    private static final int MAGIC = 0x4B4C494E; // "KLIN"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 56;
+    private static final int INDEX_ENTRY_SIZE = 40;
+
+    /**
+     * Quantized coordinates must be smaller than this.
+     */
+    private static final double MAX_QUANTIZED = 0x1p62;
+
+    private final ByteBuffer buffer;
+    private final int lineCount;
+    private final double resolution;
+    private final int dataStart;
+
+    private BinaryLineFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary line file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported binary line file version " + buffer.getInt(4));
+        }
+        lineCount = buffer.getInt(8);
+        resolution = buffer.getDouble(16);
+        final long dataStartLong = HEADER_SIZE + (long) INDEX_ENTRY_SIZE * lineCount;
+        if (lineCount < 0 || dataStartLong > buffer.capacity()) {
+            throw new IOException("Invalid binary line file");
+        }
+        dataStart = (int) dataStartLong;
+    }
+
+    /**
+     * Opens a file by mapping it into memory.
+     * @param filePath The file to open.
+     */
+    public static BinaryLineFile open(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Binary line file larger than 2 GB");
+            }
+            return new BinaryLineFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads a file from a stream into memory, for example from a resource
+     * that cannot be mapped. The stream is closed.
+     * @param inputStream The stream to read.
+     */
+    public static BinaryLineFile read(InputStream inputStream) throws IOException {
+        try (InputStream in = inputStream) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] b = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(b)) >= 0) {
+                bytes.write(b, 0, n);
+            }
+            return new BinaryLineFile(ByteBuffer.wrap(bytes.toByteArray()));
+        }
+    }
+
+    /**
+     * Writes lines to a file.
+     * @param lines The lines to write.
+     * @param resolution Coordinates are rounded to multiples of this value.
+     * @param filePath The file to write.
+     */
+    public static void write(List<MapLine> lines, double resolution, String filePath)
+            throws IOException {
+        write(lines, resolution, new FileOutputStream(filePath));
+    }
+
+    /**
+     * Writes lines to a stream. The stream is closed.
+     * @param lines The lines to write.
+     * @param resolution Coordinates are rounded to multiples of this value.
+     * @param outputStream The stream to write to.
+     */
+    public static void write(List<MapLine> lines, double resolution, OutputStream outputStream)
+            throws IOException {
+        if (!(resolution > 0) || Double.isInfinite(resolution)) {
+            outputStream.close();
+            throw new IllegalArgumentException("invalid resolution");
+        }
+        final int n = lines.size();
+        int[] offsets = new int[n];
+        double[] boxes = new double[n * 4];
+        double minX = Double.NaN, minY = Double.NaN, maxX = Double.NaN, maxY = Double.NaN;
+        VarintBuffer data = new VarintBuffer();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream))) {
+            // encode the coordinates and compute the bounding boxes of the
+            // decoded values
+            for (int i = 0; i < n; i++) {
+                final MapLine line = lines.get(i);
+                offsets[i] = data.size();
+                double lineMinX = Double.NaN, lineMinY = Double.NaN;
+                double lineMaxX = Double.NaN, lineMaxY = Double.NaN;
+                long prevX = 0, prevY = 0;
+                for (int p = 0; p < line.size(); p++) {
+                    final long qx = quantize(line.getX(p), resolution);
+                    final long qy = quantize(line.getY(p), resolution);
+                    data.writeZigzag(qx - prevX);
+                    data.writeZigzag(qy - prevY);
+                    prevX = qx;
+                    prevY = qy;
+                    final double x = qx * resolution;
+                    final double y = qy * resolution;
+                    if (p == 0) {
+                        lineMinX = lineMaxX = x;
+                        lineMinY = lineMaxY = y;
+                    } else {
+                        lineMinX = Math.min(lineMinX, x);
+                        lineMaxX = Math.max(lineMaxX, x);
+                        lineMinY = Math.min(lineMinY, y);
+                        lineMaxY = Math.max(lineMaxY, y);
+                    }
+                }
+                boxes[i * 4] = lineMinX;
+                boxes[i * 4 + 1] = lineMinY;
+                boxes[i * 4 + 2] = lineMaxX;
+                boxes[i * 4 + 3] = lineMaxY;
+                if (line.size() > 0) {
+                    minX = Double.isNaN(minX) ? lineMinX : Math.min(minX, lineMinX);
+                    minY = Double.isNaN(minY) ? lineMinY : Math.min(minY, lineMinY);
+                    maxX = Double.isNaN(maxX) ? lineMaxX : Math.max(maxX, lineMaxX);
+                    maxY = Double.isNaN(maxY) ? lineMaxY : Math.max(maxY, lineMaxY);
+                }
+            }
+            if (HEADER_SIZE + (long) INDEX_ENTRY_SIZE * n + data.size() > Integer.MAX_VALUE) {
+                throw new IOException("Binary line file larger than 2 GB");
+            }
+
+            // header
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+            out.writeInt(0);
+            out.writeDouble(resolution);
+            out.writeDouble(minX);
+            out.writeDouble(minY);
+            out.writeDouble(maxX);
+            out.writeDouble(maxY);
+
+            // index
+            for (int i = 0; i < n; i++) {
+                out.writeInt(offsets[i]);
+                out.writeInt(lines.get(i).size());
+                for (int j = 0; j < 4; j++) {
+                    out.writeDouble(boxes[i * 4 + j]);
+                }
+            }
+
+            // coordinates
+            data.writeTo(out);
+        }
+    }
+
+    private static long quantize(double v, double resolution) {
+        final double q = Math.rint(v / resolution);
+        if (!(Math.abs(q) < MAX_QUANTIZED)) {
+            throw new IllegalArgumentException("coordinate cannot be quantized: " + v);
+        }
+        return (long) q;
+    }
+
+    /**
+     * A growable array of bytes with variable-length integers.
+     */
+    private static final class VarintBuffer {
+
+        private byte[] bytes = new byte[4096];
+        private int size = 0;
+
+        int size() {
+            return size;
+        }
+
+        void writeZigzag(long v) {
+            long u = (v << 1) ^ (v >> 63);
+            if (size + 10 > bytes.length) {
+                byte[] a = new byte[bytes.length * 2];
+                System.arraycopy(bytes, 0, a, 0, size);
+                bytes = a;
+            }
+            while ((u & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((u & 0x7F) | 0x80);
+                u >>>= 7;
+            }
+            bytes[size++] = (byte) u;
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            out.write(bytes, 0, size);
+        }
+    }
+
+    /**
+     * Returns the number of lines.
+     */
+    public int size() {
+        return lineCount;
+    }
+
+    /**
+     * Returns the resolution of the coordinates.
+     */
+    public double getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Returns the bounding box of all lines.
+     * @return A new rectangle, or null if there are no points.
+     */
+    public Rectangle2D getExtension() {
+        return rectangle(24);
+    }
+
+    /**
+     * Returns the bounding box of a line.
+     * @param lineID The index of the line.
+     * @return A new rectangle, or null if the line has no points.
+     */
+    public Rectangle2D getExtension(int lineID) {
+        return rectangle(indexEntry(lineID) + 8);
+    }
+
+    private Rectangle2D rectangle(int pos) {
+        final double minX = buffer.getDouble(pos);
+        if (Double.isNaN(minX)) {
+            return null;
+        }
+        final double minY = buffer.getDouble(pos + 8);
+        return new Rectangle2D.Double(minX, minY,
+                buffer.getDouble(pos + 16) - minX, buffer.getDouble(pos + 24) - minY);
+    }
+
+    /**
+     * Returns the number of points of a line.
+     * @param lineID The index of the line.
+     */
+    public int getPointCount(int lineID) {
+        return buffer.getInt(indexEntry(lineID) + 4);
+    }
+
+    private int indexEntry(int lineID) {
+        if (lineID < 0 || lineID >= lineCount) {
+            throw new IndexOutOfBoundsException("line " + lineID);
+        }
+        return HEADER_SIZE + lineID * INDEX_ENTRY_SIZE;
+    }
+
+    /**
+     * Decodes the coordinates of a line. The interleaved coordinates can be
+     * passed directly to the batch transformation of a Projection.
+     * @param lineID The index of the line.
+     * @param dst Receives interleaved x and y coordinates. Must have space
+     * for getPointCount(lineID) points.
+     * @param offset Index of the first x coordinate in dst.
+     * @return The number of points.
+     */
+    public int getCoordinates(int lineID, double[] dst, int offset) {
+        final int entry = indexEntry(lineID);
+        final int n = buffer.getInt(entry + 4);
+        int pos = dataStart + buffer.getInt(entry);
+        long x = 0, y = 0;
+        for (int i = 0; i < n; i++) {
+            // inlined varint decoding for x and y
+            long u = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(pos++);
+                u |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            x += (u >>> 1) ^ -(u & 1);
+            u = 0;
+            shift = 0;
+            do {
+                b = buffer.get(pos++);
+                u |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            y += (u >>> 1) ^ -(u & 1);
+            dst[offset + i * 2] = x * resolution;
+            dst[offset + i * 2 + 1] = y * resolution;
+        }
+        return n;
+    }
+
+    /**
+     * Decodes a line.
+     * @param lineID The index of the line.
+     * @return A new line.
+     */
+    public MapLine getLine(int lineID) {
+        double[] xy = new double[getPointCount(lineID) * 2];
+        final int n = getCoordinates(lineID, xy, 0);
+        return new MapLine(xy, 0, n);
+    }
+
+    /**
+     * Decodes all lines.
+     * @return A new list with new lines.
+     */
+    public ArrayList<MapLine> getLines() {
+        ArrayList<MapLine> lines = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            lines.add(getLine(i));
+        }
+        return lines;
+    }
+
+    /**
+     * Decodes the lines whose bounding box intersects a rectangle and passes
+     * them to a consumer. Lines outside the rectangle are not decoded.
+     * @param rect The rectangle.
+     * @param consumer Receives new lines.
+     */
+    public void forEach(Rectangle2D rect, Consumer<MapLine> consumer) {
+        final double minX = rect.getMinX();
+        final double minY = rect.getMinY();
+        final double maxX = rect.getMaxX();
+        final double maxY = rect.getMaxY();
+        for (int i = 0; i < lineCount; i++) {
+            final int box = indexEntry(i) + 8;
+            // comparisons with NaN of empty lines are false
+            if (buffer.getDouble(box) <= maxX && buffer.getDouble(box + 16) >= minX
+                    && buffer.getDouble(box + 8) <= maxY && buffer.getDouble(box + 24) >= minY) {
+                consumer.accept(getLine(i));
+            }
+        }
+    }
+
+    /**
+     * Converts an Ungenerate file to a binary line file.
+     * Usage: BinaryLineFile input.ung output [resolution]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BinaryLineFile input.ung output [resolution]");
+            System.exit(1);
+        }
+        final double res = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_RESOLUTION;
+        write(UngenerateImporter.importData(args[0]), res, args[1]);
+    }
+}
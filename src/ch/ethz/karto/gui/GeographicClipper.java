@@ -0,0 +1,462 @@
+package ch.ethz.karto.gui;
+
+import com.jhlabs.map.MapMath;
+import com.jhlabs.map.proj.Projection;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+
+/**
+ * Clips lines in geographic coordinates to the area where a projection is
+ * valid, before any point is projected. The area is either the longitude and
+ * latitude bounds of the projection, or the circle around the centre of the
+ * projection returned by Projection.getDomainRadiusDegrees(), for example the
+ * visible hemisphere of an orthographic projection. Lines leaving the area are
+ * split, and the new end points are on the boundary of the area.
+ *
+ * Segments are straight lines in longitude and latitude, as in LineProjector.
+ * Intersections with the longitude and latitude bounds are computed exactly.
+ * Intersections with a circle are found by sampling a segment at intervals of
+ * a quarter of the radius and by bisection, so a segment that only grazes the
+ * circle between two samples can be missed. Points on the boundary of the
+ * area are inside, so lines along the boundary, such as the rim of an
+ * azimuthal projection, are kept.
+ *
+ * A clipper has no mutable state and can be shared by multiple threads. It
+ * must be created again when the projection changes.
+ */
+public final class GeographicClipper {
+
+    /**
+     * Number of bisection steps to find the intersection with a circle.
+     */
+    private static final int BISECTION_STEPS = 40;
+
+    /**
+     * Tolerance for the cosine of the distance to the centre of the circle.
+     * Points whose distance exceeds the radius by rounding errors only are
+     * inside.
+     */
+    private static final double CIRCLE_TOLERANCE = 1e-12;
+
+    private final Projection projection;
+
+    /**
+     * True if the area is bounded by a circle.
+     */
+    private final boolean circle;
+
+    /**
+     * True if nothing has to be clipped.
+     */
+    private final boolean unbounded;
+
+    /**
+     * The longitude of the centre of the projection in degrees.
+     */
+    private final double lon0;
+
+    /**
+     * The longitude bounds relative to lon0 and the latitude bounds in
+     * degrees. The longitude bounds are infinite if the projection covers 360
+     * degrees in longitude.
+     */
+    private final double minLon, maxLon, minLat, maxLat;
+
+    /**
+     * The radius of the circle in degrees, the cosine of the radius, and the
+     * sine and cosine of the latitude of the centre.
+     */
+    private final double radius, cosRadius, sinLatC, cosLatC, latC;
+
+    /**
+     * Creates a clipper.
+     *
+     * @param projection An initialized projection.
+     */
+    public GeographicClipper(Projection projection) {
+        this.projection = projection;
+        lon0 = projection.getProjectionLongitudeDegrees();
+        radius = projection.getDomainRadiusDegrees();
+        circle = radius > 0;
+        if (circle) {
+            latC = projection.getDomainCentreLatitudeDegrees();
+            sinLatC = Math.sin(latC * MapMath.DTR);
+            cosLatC = Math.cos(latC * MapMath.DTR);
+            cosRadius = Math.cos(radius * MapMath.DTR);
+            minLon = maxLon = minLat = maxLat = 0;
+            unbounded = radius >= 180;
+        } else {
+            latC = sinLatC = cosLatC = cosRadius = 0;
+            double west = projection.getMinLongitudeDegrees();
+            double east = projection.getMaxLongitudeDegrees();
+            if (east - west >= 360) {
+                west = Double.NEGATIVE_INFINITY;
+                east = Double.POSITIVE_INFINITY;
+            }
+            minLon = west;
+            maxLon = east;
+            minLat = projection.getMinLatitudeDegrees();
+            maxLat = projection.getMaxLatitudeDegrees();
+            unbounded = minLon == Double.NEGATIVE_INFINITY && minLat <= -90 && maxLat >= 90;
+        }
+    }
+
+    /**
+     * Returns true if a point is inside the area of the projection or on its
+     * boundary. This is equivalent to Projection.inside() for points that are
+     * not on the boundary.
+     *
+     * @param lon The longitude in degrees.
+     * @param lat The latitude in degrees.
+     */
+    public boolean isInside(double lon, double lat) {
+        if (circle) {
+            return unbounded || insideCircle(lon, lat);
+        }
+        return lat >= minLat && lat <= maxLat
+                && insideLongitude(relativeLongitude(lon));
+    }
+
+    /**
+     * Clips a vector of lines.
+     *
+     * @param src The lines in geographic coordinates (degrees).
+     * @param dst Receives the clipped lines.
+     */
+    public void clipLines(ArrayList<MapLine> src, ArrayList<MapLine> dst) {
+        for (MapLine line : src) {
+            clip(line, dst);
+        }
+    }
+
+    /**
+     * Clips a line. A line that is entirely inside is added to dst without
+     * copying it. Parts with fewer than two points are dropped.
+     *
+     * @param line The line in geographic coordinates (degrees).
+     * @param dst Receives the clipped parts of the line.
+     */
+    public void clip(MapLine line, ArrayList<MapLine> dst) {
+        final int n = line.size();
+        if (n == 0) {
+            return;
+        }
+        if (unbounded) {
+            dst.add(line);
+            return;
+        }
+
+        // test the bounding box before looking at single points
+        Rectangle2D ext = line.getExtension();
+        if (circle) {
+            if (ext.getMinY() > latC + radius || ext.getMaxY() < latC - radius) {
+                return;
+            }
+        } else {
+            if (ext.getMinY() > maxLat || ext.getMaxY() < minLat) {
+                return;
+            }
+            if (ext.getMinY() >= minLat && ext.getMaxY() <= maxLat
+                    && ext.getMinX() >= lon0 + minLon && ext.getMaxX() <= lon0 + maxLon) {
+                dst.add(line);
+                return;
+            }
+        }
+
+        Pieces pieces = new Pieces(dst);
+        double lonA = line.getX(0);
+        double latA = line.getY(0);
+        if (isInside(lonA, latA)) {
+            pieces.start(outputLongitude(lonA), latA);
+        }
+        for (int i = 1; i < n; i++) {
+            final double lonB = line.getX(i);
+            final double latB = line.getY(i);
+            final boolean intersects = circle
+                    ? clipToCircle(lonA, latA, lonB, latB, pieces)
+                    : clipToBox(lonA, latA, lonB, latB, pieces);
+            if (!intersects) {
+                pieces.close();
+            }
+            lonA = lonB;
+            latA = latB;
+        }
+        pieces.close();
+    }
+
+    /**
+     * Collects the parts of a line that are inside.
+     */
+    private final class Pieces {
+
+        private final ArrayList<MapLine> dst;
+        private MapLine piece = null;
+
+        Pieces(ArrayList<MapLine> dst) {
+            this.dst = dst;
+        }
+
+        void start(double lon, double lat) {
+            piece = new MapLine();
+            piece.addPoint(lon, lat);
+        }
+
+        /**
+         * Adds the part of a segment between the parameters t0 and t1. A part
+         * that does not start at the start point of the segment starts a new
+         * line, and a part that does not end at the end point ends the line.
+         */
+        void add(double lonA, double latA, double lonB, double latB,
+                double t0, double t1) {
+            if (t0 > 0 || piece == null) {
+                close();
+                piece = new MapLine();
+                addPoint(piece, lonA, latA, lonB, latB, t0, t1);
+            }
+            addPoint(piece, lonA, latA, lonB, latB, t1, t0);
+            if (t1 < 1) {
+                close();
+            }
+        }
+
+        /**
+         * Adds the current line to dst if it has at least two points.
+         */
+        void close() {
+            if (piece != null && piece.size() > 1) {
+                dst.add(piece);
+            }
+            piece = null;
+        }
+    }
+
+    /**
+     * Adds the point at parameter t of a segment to a line. Intersection
+     * points are moved towards tInner by a tiny distance if rounding has
+     * placed them outside of the projection.
+     */
+    private void addPoint(MapLine piece, double lonA, double latA,
+            double lonB, double latB, double t, double tInner) {
+        double lon = longitudeAt(lonA, lonB, t);
+        double lat = latitudeAt(latA, latB, t);
+        if (t > 0 && t < 1) {
+            double step = (tInner - t) * 1e-12;
+            double tt = t;
+            while (!projection.inside(lon, lat)
+                    && Math.abs(tt - t) < Math.abs(tInner - t) * 0.5) {
+                tt = t + step;
+                step *= 2;
+                lon = longitudeAt(lonA, lonB, tt);
+                lat = latitudeAt(latA, latB, tt);
+            }
+        }
+        final int n = piece.size();
+        if (n > 0 && piece.getX(n - 1) == lon && piece.getY(n - 1) == lat) {
+            return;
+        }
+        piece.addPoint(lon, lat);
+    }
+
+    /**
+     * Returns the longitude of the point at parameter t of a segment.
+     */
+    private double longitudeAt(double lonA, double lonB, double t) {
+        if (t == 0) {
+            return outputLongitude(lonA);
+        }
+        if (circle || minLon == Double.NEGATIVE_INFINITY) {
+            return t == 1 ? lonB : lonA + t * (lonB - lonA);
+        }
+        // longitudes relative to the start point, which is normalized
+        return lon0 + relativeLongitude(lonA) + t * (lonB - lonA);
+    }
+
+    /**
+     * Returns the latitude of the point at parameter t of a segment.
+     */
+    private static double latitudeAt(double latA, double latB, double t) {
+        if (t == 0) {
+            return latA;
+        }
+        return t == 1 ? latB : latA + t * (latB - latA);
+    }
+
+    /**
+     * Returns the longitude of a point of a clipped line. If the longitude
+     * range is less than 360 degrees, longitudes are normalized to lon0 +/-
+     * 180 degrees, otherwise they are not changed.
+     */
+    private double outputLongitude(double lon) {
+        if (circle || minLon == Double.NEGATIVE_INFINITY) {
+            return lon;
+        }
+        return lon0 + relativeLongitude(lon);
+    }
+
+    /**
+     * Returns a longitude relative to lon0 in the range -180 to +180 degrees.
+     */
+    private double relativeLongitude(double lon) {
+        if (minLon == Double.NEGATIVE_INFINITY) {
+            return lon - lon0;
+        }
+        return MapMath.normalizeLongitude((lon - lon0) * MapMath.DTR) * MapMath.RTD;
+    }
+
+    private boolean insideLongitude(double rel) {
+        return rel >= minLon && rel <= maxLon;
+    }
+
+    /**
+     * Clips a segment to the longitude and latitude bounds with the
+     * Liang-Barsky algorithm.
+     *
+     * @param pieces Receives the part inside the bounds.
+     * @return False if no part of the segment is inside the bounds.
+     */
+    private boolean clipToBox(double lonA, double latA, double lonB, double latB,
+            Pieces pieces) {
+        final double relA = relativeLongitude(lonA);
+        final double dLon = lonB - lonA;
+        final double dLat = latB - latA;
+
+        // the parameter range of the part inside
+        double t0 = 0;
+        double t1 = 1;
+        for (int edge = 0; edge < 4; edge++) {
+            // p is the change of the distance to the boundary along the
+            // segment, q the distance of the start point to the boundary
+            final double p, q;
+            switch (edge) {
+                case 0:
+                    p = -dLon;
+                    q = relA - minLon;
+                    break;
+                case 1:
+                    p = dLon;
+                    q = maxLon - relA;
+                    break;
+                case 2:
+                    p = -dLat;
+                    q = latA - minLat;
+                    break;
+                default:
+                    p = dLat;
+                    q = maxLat - latA;
+                    break;
+            }
+            if (p == 0) {
+                if (q < 0) {
+                    return false;
+                }
+                continue;
+            }
+            final double r = q / p;
+            if (p < 0) {
+                if (r > t1) {
+                    return false;
+                }
+                if (r > t0) {
+                    t0 = r;
+                }
+            } else {
+                if (r < t0) {
+                    return false;
+                }
+                if (r < t1) {
+                    t1 = r;
+                }
+            }
+        }
+        pieces.add(lonA, latA, lonB, latB, t0, t1);
+        return true;
+    }
+
+    /**
+     * Clips a segment to the circle. The segment is sampled at intervals of a
+     * quarter of the radius, and each change between inside and outside is
+     * refined by bisection.
+     *
+     * @param pieces Receives the parts inside the circle.
+     * @return False if no part of the segment is inside the circle.
+     */
+    private boolean clipToCircle(double lonA, double latA, double lonB, double latB,
+            Pieces pieces) {
+
+        // the segment is outside if its latitudes are too far from the centre
+        if (Math.min(latA, latB) > latC + radius || Math.max(latA, latB) < latC - radius) {
+            return false;
+        }
+
+        final double dLon = lonB - lonA;
+        final double dLat = latB - latA;
+        final int samples = Math.max(1, (int) Math.ceil(Math.hypot(dLon, dLat) / (radius / 4)));
+        boolean intersects = false;
+        double tPrev = 0;
+        boolean prevInside = insideCircle(lonA, latA);
+        double tStart = 0;
+        for (int i = 1; i <= samples; i++) {
+            final double tCur = (double) i / samples;
+            final boolean inside = insideCircle(lonA + tCur * dLon, latA + tCur * dLat);
+            if (inside != prevInside) {
+                // the parameter on the inner side of the boundary
+                final double tIn = bisect(lonA, latA, dLon, dLat,
+                        prevInside ? tPrev : tCur, prevInside ? tCur : tPrev);
+                if (inside) {
+                    tStart = tIn;
+                } else {
+                    pieces.add(lonA, latA, lonB, latB, tStart, tIn);
+                    intersects = true;
+                }
+            }
+            prevInside = inside;
+            tPrev = tCur;
+        }
+        if (prevInside) {
+            pieces.add(lonA, latA, lonB, latB, tStart, 1);
+            intersects = true;
+        }
+        return intersects;
+    }
+
+    /**
+     * Returns the parameter of the point where a segment crosses the circle.
+     * One end point of the segment must be inside the circle and the other
+     * outside. The returned point is on the inner side of the circle.
+     */
+    double circleIntersection(double lonA, double latA, double lonB, double latB) {
+        final boolean insideA = insideCircle(lonA, latA);
+        return bisect(lonA, latA, lonB - lonA, latB - latA, insideA ? 0 : 1, insideA ? 1 : 0);
+    }
+
+    /**
+     * Refines the parameters of a point inside and a point outside the circle
+     * by bisection.
+     *
+     * @return The parameter of the point on the inner side.
+     */
+    private double bisect(double lonA, double latA, double dLon, double dLat,
+            double tIn, double tOut) {
+        for (int j = 0; j < BISECTION_STEPS; j++) {
+            final double tMid = (tIn + tOut) * 0.5;
+            if (insideCircle(lonA + tMid * dLon, latA + tMid * dLat)) {
+                tIn = tMid;
+            } else {
+                tOut = tMid;
+            }
+        }
+        return tIn;
+    }
+
+    /**
+     * Returns true if the great circle distance between a point and the centre
+     * of the projection is not larger than the radius.
+     */
+    private boolean insideCircle(double lon, double lat) {
+        final double phi = lat * MapMath.DTR;
+        final double cosPhi = Math.cos(phi);
+        final double cosDist = Math.sin(phi) * sinLatC
+                + cosPhi * cosLatC * Math.cos((lon - lon0) * MapMath.DTR);
+        return cosDist >= cosRadius - CIRCLE_TOLERANCE;
+    }
+}
@@ -0,0 +1,245 @@
+package ch.ethz.karto.gui;
+
+import com.jhlabs.map.proj.Projection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of projected graticules and outlines. The graticule and the
+ * outline of a map only depend on the class and the parameters of the
+ * projection, the spacing of the graticule lines and the LineProjector, so
+ * they do not have to be projected again when only the projected data
+ * changes, or when a projection with the same parameters is used again.
+ *
+ * Entries are identified by Projection.getFingerprint(), which is built from
+ * the class and all parameters of the projection. The projected lines are
+ * stored packed in a single coordinate array per entry, and new MapLine
+ * objects are created for each request, so that callers can modify the
+ * returned lines. When the cache is full, the least recently used entry is
+ * removed.
+ *
+ * A GraticuleCache can be shared by multiple threads. Lines are projected
+ * outside of the lock, so that a slow projection does not block requests for
+ * other entries. Two threads missing the same entry at the same time may both
+ * project the lines; only one result is stored.
+ */
+public class GraticuleCache {
+
+    /**
+     * Default maximum number of entries.
+     */
+    public static final int DEFAULT_CAPACITY = 32;
+
+    /**
+     * Projected lines stored in a single array of interleaved coordinates.
+     */
+    private static final class PackedLines {
+
+        /**
+         * Interleaved x and y coordinates of all lines.
+         */
+        final double[] xy;
+        /**
+         * Index of the first point of each line, and the total number of
+         * points at the end.
+         */
+        final int[] starts;
+
+        PackedLines(ArrayList<MapLine> lines) {
+            starts = new int[lines.size() + 1];
+            int n = 0;
+            for (int i = 0; i < lines.size(); i++) {
+                starts[i] = n;
+                n += lines.get(i).size();
+            }
+            starts[lines.size()] = n;
+            xy = new double[n * 2];
+            for (int i = 0; i < lines.size(); i++) {
+                lines.get(i).getCoordinates(xy, starts[i] * 2);
+            }
+        }
+
+        void unpack(ArrayList<MapLine> dst) {
+            dst.ensureCapacity(dst.size() + starts.length - 1);
+            for (int i = 0; i < starts.length - 1; i++) {
+                dst.add(new MapLine(xy, starts[i] * 2, starts[i + 1] - starts[i]));
+            }
+        }
+    }
+
+    private final LineProjector projector;
+    private final int capacity;
+
+    /**
+     * Entries in the order of access. Access must be synchronized on the map.
+     */
+    private final LinkedHashMap<String, PackedLines> entries;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Creates a cache with the default capacity and a default LineProjector.
+     */
+    public GraticuleCache() {
+        this(DEFAULT_CAPACITY, new LineProjector());
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param capacity The maximum number of entries.
+     * @param projector The projector used for the graticule and the outline.
+     */
+    public GraticuleCache(int capacity, LineProjector projector) {
+        if (capacity < 1 || projector == null) {
+            throw new IllegalArgumentException();
+        }
+        this.capacity = capacity;
+        this.projector = projector;
+        this.entries = new LinkedHashMap<String, PackedLines>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PackedLines> eldest) {
+                if (size() > GraticuleCache.this.capacity) {
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public LineProjector getLineProjector() {
+        return projector;
+    }
+
+    /**
+     * Adds the projected graticule lines to a list.
+     *
+     * @param dst Receives new lines.
+     * @param projection The initialized projection.
+     * @param graticuleDensity The spacing between graticule lines in degrees.
+     */
+    public void addGraticule(ArrayList<MapLine> dst, Projection projection,
+            double graticuleDensity) {
+        if (!(graticuleDensity > 0 && graticuleDensity <= 180)) {
+            throw new IllegalArgumentException("invalid graticule density");
+        }
+        final String key = "graticule " + graticuleDensity + " " + projection.getFingerprint();
+        PackedLines lines = get(key);
+        if (lines == null) {
+            ArrayList<MapLine> projectedLines = new ArrayList<>();
+            projector.constructGraticule(projectedLines, projection, graticuleDensity);
+            lines = put(key, new PackedLines(projectedLines));
+        }
+        lines.unpack(dst);
+    }
+
+    /**
+     * Adds the projected outline of the valid area of a projection to a list.
+     *
+     * @param dst Receives new lines.
+     * @param projection The initialized projection.
+     */
+    public void addOutline(ArrayList<MapLine> dst, Projection projection) {
+        final String key = "outline " + projection.getFingerprint();
+        PackedLines lines = get(key);
+        if (lines == null) {
+            ArrayList<MapLine> projectedLines = new ArrayList<>();
+            projector.constructOutline(projection, projectedLines);
+            lines = put(key, new PackedLines(projectedLines));
+        }
+        lines.unpack(dst);
+    }
+
+    /**
+     * Returns the lines for a key and counts the hit or miss.
+     */
+    private PackedLines get(String key) {
+        PackedLines lines;
+        synchronized (entries) {
+            lines = entries.get(key);
+        }
+        if (lines == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return lines;
+    }
+
+    /**
+     * Stores lines unless another thread has stored lines for the same key
+     * in the meantime.
+     *
+     * @return The stored lines.
+     */
+    private PackedLines put(String key, PackedLines lines) {
+        synchronized (entries) {
+            PackedLines existing = entries.putIfAbsent(key, lines);
+            return existing == null ? lines : existing;
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Removes all entries. The statistics are not reset.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the number of requests answered from the cache since the
+     * creation of this cache or the last call to resetStatistics().
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of requests for which lines had to be projected.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of entries removed because the cache was full.
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Returns the ratio of hits to all requests.
+     */
+    public double getHitRate() {
+        final long hits = hitCount.sum();
+        final long requests = hits + missCount.sum();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public void resetStatistics() {
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+    }
+}
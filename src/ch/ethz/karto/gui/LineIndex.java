@@ -0,0 +1,296 @@
+package ch.ethz.karto.gui;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A static spatial index over the bounding boxes of lines. The index is an
+ * R-tree that is bulk-loaded with the Sort-Tile-Recursive (STR) algorithm:
+ * the boxes are sorted by the x coordinate of their centres, cut into
+ * vertical slices, sorted by y within each slice and packed into nodes of up
+ * to NODE_CAPACITY entries. The same is repeated for the nodes of each level
+ * until a single level is small enough to be searched linearly.
+ *
+ * The boxes of all nodes are stored in flat arrays. The index does not depend
+ * on a GUI and can be used for hit-testing without a display. It must be
+ * rebuilt when the lines change.
+ */
+public class LineIndex {
+
+    /**
+     * Maximum number of entries per node.
+     */
+    public static final int NODE_CAPACITY = 16;
+
+    private final List<MapLine> lines;
+
+    /**
+     * Boxes of all levels, four values per node: minX, minY, maxX, maxY.
+     * Level 0 holds the boxes of the lines.
+     */
+    private final double[][] boxes;
+
+    /**
+     * For each level above 0, the range of the children of each node in the
+     * level below, two values per node: the index of the first child and the
+     * index after the last child. Null for level 0.
+     */
+    private final int[][] children;
+
+    /**
+     * The indices of the lines in the order of the boxes of level 0.
+     */
+    private final int[] lineIDs;
+
+    /**
+     * The bounding box of all lines, or null if there are no lines.
+     */
+    private final Rectangle2D extension;
+
+    /**
+     * Creates an index for a list of lines. Lines without points are not
+     * indexed.
+     *
+     * @param lines The lines. The list is referenced, not copied.
+     */
+    public LineIndex(List<MapLine> lines) {
+        this.lines = lines;
+
+        // boxes of the lines
+        final int nbrLines = lines.size();
+        double[] b = new double[nbrLines * 4];
+        int[] ids = new int[nbrLines];
+        int n = 0;
+        for (int i = 0; i < nbrLines; i++) {
+            Rectangle2D ext = lines.get(i).getExtension();
+            if (ext == null) {
+                continue;
+            }
+            b[n * 4] = ext.getMinX();
+            b[n * 4 + 1] = ext.getMinY();
+            b[n * 4 + 2] = ext.getMaxX();
+            b[n * 4 + 3] = ext.getMaxY();
+            ids[n++] = i;
+        }
+
+        // build the levels bottom-up; the entries of each level are sorted
+        // before they are packed into the nodes of the next level
+        ArrayList<double[]> levelBoxes = new ArrayList<>();
+        ArrayList<int[]> levelChildren = new ArrayList<>();
+        int[] order = strOrder(b, n);
+        b = permuteBoxes(b, order);
+        lineIDs = new int[n];
+        for (int i = 0; i < n; i++) {
+            lineIDs[i] = ids[order[i]];
+        }
+        int[] children = null;
+        while (true) {
+            levelBoxes.add(b);
+            levelChildren.add(children);
+            if (n <= NODE_CAPACITY) {
+                break;
+            }
+            final int parents = (n + NODE_CAPACITY - 1) / NODE_CAPACITY;
+            double[] pb = new double[parents * 4];
+            int[] pc = new int[parents * 2];
+            for (int p = 0; p < parents; p++) {
+                final int start = p * NODE_CAPACITY;
+                final int end = Math.min(n, start + NODE_CAPACITY);
+                pc[p * 2] = start;
+                pc[p * 2 + 1] = end;
+                double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+                double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+                for (int c = start; c < end; c++) {
+                    minX = Math.min(minX, b[c * 4]);
+                    minY = Math.min(minY, b[c * 4 + 1]);
+                    maxX = Math.max(maxX, b[c * 4 + 2]);
+                    maxY = Math.max(maxY, b[c * 4 + 3]);
+                }
+                pb[p * 4] = minX;
+                pb[p * 4 + 1] = minY;
+                pb[p * 4 + 2] = maxX;
+                pb[p * 4 + 3] = maxY;
+            }
+
+            // sort the new nodes, moving their ranges of children with them
+            order = strOrder(pb, parents);
+            b = permuteBoxes(pb, order);
+            children = new int[parents * 2];
+            for (int p = 0; p < parents; p++) {
+                children[p * 2] = pc[order[p] * 2];
+                children[p * 2 + 1] = pc[order[p] * 2 + 1];
+            }
+            n = parents;
+        }
+        boxes = levelBoxes.toArray(new double[levelBoxes.size()][]);
+        this.children = levelChildren.toArray(new int[levelChildren.size()][]);
+
+        // the bounding box of all lines
+        if (n == 0) {
+            extension = null;
+        } else {
+            double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                minX = Math.min(minX, b[i * 4]);
+                minY = Math.min(minY, b[i * 4 + 1]);
+                maxX = Math.max(maxX, b[i * 4 + 2]);
+                maxY = Math.max(maxY, b[i * 4 + 3]);
+            }
+            extension = new Rectangle2D.Double(minX, minY, maxX - minX, maxY - minY);
+        }
+    }
+
+    /**
+     * Returns the Sort-Tile-Recursive order of a number of boxes.
+     */
+    private static int[] strOrder(final double[] b, int n) {
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        // sort by the x coordinate of the centres
+        Arrays.sort(order, (i, j) -> Double.compare(b[i * 4] + b[i * 4 + 2], b[j * 4] + b[j * 4 + 2]));
+        // cut into vertical slices and sort each slice by y
+        final int leaves = (n + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        final int slices = (int) Math.ceil(Math.sqrt(leaves));
+        final int sliceSize = slices * NODE_CAPACITY;
+        for (int start = 0; start < n; start += sliceSize) {
+            Arrays.sort(order, start, Math.min(n, start + sliceSize),
+                    (i, j) -> Double.compare(b[i * 4 + 1] + b[i * 4 + 3], b[j * 4 + 1] + b[j * 4 + 3]));
+        }
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    private static double[] permuteBoxes(double[] b, int[] order) {
+        double[] sorted = new double[order.length * 4];
+        for (int i = 0; i < order.length; i++) {
+            System.arraycopy(b, order[i] * 4, sorted, i * 4, 4);
+        }
+        return sorted;
+    }
+
+    /**
+     * Returns the bounding box of all lines. The box is computed when the
+     * index is built.
+     *
+     * @return A new rectangle, or null if there are no lines.
+     */
+    public Rectangle2D getExtension() {
+        return extension == null ? null : (Rectangle2D) extension.clone();
+    }
+
+    /**
+     * Returns the indexed lines.
+     */
+    public List<MapLine> getLines() {
+        return lines;
+    }
+
+    /**
+     * Passes all lines whose bounding box intersects a rectangle to an
+     * action.
+     *
+     * @param rect The rectangle.
+     * @param action Receives the lines.
+     */
+    public void forEach(Rectangle2D rect, Consumer<MapLine> action) {
+        final double minX = rect.getMinX();
+        final double minY = rect.getMinY();
+        final double maxX = rect.getMaxX();
+        final double maxY = rect.getMaxY();
+        final int topLevel = boxes.length - 1;
+        final double[] top = boxes[topLevel];
+        for (int i = 0; i < top.length / 4; i++) {
+            visit(topLevel, i, minX, minY, maxX, maxY, action);
+        }
+    }
+
+    private void visit(int level, int node, double minX, double minY,
+            double maxX, double maxY, Consumer<MapLine> action) {
+        final double[] b = boxes[level];
+        if (b[node * 4] > maxX || b[node * 4 + 2] < minX
+                || b[node * 4 + 1] > maxY || b[node * 4 + 3] < minY) {
+            return;
+        }
+        if (level == 0) {
+            action.accept(lines.get(lineIDs[node]));
+            return;
+        }
+        final int[] c = children[level];
+        for (int child = c[node * 2]; child < c[node * 2 + 1]; child++) {
+            visit(level - 1, child, minX, minY, maxX, maxY, action);
+        }
+    }
+
+    /**
+     * Returns all lines whose bounding box intersects a rectangle.
+     *
+     * @param rect The rectangle.
+     * @return A new list with the lines.
+     */
+    public ArrayList<MapLine> query(Rectangle2D rect) {
+        ArrayList<MapLine> result = new ArrayList<>();
+        forEach(rect, result::add);
+        return result;
+    }
+
+    /**
+     * Returns the line closest to a point.
+     *
+     * @param x The horizontal coordinate of the point.
+     * @param y The vertical coordinate of the point.
+     * @param tolerance The maximum distance between the point and the line.
+     * @return The closest line, or null if no line is closer than the
+     * tolerance.
+     */
+    public MapLine hitTest(double x, double y, double tolerance) {
+        final MapLine[] closest = new MapLine[1];
+        final double[] minDistSq = {tolerance * tolerance};
+        Rectangle2D rect = new Rectangle2D.Double(x - tolerance, y - tolerance,
+                2 * tolerance, 2 * tolerance);
+        forEach(rect, line -> {
+            double dsq = distanceSquare(line, x, y);
+            if (dsq <= minDistSq[0]) {
+                minDistSq[0] = dsq;
+                closest[0] = line;
+            }
+        });
+        return closest[0];
+    }
+
+    /**
+     * Square of the distance between a point and the closest segment of a
+     * line.
+     */
+    private static double distanceSquare(MapLine line, double x, double y) {
+        final double[] xy = line.coordinateArray();
+        final int n = line.size();
+        if (n == 1) {
+            final double dx = xy[0] - x;
+            final double dy = xy[1] - y;
+            return dx * dx + dy * dy;
+        }
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 2; i < n * 2; i += 2) {
+            final double x1 = xy[i - 2];
+            final double y1 = xy[i - 1];
+            final double dx = xy[i] - x1;
+            final double dy = xy[i + 1] - y1;
+            final double lengthSq = dx * dx + dy * dy;
+            double t = lengthSq == 0 ? 0 : ((x - x1) * dx + (y - y1) * dy) / lengthSq;
+            t = Math.max(0, Math.min(1, t));
+            final double ex = x1 + t * dx - x;
+            final double ey = y1 + t * dy - y;
+            min = Math.min(min, ex * ex + ey * ey);
+        }
+        return min;
+    }
+}
@@ -9,20 +9,208 @@ import com.jhlabs.map.proj.Projection;
 import com.jhlabs.map.proj.ProjectionException;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Projects open lines.
  *
+ * A LineProjector has no mutable state and can be shared by multiple threads.
+ * The state needed while a line is projected is kept in a LineContext. The
+ * statistics are thread-safe counters.
+ *
+ * Segments that are curved after projection are densified by adding
+ * intermediate points until the middle point of each segment is closer than
+ * the curve tolerance to the straight line between the end points. The
+ * subdivision is iterative and bounded by a maximum depth and a maximum number
+ * of points per segment, so that segments crossing singularities (for example
+ * the horizon of gnomonic projections or the poles of the Mercator
+ * projection) cannot exhaust the stack or run away.
+ *
+ * Before a line is projected, it is clipped in geographic coordinates to the
+ * area where the projection is valid with a GeographicClipper. Parts outside
+ * of this area are not projected, and lines leaving the area end on its
+ * boundary.
+ *
  * @author Bernhard Jenny, Institute of Cartography, ETH Zurich.
  */
 public class LineProjector {
 
-    private int graticuleDensity = 15; // FIXME
-    private double curveTolerance = 500; // FIXME
-    private boolean addIntermediatePointsAlongCurves = true; // FIXME
-    private boolean prevPointOutOfRange = false;
+    /**
+     * Default curve tolerance in projected units (metres).
+     */
+    public static final double DEFAULT_CURVE_TOLERANCE = 500;
+
+    /**
+     * Default maximum number of times a segment is halved.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 20;
+
+    /**
+     * Default maximum number of points added to a single segment.
+     */
+    public static final int DEFAULT_MAX_POINTS_PER_SEGMENT = 4096;
 
-    private void projectMoveTo(double x, double y, MapLine projectedLine, Projection projection) {
+    /**
+     * Default spacing of graticule lines in degrees.
+     */
+    public static final double DEFAULT_GRATICULE_DENSITY = 15;
+
+    /**
+     * Number of points along the outline of projections that are bounded by a
+     * circle. The points are connected by straight lines after projection,
+     * because intermediate points of segments along the circle are outside of
+     * the projection.
+     */
+    private static final int CIRCLE_OUTLINE_POINTS = 720;
+
+    /**
+     * Distance in degrees by which the outline of projections bounded by a
+     * circle is moved inside. Projection.inside() excludes points on the
+     * circle, and rounding errors would otherwise drop random outline points.
+     */
+    private static final double CIRCLE_OUTLINE_INSET = 1e-9;
+
+    private final double curveTolerance;
+    private final int maxDepth;
+    private final int maxPointsPerSegment;
+
+    private final LongAdder projectionCount = new LongAdder();
+    private final LongAdder vertexCount = new LongAdder();
+
+    /**
+     * Lines with fewer points than this in total are projected by a single
+     * task in projectLines().
+     */
+    private static final int POINTS_PER_TASK = 4096;
+
+    /**
+     * The state of the projection of a single line.
+     */
+    private static final class LineContext {
+
+        final Projection projection;
+        final boolean addIntermediatePointsAlongCurves;
+        /**
+         * If true, the middle point of a segment is on the shorter way
+         * around the globe between the end points.
+         */
+        boolean shortestLongitude = false;
+        /**
+         * Receives lines that are split at the bounding meridian.
+         */
+        final ArrayList<MapLine> lines;
+        /**
+         * True if the last point is outside of lon0 +/- 180deg.
+         */
+        boolean prevPointOutOfRange = false;
+        /**
+         * Scratch point for projected coordinates.
+         */
+        final Point2D.Double xy = new Point2D.Double();
+        /**
+         * Stack of segments and points for curvedLineTo().
+         */
+        double[] stack = null;
+        /**
+         * Number of points projected for this line.
+         */
+        long projections = 0;
+
+        LineContext(Projection projection, boolean addIntermediatePointsAlongCurves,
+                ArrayList<MapLine> lines) {
+            this.projection = projection;
+            this.addIntermediatePointsAlongCurves = addIntermediatePointsAlongCurves;
+            this.lines = lines;
+        }
+    }
+
+    /**
+     * Creates a projector with the default curve tolerance and limits.
+     */
+    public LineProjector() {
+        this(DEFAULT_CURVE_TOLERANCE, DEFAULT_MAX_DEPTH, DEFAULT_MAX_POINTS_PER_SEGMENT);
+    }
+
+    /**
+     * Creates a projector.
+     *
+     * @param curveTolerance Maximum distance between a projected curve and its
+     * approximating straight segments in projected units.
+     * @param maxDepth Maximum number of times a segment is halved.
+     * @param maxPointsPerSegment Maximum number of points added to a single
+     * segment.
+     */
+    public LineProjector(double curveTolerance, int maxDepth, int maxPointsPerSegment) {
+        if (!(curveTolerance > 0) || maxDepth < 0 || maxPointsPerSegment < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.curveTolerance = curveTolerance;
+        this.maxDepth = maxDepth;
+        this.maxPointsPerSegment = maxPointsPerSegment;
+    }
+
+    /**
+     * Creates a projector with a curve tolerance relative to the scale of the
+     * map, for example a quarter of a pixel.
+     *
+     * @param mapTolerance The tolerance in map units, for example in pixels.
+     * @param projectedUnitsPerMapUnit The scale of the map, for example in
+     * metres per pixel.
+     */
+    public static LineProjector forMapScale(double mapTolerance, double projectedUnitsPerMapUnit) {
+        return new LineProjector(mapTolerance * projectedUnitsPerMapUnit,
+                DEFAULT_MAX_DEPTH, DEFAULT_MAX_POINTS_PER_SEGMENT);
+    }
+
+    public double getCurveTolerance() {
+        return curveTolerance;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getMaxPointsPerSegment() {
+        return maxPointsPerSegment;
+    }
+
+    /**
+     * Returns the number of projected points since the creation of this
+     * projector or the last call to resetStatistics().
+     */
+    public long getProjectionCount() {
+        return projectionCount.sum();
+    }
+
+    /**
+     * Returns the number of vertices of lines passed to project().
+     */
+    public long getVertexCount() {
+        return vertexCount.sum();
+    }
+
+    /**
+     * Returns the average number of projected points per input vertex.
+     */
+    public double getProjectionsPerVertex() {
+        long vertices = vertexCount.sum();
+        return vertices == 0 ? 0 : (double) projectionCount.sum() / vertices;
+    }
+
+    public void resetStatistics() {
+        projectionCount.reset();
+        vertexCount.reset();
+    }
+
+    private void projectMoveTo(double x, double y, MapLine projectedLine, LineContext ctx) {
+
+        final Projection projection = ctx.projection;
 
         // test if the point is outside of lon0 +/- 180deg
         final double lon0 = projection.getProjectionLongitudeDegrees();
@@ -31,7 +219,8 @@ public class LineProjector {
 
         // project the point
         if (projection.inside(x, y)) {
-            Point2D.Double dst = new Point2D.Double();
+            Point2D.Double dst = ctx.xy;
+            ctx.projections++;
             try {
                 projection.transform(x, y, dst);
             } catch (ProjectionException exc) {
@@ -42,7 +231,7 @@ public class LineProjector {
             }
             projectedLine.addPoint(dst.x, dst.y);
         }
-        prevPointOutOfRange = pointOutOfRange;
+        ctx.prevPointOutOfRange = pointOutOfRange;
 
     }
 
@@ -64,21 +253,20 @@ public class LineProjector {
     private MapLine projectLineTo(double lonEnd, double latEnd,
             double lonStart, double latStart,
             MapLine projPath,
-            ArrayList<MapLine> lines,
-            Projection projection) {
+            LineContext ctx) {
 
         // test if the point is outside of lon0 +/- 180deg
-        final double lon0 = projection.getProjectionLongitudeDegrees();
+        final double lon0 = ctx.projection.getProjectionLongitudeDegrees();
         final double xlon0 = lonEnd - lon0;
         final boolean pointOutOfRange = xlon0 < -180 || xlon0 > 180;
 
-        if (prevPointOutOfRange != pointOutOfRange) {
-            prevPointOutOfRange = pointOutOfRange;
+        if (ctx.prevPointOutOfRange != pointOutOfRange) {
+            ctx.prevPointOutOfRange = pointOutOfRange;
             projPath = projectIntersectingLineTo(lonEnd, latEnd,
                     lonStart, latStart,
-                    projPath, lines, projection);
+                    projPath, ctx);
         } else {
-            lineTo(lonStart, latStart, lonEnd, latEnd, projPath, projection);
+            lineTo(lonStart, latStart, lonEnd, latEnd, projPath, ctx);
         }
 
         return projPath;
@@ -99,20 +287,18 @@ public class LineProjector {
     private MapLine projectIntersectingLineTo(double lonEnd, double latEnd,
             double lonStart, double latStart,
             MapLine projPath,
-            ArrayList<MapLine> lines,
-            Projection projection) {
+            LineContext ctx) {
 
         final double dLon = lonEnd - lonStart;
         final double dLat = latEnd - latStart;
 
         // compute intersection point in geographic coordinates
-        final double lon0 = projection.getProjectionLongitudeDegrees();
+        final double lon0 = ctx.projection.getProjectionLongitudeDegrees();
         final double maxLon = 180 + lon0;
         final double minLon = -180 + lon0;
 
-        // FIXME: intersections are not detected for projections that have not
-        // a graticule covering 360 degrees in longitude
-        // FIXME: intersections with min latitude and max latitude missing.
+        // lines have been clipped to the longitude and latitude bounds by
+        // the GeographicClipper, so only the bounding meridian is intersected
         final double lon1; // the longitude of the intermediate end point
         final double lon2; // the longitude of the intermediate start point
         final double lat; // the latitude of both intermediate points
@@ -137,20 +323,20 @@ public class LineProjector {
         }
 
         // add line from start of line to intersection
-        lineTo(lonStart, latStart, lon1, lat, projPath, projection);
+        lineTo(lonStart, latStart, lon1, lat, projPath, ctx);
 
         // store the line and create a new one
-        lines.add(projPath);
+        ctx.lines.add(projPath);
         projPath = new MapLine();
 
         // add start point to new line, which is the intersection point
-        MapPoint xy = projectPoint(lon2, lat, projection);
-        if (xy != null) {
-            projPath.addPoint(xy);
+        Point2D.Double xy = ctx.xy;
+        if (projectPoint(lon2, lat, ctx, xy)) {
+            projPath.addPoint(xy.x, xy.y);
         }
 
         // add line to end of line
-        lineTo(lon2, lat, lonEnd, latEnd, projPath, projection);
+        lineTo(lon2, lat, lonEnd, latEnd, projPath, ctx);
 
         return projPath;
     }
@@ -158,38 +344,36 @@ public class LineProjector {
     private void lineTo(double lonStart, double latStart,
             double lonEnd, double latEnd,
             MapLine projPath,
-            Projection projection) {
+            LineContext ctx) {
 
         if (lonStart == lonEnd && latStart == latEnd) {
             return;
         }
 
-        if (addIntermediatePointsAlongCurves) {
-            curvedLineTo(lonStart, latStart, lonEnd, latEnd, projPath, projection);
+        if (ctx.addIntermediatePointsAlongCurves) {
+            curvedLineTo(lonStart, latStart, lonEnd, latEnd, projPath, ctx);
         } else {
-            straightLineTo(lonEnd, latEnd, projPath, projection);
+            straightLineTo(lonEnd, latEnd, projPath, ctx);
         }
 
     }
 
     private void straightLineTo(double lonEnd, double latEnd,
             MapLine projPath,
-            Projection projection) {
+            LineContext ctx) {
 
-        MapPoint xy = projectPoint(lonEnd, latEnd, projection);
-        if (xy == null) {
+        Point2D.Double xy = ctx.xy;
+        if (!projectPoint(lonEnd, latEnd, ctx, xy)) {
             return;
         }
 
         // don't add the same coordinates twice
-        if (projPath.size() > 0) {
-            MapPoint endPoint = projPath.getPoint(projPath.size() - 1);
-            if (endPoint != null && endPoint.equals(xy)) {
-                return;
-            }
+        final int n = projPath.size();
+        if (n > 0 && projPath.getX(n - 1) == xy.x && projPath.getY(n - 1) == xy.y) {
+            return;
         }
 
-        projPath.addPoint(xy);
+        projPath.addPoint(xy.x, xy.y);
     }
 
     /**
@@ -201,37 +385,127 @@ public class LineProjector {
         return MapMath.normalizeLongitude(lon - lon0Rad) * MapMath.RTD;
     }
 
-    private void curvedLineTo(double lonStart, double latStart, double lonEnd, double latEnd, MapLine projPath, Projection projection) {
-        MapPoint xyEnd = projectPoint(lonEnd, latEnd, projection);
-        if (xyEnd == null) {
+    /**
+     * Number of values per segment on the stack of curvedLineTo().
+     */
+    private static final int STRIDE = 7;
+
+    /**
+     * Projects a segment and adds intermediate points where the projected
+     * segment is curved. The segment is halved until the projected middle
+     * point is within the curve tolerance, the maximum depth is reached, or
+     * the maximum number of points for the segment has been added. Instead of
+     * recursion, an explicit stack holds the segments still to be processed in
+     * the order of the line. Each segment adds its projected end point, which
+     * is stored on the stack and reused by the halves.
+     */
+    private void curvedLineTo(double lonStart, double latStart,
+            double lonEnd, double latEnd, MapLine projPath, LineContext ctx) {
+
+        final Projection projection = ctx.projection;
+        final Point2D.Double xy = ctx.xy;
+        if (!projectPoint(lonEnd, latEnd, ctx, xy)) {
+            return;
+        }
+        if (isStraight(lonStart, latStart, lonEnd, latEnd, projection)) {
+            if (projPath.size() > 0) {
+                projPath.addPoint(xy.x, xy.y);
+            }
             return;
         }
-        double lonStartNorm = normalizeLongitude(lonStart, projection);
-        double lonEndNorm = normalizeLongitude(lonEnd, projection);
         final double lon0Deg = projection.getProjectionLongitudeDegrees();
+        final double tolSq = curveTolerance * curveTolerance;
+        int addedPoints = 0;
 
-        // project the intermediate point between the start and the end point
-        double lonMean = (lonStartNorm + lonEndNorm) * 0.5 + lon0Deg;
-        double latMean = (latStart + latEnd) * 0.5;
-        MapPoint xyMean = projectPoint(lonMean, latMean, projection);
-        if (xyMean == null) {
-            return;
+        double[] stack = ctx.stack;
+        if (stack == null) {
+            stack = ctx.stack = new double[STRIDE * (maxDepth + 2)];
         }
+        int top = push(stack, 0, lonStart, latStart, lonEnd, latEnd, xy.x, xy.y, 0);
+
+        while (top > 0) {
+            top -= STRIDE;
+            final double lonS = stack[top];
+            final double latS = stack[top + 1];
+            final double lonE = stack[top + 2];
+            final double latE = stack[top + 3];
+            final double xEnd = stack[top + 4];
+            final double yEnd = stack[top + 5];
+            final int depth = (int) stack[top + 6];
+
+            // project the intermediate point between the start and the end point
+            double lonMean;
+            if (ctx.shortestLongitude) {
+                double dLon = MapMath.normalizeLongitude((lonE - lonS) * MapMath.DTR) * MapMath.RTD;
+                lonMean = lonS + dLon * 0.5;
+            } else {
+                double lonStartNorm = normalizeLongitude(lonS, projection);
+                double lonEndNorm = normalizeLongitude(lonE, projection);
+                lonMean = (lonStartNorm + lonEndNorm) * 0.5 + lon0Deg;
+            }
+            double latMean = (latS + latE) * 0.5;
+            if (!projectPoint(lonMean, latMean, ctx, xy)) {
+                // a half still ends at the end point of its parent segment
+                if (depth > 0) {
+                    projPath.addPoint(xEnd, yEnd);
+                }
+                continue;
+            }
 
-        if (projPath.size() == 0) {
-            return;
+            final int n = projPath.size();
+            if (n == 0) {
+                continue;
+            }
+
+            // compute the orthogonal distance of the mean point to the line
+            // between the start and the end point
+            double dsq = pointLineDistanceSquare(xy.x, xy.y,
+                    projPath.getX(n - 1), projPath.getY(n - 1), xEnd, yEnd);
+            if (dsq > tolSq && depth < maxDepth && addedPoints < maxPointsPerSegment) {
+                // the first half adds the mean point, the second half the
+                // end point
+                addedPoints++;
+                if (top + 2 * STRIDE > stack.length) {
+                    stack = ctx.stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                top = push(stack, top, lonMean, latMean, lonE, latE, xEnd, yEnd, depth + 1);
+                top = push(stack, top, lonS, latS, lonMean, latMean, xy.x, xy.y, depth + 1);
+            } else {
+                projPath.addPoint(xEnd, yEnd);
+            }
         }
-        final MapPoint xyStart = projPath.getPoint(projPath.size() - 1);
+    }
 
-        // compute the orthogonal distance of the mean point to the line
-        // between the start and the end point
-        double dsq = pointLineDistanceSquare(xyMean, xyStart, xyEnd);
-        if (dsq > curveTolerance * curveTolerance) {
-            curvedLineTo(lonStart, latStart, lonMean, latMean, projPath, projection);
-            projPath.addPoint(xyMean);
-            curvedLineTo(lonMean, latMean, lonEnd, latEnd, projPath, projection);
+    /**
+     * Returns true if the projected segment is known to be a straight line,
+     * so that no intermediate points are needed. This is the case for
+     * segments along parallels if parallels are straight, for segments along
+     * meridians if meridians are straight, and for segments along the equator
+     * if great circles are straight.
+     */
+    private static boolean isStraight(double lonStart, double latStart,
+            double lonEnd, double latEnd, Projection projection) {
+        if (latStart == latEnd) {
+            return projection.parallelsAreParallel()
+                    || (latStart == 0 && projection.greatCirclesAreStraight());
+        }
+        if (lonStart == lonEnd) {
+            return projection.meridiansAreStraight();
         }
-        projPath.addPoint(xyEnd);
+        return false;
+    }
+
+    private static int push(double[] stack, int top,
+            double lonStart, double latStart, double lonEnd, double latEnd,
+            double xEnd, double yEnd, int depth) {
+        stack[top] = lonStart;
+        stack[top + 1] = latStart;
+        stack[top + 2] = lonEnd;
+        stack[top + 3] = latEnd;
+        stack[top + 4] = xEnd;
+        stack[top + 5] = yEnd;
+        stack[top + 6] = depth;
+        return top + STRIDE;
     }
 
     /**
@@ -259,33 +533,79 @@ public class LineProjector {
     }
 
     /**
-     * Square distance between a point and a line defined by two other points.
-     * See http://mathworld.wolfram.com/Point-LineDistance2-Dimensional.html
+     * Projects a point.
      *
-     * @param p0 The point not on the line.
-     * @param p1 A point on the line.
-     * @param p2 Another point on the line.
+     * @param dst Receives the projected point.
+     * @return False if the point is outside of the projection or cannot be
+     * projected.
      */
-    private static double pointLineDistanceSquare(MapPoint p0, MapPoint p1, MapPoint p2) {
-        return pointLineDistanceSquare(p0.x, p0.y, p1.x, p1.y, p2.x, p2.y);
-    }
-
-    private MapPoint projectPoint(double lon, double lat, Projection projection) {
+    private boolean projectPoint(double lon, double lat, LineContext ctx,
+            Point2D.Double dst) {
+        final Projection projection = ctx.projection;
         if (!projection.inside(lon, lat)) {
-            return null;
+            return false;
         }
 
         // project the point
-        Point2D.Double dst = new Point2D.Double();
+        ctx.projections++;
         try {
             projection.transform(lon, lat, dst);
         } catch (ProjectionException exc) {
-            return null;
+            return false;
         }
-        if (Double.isNaN(dst.x) || Double.isNaN(dst.y)) {
-            return null;
+        return !Double.isNaN(dst.x) && !Double.isNaN(dst.y);
+    }
+
+    /**
+     * Projects a closed ring of a polygon and adds intermediate points along
+     * curved segments. The ring is not split at the bounding meridian, so all
+     * points must be inside the projection.
+     *
+     * @param lonLat Interleaved longitudes and latitudes in degrees. The ring
+     * is closed implicitly.
+     * @param numPoints The number of points of the ring.
+     * @param straight If not null, segments starting at a point i with
+     * straight[i] set are projected without intermediate points. The last
+     * segment connects the last point with the first point.
+     * @param projection The projection.
+     * @param shortestLongitude If true, segments take the shorter way around
+     * the globe, and may cross the bounding meridian. Otherwise the
+     * longitudes must stay within the projection longitude +/- 180 degrees.
+     * @param dst Receives the projected points.
+     */
+    void projectRing(double[] lonLat, int numPoints, boolean[] straight,
+            Projection projection, boolean shortestLongitude, MapLine dst) {
+
+        if (numPoints < 1) {
+            return;
+        }
+        LineContext ctx = new LineContext(projection, true, null);
+        ctx.shortestLongitude = shortestLongitude;
+        Point2D.Double xy = ctx.xy;
+        if (projectPoint(lonLat[0], lonLat[1], ctx, xy)) {
+            dst.addPoint(xy.x, xy.y);
         }
-        return new MapPoint(dst.x, dst.y);
+        final int first = dst.size() - 1;
+        for (int i = 0; i < numPoints; i++) {
+            final int next = (i + 1) % numPoints;
+            final double lonStart = lonLat[i * 2];
+            final double latStart = lonLat[i * 2 + 1];
+            final double lonEnd = lonLat[next * 2];
+            final double latEnd = lonLat[next * 2 + 1];
+            if (straight != null && straight[i]) {
+                straightLineTo(lonEnd, latEnd, dst, ctx);
+            } else {
+                lineTo(lonStart, latStart, lonEnd, latEnd, dst, ctx);
+            }
+        }
+
+        // the ring is closed implicitly, remove the repeated first point
+        final int n = dst.size();
+        if (n > first + 1 && first >= 0 && dst.getX(n - 1) == dst.getX(first)
+                && dst.getY(n - 1) == dst.getY(first)) {
+            dst.removePoint(n - 1);
+        }
+        projectionCount.add(ctx.projections);
     }
 
     public ArrayList<MapLine> inverse(ArrayList<MapLine> lines, Projection projection) {
@@ -298,14 +618,17 @@ public class LineProjector {
         ArrayList<MapLine> projectedLines = new ArrayList<MapLine>();
 
         // loop over all lines to inverse-project
+        Point2D.Double point = new Point2D.Double();
         for (MapLine line : lines) {
-            MapLine projectedLine = new MapLine();
+            final int nbrPoints = line.size();
+            MapLine projectedLine = new MapLine(nbrPoints);
 
             // loop over all points of the line
-            for (MapPoint p : line.getPoints()) {
-                Point2D.Double point = new Point2D.Double(p.x, p.y);
+            for (int i = 0; i < nbrPoints; i++) {
+                point.x = line.getX(i);
+                point.y = line.getY(i);
                 projection.inverseTransform(point, point);
-                projectedLine.addPoint(new MapPoint(point.x, point.y));
+                projectedLine.addPoint(point.x, point.y);
             }
 
             // add the projected line to the array of projected lines
@@ -319,11 +642,55 @@ public class LineProjector {
 
     }
 
+    /**
+     * Projects a line and adds intermediate points along curved segments.
+     */
     public void project(MapLine line, Projection projection, ArrayList<MapLine> projectedLines) {
+        project(line, projection, projectedLines, true);
+    }
+
+    /**
+     * Projects a line.
+     *
+     * @param line The line in geographic coordinates (degrees).
+     * @param projection The projection.
+     * @param projectedLines Receives the projected line. A line crossing the
+     * bounding meridian is split into multiple lines.
+     * @param addIntermediatePointsAlongCurves If true, points are added along
+     * segments that are curved after projection.
+     */
+    public void project(MapLine line, Projection projection,
+            ArrayList<MapLine> projectedLines, boolean addIntermediatePointsAlongCurves) {
+        project(line, projection, new GeographicClipper(projection),
+                projectedLines, addIntermediatePointsAlongCurves);
+    }
+
+    /**
+     * Clips a line to the area of the projection and projects the clipped
+     * parts.
+     */
+    private void project(MapLine line, Projection projection,
+            GeographicClipper clipper, ArrayList<MapLine> projectedLines,
+            boolean addIntermediatePointsAlongCurves) {
 
         if (line.size() < 1) {
             return;
         }
+        vertexCount.add(line.size());
+
+        ArrayList<MapLine> clippedLines = new ArrayList<MapLine>(1);
+        clipper.clip(line, clippedLines);
+        for (MapLine clippedLine : clippedLines) {
+            projectClipped(clippedLine, projection, projectedLines,
+                    addIntermediatePointsAlongCurves);
+        }
+    }
+
+    private void projectClipped(MapLine line, Projection projection,
+            ArrayList<MapLine> projectedLines, boolean addIntermediatePointsAlongCurves) {
+
+        LineContext ctx = new LineContext(projection,
+                addIntermediatePointsAlongCurves, projectedLines);
 
         // create a new line for the projected coordinates.
         MapLine projectedLine = new MapLine();
@@ -331,18 +698,15 @@ public class LineProjector {
         // loop over all points of the line
         int nbrPoints = line.size();
 
-        prevPointOutOfRange = false;
-        MapPoint point = line.getPoint(0);
-        double prevLon = point.x;
-        double prevLat = point.y;
-        projectMoveTo(point.x, point.y, projectedLine, projection);
+        double prevLon = line.getX(0);
+        double prevLat = line.getY(0);
+        projectMoveTo(prevLon, prevLat, projectedLine, ctx);
 
         for (int pointID = 1; pointID < nbrPoints; pointID++) {
-            point = line.getPoint(pointID);
-            final double lon = point.x;
-            final double lat = point.y;
+            final double lon = line.getX(pointID);
+            final double lat = line.getY(pointID);
             projectedLine = projectLineTo(lon, lat, prevLon, prevLat,
-                    projectedLine, projectedLines, projection);
+                    projectedLine, ctx);
             prevLon = lon;
             prevLat = lat;
         }
@@ -352,6 +716,7 @@ public class LineProjector {
             projectedLines.add(projectedLine);
         }
 
+        projectionCount.add(ctx.projections);
     }
 
     /**
@@ -362,25 +727,140 @@ public class LineProjector {
         if (src == null || dst == null) {
             return;
         }
-        
-        this.addIntermediatePointsAlongCurves = false;
 
         // loop over all lines to project
+        GeographicClipper clipper = new GeographicClipper(projection);
         int nbrLines = src.size();
         for (int lineID = 0; lineID < nbrLines; lineID++) {
-            MapLine line = (MapLine) src.get(lineID);
-            project(line, projection, dst);
+            MapLine line = src.get(lineID);
+            project(line, projection, clipper, dst, false);
+        }
+
+    }
+
+    /**
+     * Projects a vector of lines in parallel. The lines are distributed over
+     * fork/join tasks by their number of points. The projected lines are added
+     * to dst in the same order as projectLines(src, dst, projection) would add
+     * them. Projections that are not reentrant are cloned once for each
+     * worker thread.
+     *
+     * @param src The lines in geographic coordinates (degrees).
+     * @param dst Receives the projected lines.
+     * @param projection An initialized projection that is not modified while
+     * the lines are projected.
+     * @param pool The pool executing the tasks.
+     */
+    public void projectLines(ArrayList<MapLine> src, ArrayList<MapLine> dst,
+            Projection projection, ForkJoinPool pool) {
+
+        if (src == null || dst == null) {
+            return;
+        }
+
+        // cumulative number of points, used to split tasks with an equal load
+        final int nbrLines = src.size();
+        long[] cumulativePoints = new long[nbrLines + 1];
+        for (int i = 0; i < nbrLines; i++) {
+            cumulativePoints[i + 1] = cumulativePoints[i] + src.get(i).size();
+        }
+
+        // one list of projected lines per source line to keep the order
+        List<List<MapLine>> results = new ArrayList<>(Collections.<List<MapLine>>nCopies(nbrLines, null));
+        ThreadLocal<Projection> clones = projection.isReentrant() ? null
+                : ThreadLocal.withInitial(() -> (Projection) projection.clone());
+        ProjectLinesTask task = new ProjectLinesTask(src, results,
+                cumulativePoints, projection, clones, 0, nbrLines);
+        if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+
+        for (List<MapLine> lines : results) {
+            dst.addAll(lines);
         }
+    }
 
+    /**
+     * Projects a range of lines.
+     */
+    private final class ProjectLinesTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ArrayList<MapLine> src;
+        /**
+         * The projected lines of each source line. Each task sets the
+         * elements of its own range.
+         */
+        private final List<List<MapLine>> results;
+        private final long[] cumulativePoints;
+        private final Projection projection;
+        /**
+         * Clones of the projection for each worker thread, or null if the
+         * projection is reentrant.
+         */
+        private final ThreadLocal<Projection> clones;
+        private final int from;
+        private final int to;
+
+        ProjectLinesTask(ArrayList<MapLine> src, List<List<MapLine>> results,
+                long[] cumulativePoints, Projection projection,
+                ThreadLocal<Projection> clones, int from, int to) {
+            this.src = src;
+            this.results = results;
+            this.cumulativePoints = cumulativePoints;
+            this.projection = projection;
+            this.clones = clones;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            final long points = cumulativePoints[to] - cumulativePoints[from];
+            if (to - from > 1 && points > POINTS_PER_TASK) {
+                // split where half of the points are on either side
+                final long half = cumulativePoints[from] + points / 2;
+                int mid = Arrays.binarySearch(cumulativePoints, from, to + 1, half);
+                mid = mid < 0 ? -mid - 1 : mid;
+                mid = Math.max(from + 1, Math.min(to - 1, mid));
+                invokeAll(new ProjectLinesTask(src, results, cumulativePoints, projection, clones, from, mid),
+                        new ProjectLinesTask(src, results, cumulativePoints, projection, clones, mid, to));
+                return;
+            }
+            Projection p = clones == null ? projection : clones.get();
+            GeographicClipper clipper = new GeographicClipper(p);
+            for (int i = from; i < to; i++) {
+                ArrayList<MapLine> lines = new ArrayList<MapLine>(1);
+                project(src.get(i), p, clipper, lines, false);
+                results.set(i, lines);
+            }
+        }
     }
 
     /**
      * Construct a graticule (a grid of regularly spaced longitude and latitude
-     * lines). The graticule is projected.
+     * lines) with the default spacing. The graticule is projected.
      */
     public void constructGraticule(ArrayList<MapLine> projectedLines, Projection projection) {
+        constructGraticule(projectedLines, projection, DEFAULT_GRATICULE_DENSITY);
+    }
 
-        this.addIntermediatePointsAlongCurves = true;
+    /**
+     * Construct a graticule (a grid of regularly spaced longitude and latitude
+     * lines). The graticule is projected.
+     *
+     * @param projectedLines Receives the projected graticule lines.
+     * @param projection The projection.
+     * @param graticuleDensity The spacing between graticule lines in degrees.
+     */
+    public void constructGraticule(ArrayList<MapLine> projectedLines, Projection projection,
+            double graticuleDensity) {
+        if (!(graticuleDensity > 0 && graticuleDensity <= 180)) {
+            throw new IllegalArgumentException("invalid graticule density");
+        }
 
         final double minLon = projection.getMinLongitudeDegrees();
         final double maxLon = projection.getMaxLongitudeDegrees();
@@ -415,7 +895,8 @@ public class LineProjector {
 
         // horizontal parallels
         projection.setProjectionLongitudeDegrees(0);
-        for (int j = -linesPerHemisphere / 2; j <= linesPerHemisphere / 2; j++) {
+        final int parallelsPerHemisphere = (int) (90 / graticuleDensity);
+        for (int j = -parallelsPerHemisphere; j <= parallelsPerHemisphere; j++) {
             MapLine line = new MapLine();
             final double lat = j * graticuleDensity;
             if (lat > maxLat || lat < minLat) {
@@ -429,13 +910,13 @@ public class LineProjector {
 
     /**
      * Returns the outline of the valid area of a projection in the projected
-     * coordinate system.
+     * coordinate system. For projections that are bounded by a circle (see
+     * Projection.getDomainRadiusDegrees()) the outline traces the circle,
+     * otherwise it follows the longitude and latitude bounds.
      */
     public MapLine constructOutline(Projection projection,
             ArrayList<MapLine> projectedLines) {
 
-        this.addIntermediatePointsAlongCurves = true;
-
         projection = (Projection) projection.clone();
         projection.setProjectionLongitudeDegrees(0);
         projection.initialize();
@@ -445,6 +926,14 @@ public class LineProjector {
         final double minLat = projection.getMinLatitudeDegrees();
         final double maxLat = projection.getMaxLatitudeDegrees();
 
+        final double radius = projection.getDomainRadiusDegrees();
+        if (radius > 0 && radius < 180) {
+            MapLine outline = constructCircle(radius - CIRCLE_OUTLINE_INSET,
+                    projection.getDomainCentreLatitudeDegrees());
+            project(outline, projection, projectedLines, false);
+            return outline;
+        }
+
         MapLine outline = new MapLine();
 
         // bottom line
@@ -467,4 +956,43 @@ public class LineProjector {
 
         return outline;
     }
+
+    /**
+     * Returns a closed small circle around a point on the central meridian.
+     * Longitudes are continuous and are not wrapped to +/- 180 degrees, so
+     * a circle around a pole crosses the bounding meridian and is split when
+     * it is projected.
+     *
+     * @param radius The angular radius of the circle in degrees.
+     * @param latC The latitude of the centre of the circle in degrees.
+     */
+    private static MapLine constructCircle(double radius, double latC) {
+        final double sinLatC = Math.sin(latC * MapMath.DTR);
+        final double cosLatC = Math.cos(latC * MapMath.DTR);
+        final double sinR = Math.sin(radius * MapMath.DTR);
+        final double cosR = Math.cos(radius * MapMath.DTR);
+        // asin() rounds points close to a pole to the pole
+        final double maxLat = 90 - CIRCLE_OUTLINE_INSET;
+        MapLine circle = new MapLine(CIRCLE_OUTLINE_POINTS + 1);
+        double prevLon = 0;
+        for (int i = 0; i < CIRCLE_OUTLINE_POINTS; i++) {
+            final double azimuth = 2 * Math.PI * i / CIRCLE_OUTLINE_POINTS;
+            final double cosAz = Math.cos(azimuth);
+            final double sinLat = sinLatC * cosR + cosLatC * sinR * cosAz;
+            double lat = Math.asin(Math.max(-1, Math.min(1, sinLat))) * MapMath.RTD;
+            lat = Math.max(-maxLat, Math.min(maxLat, lat));
+            double lon = Math.atan2(Math.sin(azimuth) * sinR,
+                    cosR * cosLatC - sinLatC * sinR * cosAz) * MapMath.RTD;
+            if (i > 0) {
+                lon += 360 * Math.rint((prevLon - lon) / 360);
+            }
+            circle.addPoint(lon, lat);
+            prevLon = lon;
+        }
+
+        // close the circle, which is shifted by 360 degrees if it surrounds a pole
+        final double firstLon = circle.getX(0);
+        circle.addPoint(firstLon + 360 * Math.rint((prevLon - firstLon) / 360), circle.getY(0));
+        return circle;
+    }
 }
@@ -0,0 +1,482 @@
+package ch.ethz.karto.gui;
+
+import com.jhlabs.map.proj.Projection;
+import com.jhlabs.map.proj.ProjectionException;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Removes vertices from lines that are not visible at the scale of a map. The
+ * simplification works directly on the interleaved coordinates of MapLine, in
+ * whatever units the lines use. It can be applied to projected lines with a
+ * tolerance in projected units (for example a fraction of the size of a
+ * pixel), or to geographic lines before they are projected with a tolerance in
+ * degrees derived from the projection with geographicTolerance().
+ *
+ * Two methods are available. Douglas-Peucker keeps the vertices that are
+ * farther than the tolerance from the simplified line. Visvalingam-Whyatt
+ * repeatedly removes the vertex with the smallest effective area, which is the
+ * area of the triangle it forms with its two neighbours, until all remaining
+ * areas are larger than half the square of the tolerance. The first and the last
+ * vertex of a line are always kept. Lines whose bounding box is smaller than
+ * the tolerance in both directions are removed.
+ *
+ * A LineSimplifier has no mutable state except the statistics, which are
+ * thread-safe counters, and can be shared by multiple threads.
+ */
+public class LineSimplifier {
+
+    /**
+     * The simplification algorithm.
+     */
+    public enum Method {
+        DOUGLAS_PEUCKER, VISVALINGAM
+    }
+
+    private final Method method;
+    private final double tolerance;
+
+    private final LongAdder inputVertexCount = new LongAdder();
+    private final LongAdder outputVertexCount = new LongAdder();
+    private final LongAdder inputLineCount = new LongAdder();
+    private final LongAdder outputLineCount = new LongAdder();
+
+    /**
+     * Creates a simplifier.
+     *
+     * @param method The simplification algorithm.
+     * @param tolerance The tolerance in the units of the simplified lines.
+     * 0 only removes duplicate and collinear vertices.
+     */
+    public LineSimplifier(Method method, double tolerance) {
+        if (method == null || !(tolerance >= 0)) {
+            throw new IllegalArgumentException();
+        }
+        this.method = method;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Creates a simplifier with a tolerance relative to the scale of the map,
+     * for example half a pixel.
+     *
+     * @param method The simplification algorithm.
+     * @param mapTolerance The tolerance in map units, for example in pixels.
+     * @param projectedUnitsPerMapUnit The scale of the map, for example in
+     * metres per pixel.
+     */
+    public static LineSimplifier forMapScale(Method method, double mapTolerance,
+            double projectedUnitsPerMapUnit) {
+        return new LineSimplifier(method, mapTolerance * projectedUnitsPerMapUnit);
+    }
+
+    /**
+     * Converts a tolerance in projected units to a tolerance in degrees for
+     * simplifying geographic lines before they are projected. The conversion
+     * uses the largest scale of the projection found at a grid of points
+     * covering the bounds of the projection, so that a geographic tolerance
+     * does not result in errors larger than the projected tolerance, except
+     * near singularities where the scale is ignored because it grows without
+     * bounds. Grid points that cannot be projected are ignored.
+     *
+     * @param projection An initialized projection.
+     * @param projectedTolerance The tolerance in projected units (metres).
+     * @return The tolerance in degrees.
+     */
+    public static double geographicTolerance(Projection projection, double projectedTolerance) {
+        final double minLon = projection.getMinLongitudeDegrees();
+        final double maxLon = projection.getMaxLongitudeDegrees();
+        final double minLat = projection.getMinLatitudeDegrees();
+        final double maxLat = projection.getMaxLatitudeDegrees();
+        final double lon0 = projection.getProjectionLongitudeDegrees();
+
+        // maximum length of a projected degree, sampled every 5 degrees and
+        // excluding the outer rows and columns with possible singularities
+        final int cols = Math.max(2, (int) ((maxLon - minLon) / 5));
+        final int rows = Math.max(2, (int) ((maxLat - minLat) / 5));
+        final double d = 1e-3;
+        final double limit = 100 * projection.getEquatorRadius() * Math.PI / 180;
+        double maxScale = 0;
+        Point2D.Double p0 = new Point2D.Double();
+        Point2D.Double p1 = new Point2D.Double();
+        for (int r = 1; r < rows; r++) {
+            final double lat = minLat + (maxLat - minLat) * r / rows;
+            for (int c = 1; c < cols; c++) {
+                final double lon = lon0 + minLon + (maxLon - minLon) * c / cols;
+                if (!projection.inside(lon, lat) || !projection.inside(lon + d, lat + d)) {
+                    continue;
+                }
+                try {
+                    projection.transform(lon, lat, p0);
+                    projection.transform(lon + d, lat, p1);
+                    final double sx = p0.distance(p1) / d;
+                    projection.transform(lon, lat + d, p1);
+                    final double sy = p0.distance(p1) / d;
+                    final double s = Math.max(sx, sy);
+                    if (s < limit && s > maxScale) {
+                        maxScale = s;
+                    }
+                } catch (ProjectionException exc) {
+                    // drop this sample; the scale is estimated from the
+                    // samples that can be projected
+                }
+            }
+        }
+        return maxScale > 0 ? projectedTolerance / maxScale : 0;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Simplifies a vector of lines.
+     *
+     * @param src The lines to simplify.
+     * @param dst Receives the simplified lines. Lines that are not changed
+     * are added without copying them.
+     */
+    public void simplifyLines(ArrayList<MapLine> src, ArrayList<MapLine> dst) {
+        for (MapLine line : src) {
+            MapLine simplified = simplify(line);
+            if (simplified != null) {
+                dst.add(simplified);
+            }
+        }
+    }
+
+    /**
+     * Simplifies a line.
+     *
+     * @param line The line to simplify.
+     * @return The simplified line, the passed line if no vertex can be
+     * removed, or null if the line is smaller than the tolerance.
+     */
+    public MapLine simplify(MapLine line) {
+        final int n = line.size();
+        inputLineCount.increment();
+        inputVertexCount.add(n);
+        if (n < 2) {
+            return null;
+        }
+        Rectangle2D ext = line.getExtension();
+        if (ext.getWidth() < tolerance && ext.getHeight() < tolerance) {
+            return null;
+        }
+        outputLineCount.increment();
+        if (n < 3) {
+            outputVertexCount.add(n);
+            return line;
+        }
+
+        final boolean[] keep = new boolean[n];
+        final int kept = markVertices(line.coordinateArray(), 0, n, keep);
+        outputVertexCount.add(kept);
+        if (kept == n) {
+            return line;
+        }
+        MapLine simplified = new MapLine(kept);
+        copyVertices(line.coordinateArray(), 0, n, keep, simplified);
+        return simplified;
+    }
+
+    /**
+     * Simplifies a line stored in an array of interleaved coordinates.
+     *
+     * @param xy The interleaved x and y coordinates of the line.
+     * @param offset Index of the first x coordinate in xy.
+     * @param numPoints The number of points of the line.
+     * @param dst Receives the interleaved coordinates of the simplified line.
+     * Can be the same as xy if dstOffset is not larger than offset.
+     * @param dstOffset Index of the first x coordinate in dst.
+     * @return The number of points of the simplified line.
+     */
+    public int simplify(double[] xy, int offset, int numPoints, double[] dst, int dstOffset) {
+        inputLineCount.increment();
+        inputVertexCount.add(numPoints);
+        outputLineCount.increment();
+        if (numPoints < 3) {
+            System.arraycopy(xy, offset, dst, dstOffset, numPoints * 2);
+            outputVertexCount.add(numPoints);
+            return numPoints;
+        }
+        final boolean[] keep = new boolean[numPoints];
+        markVertices(xy, offset, numPoints, keep);
+        int d = dstOffset;
+        for (int i = 0; i < numPoints; i++) {
+            if (keep[i]) {
+                dst[d++] = xy[offset + i * 2];
+                dst[d++] = xy[offset + i * 2 + 1];
+            }
+        }
+        final int kept = (d - dstOffset) / 2;
+        outputVertexCount.add(kept);
+        return kept;
+    }
+
+    private static void copyVertices(double[] xy, int offset, int n,
+            boolean[] keep, MapLine dst) {
+        int first = 0;
+        while (first < n) {
+            // copy runs of kept vertices with a single call
+            while (first < n && !keep[first]) {
+                first++;
+            }
+            int last = first;
+            while (last < n && keep[last]) {
+                last++;
+            }
+            if (last > first) {
+                dst.addPoints(xy, offset + first * 2, last - first);
+            }
+            first = last;
+        }
+    }
+
+    /**
+     * Marks the vertices to keep.
+     *
+     * @return The number of vertices to keep.
+     */
+    private int markVertices(double[] xy, int offset, int n, boolean[] keep) {
+        switch (method) {
+            case VISVALINGAM:
+                return visvalingam(xy, offset, n, tolerance * tolerance * 0.5, keep);
+            default:
+                return douglasPeucker(xy, offset, n, tolerance * tolerance, keep);
+        }
+    }
+
+    /**
+     * Douglas-Peucker simplification with an explicit stack of index pairs.
+     */
+    private static int douglasPeucker(double[] xy, int offset, int n,
+            double tolSq, boolean[] keep) {
+        keep[0] = keep[n - 1] = true;
+        int kept = 2;
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = n - 1;
+        while (top > 0) {
+            final int last = stack[--top];
+            final int first = stack[--top];
+            final double x1 = xy[offset + first * 2];
+            final double y1 = xy[offset + first * 2 + 1];
+            final double x2 = xy[offset + last * 2];
+            final double y2 = xy[offset + last * 2 + 1];
+            double maxDistSq = -1;
+            int maxID = -1;
+            for (int i = first + 1; i < last; i++) {
+                final double dsq = pointSegmentDistanceSquare(
+                        xy[offset + i * 2], xy[offset + i * 2 + 1], x1, y1, x2, y2);
+                if (dsq > maxDistSq) {
+                    maxDistSq = dsq;
+                    maxID = i;
+                }
+            }
+            if (maxID >= 0 && maxDistSq > tolSq) {
+                keep[maxID] = true;
+                kept++;
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = maxID;
+                stack[top++] = last;
+                stack[top++] = first;
+                stack[top++] = maxID;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Visvalingam-Whyatt simplification with a binary heap of vertices ordered
+     * by effective area and a doubly linked list of the remaining vertices.
+     * The area of a vertex is never smaller than the area of a vertex removed
+     * before it, so that vertices are removed in a consistent order.
+     */
+    private static int visvalingam(double[] xy, int offset, int n,
+            double minArea, boolean[] keep) {
+        final int[] prev = new int[n];
+        final int[] next = new int[n];
+        final double[] area = new double[n];
+        final int[] heap = new int[n];
+        final int[] heapPos = new int[n];
+        int heapSize = 0;
+        for (int i = 0; i < n; i++) {
+            keep[i] = true;
+            prev[i] = i - 1;
+            next[i] = i + 1;
+        }
+        for (int i = 1; i < n - 1; i++) {
+            area[i] = triangleArea(xy, offset, i - 1, i, i + 1);
+            heap[heapSize] = i;
+            heapPos[i] = heapSize;
+            heapSize++;
+            siftUp(heap, heapPos, area, heapPos[i]);
+        }
+
+        int kept = n;
+        while (heapSize > 0) {
+            final int v = heap[0];
+            if (area[v] > minArea) {
+                break;
+            }
+            // remove the vertex with the smallest area
+            heapSize--;
+            if (heapSize > 0) {
+                heap[0] = heap[heapSize];
+                heapPos[heap[0]] = 0;
+                siftDown(heap, heapPos, area, 0, heapSize);
+            }
+            heapPos[v] = -1;
+            keep[v] = false;
+            kept--;
+            final int p = prev[v];
+            final int q = next[v];
+            next[p] = q;
+            prev[q] = p;
+
+            // update the areas of the neighbours
+            final double removedArea = area[v];
+            if (p > 0) {
+                updateArea(xy, offset, p, prev[p], q, removedArea,
+                        heap, heapPos, area, heapSize);
+            }
+            if (q < n - 1) {
+                updateArea(xy, offset, q, p, next[q], removedArea,
+                        heap, heapPos, area, heapSize);
+            }
+        }
+        return kept;
+    }
+
+    private static void updateArea(double[] xy, int offset, int v, int p, int q,
+            double removedArea, int[] heap, int[] heapPos, double[] area, int heapSize) {
+        final double a = Math.max(removedArea, triangleArea(xy, offset, p, v, q));
+        final double old = area[v];
+        area[v] = a;
+        if (a < old) {
+            siftUp(heap, heapPos, area, heapPos[v]);
+        } else {
+            siftDown(heap, heapPos, area, heapPos[v], heapSize);
+        }
+    }
+
+    private static void siftUp(int[] heap, int[] heapPos, double[] area, int i) {
+        final int v = heap[i];
+        while (i > 0) {
+            final int parent = (i - 1) >>> 1;
+            if (area[heap[parent]] <= area[v]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            heapPos[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        heapPos[v] = i;
+    }
+
+    private static void siftDown(int[] heap, int[] heapPos, double[] area, int i, int heapSize) {
+        final int v = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && area[heap[child + 1]] < area[heap[child]]) {
+                child++;
+            }
+            if (area[heap[child]] >= area[v]) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapPos[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = v;
+        heapPos[v] = i;
+    }
+
+    /**
+     * Area of the triangle formed by three vertices.
+     */
+    private static double triangleArea(double[] xy, int offset, int a, int b, int c) {
+        final double ax = xy[offset + a * 2];
+        final double ay = xy[offset + a * 2 + 1];
+        final double bx = xy[offset + b * 2];
+        final double by = xy[offset + b * 2 + 1];
+        final double cx = xy[offset + c * 2];
+        final double cy = xy[offset + c * 2 + 1];
+        return Math.abs((bx - ax) * (cy - ay) - (cx - ax) * (by - ay)) * 0.5;
+    }
+
+    /**
+     * Square distance between a point and a line segment.
+     */
+    private static double pointSegmentDistanceSquare(double x0, double y0,
+            double x1, double y1, double x2, double y2) {
+        final double dx = x2 - x1;
+        final double dy = y2 - y1;
+        final double lengthSq = dx * dx + dy * dy;
+        double t = lengthSq == 0 ? 0 : ((x0 - x1) * dx + (y0 - y1) * dy) / lengthSq;
+        t = Math.max(0, Math.min(1, t));
+        final double ex = x1 + t * dx - x0;
+        final double ey = y1 + t * dy - y0;
+        return ex * ex + ey * ey;
+    }
+
+    /**
+     * Returns the number of vertices of the lines passed to simplify() since
+     * the creation of this simplifier or the last call to resetStatistics().
+     */
+    public long getInputVertexCount() {
+        return inputVertexCount.sum();
+    }
+
+    /**
+     * Returns the number of vertices of the simplified lines.
+     */
+    public long getOutputVertexCount() {
+        return outputVertexCount.sum();
+    }
+
+    /**
+     * Returns the number of lines passed to simplify().
+     */
+    public long getInputLineCount() {
+        return inputLineCount.sum();
+    }
+
+    /**
+     * Returns the number of simplified lines, which excludes lines that were
+     * smaller than the tolerance.
+     */
+    public long getOutputLineCount() {
+        return outputLineCount.sum();
+    }
+
+    /**
+     * Returns the ratio between the number of input and output vertices.
+     */
+    public double getReductionFactor() {
+        long out = getOutputVertexCount();
+        return out == 0 ? 1 : (double) getInputVertexCount() / out;
+    }
+
+    public void resetStatistics() {
+        inputVertexCount.reset();
+        outputVertexCount.reset();
+        inputLineCount.reset();
+        outputLineCount.reset();
+    }
+}
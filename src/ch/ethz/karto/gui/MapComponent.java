@@ -12,7 +12,7 @@ import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
-import java.awt.geom.GeneralPath;
+import java.awt.Shape;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import javax.swing.JComponent;
@@ -27,6 +27,10 @@ public class MapComponent extends JComponent {
      * lines on this map
      */
     private ArrayList<MapLine> lines = new ArrayList<>();
+    /**
+     * Spatial index of the lines, built when the lines are set.
+     */
+    private LineIndex index = new LineIndex(lines);
     /**
      * The percentage of space that is added around the lines when drawing them.
      */
@@ -37,7 +41,8 @@ public class MapComponent extends JComponent {
     }
 
     /**
-     * Replaces the current lines by the passed lines.
+     * Replaces the current lines by the passed lines. The lines must not be
+     * changed afterwards, as they are indexed.
      * @param lines A vector holding MapLine objects.
      */
     public void setLines(ArrayList<MapLine> lines) {
@@ -46,6 +51,7 @@ public class MapComponent extends JComponent {
         } else {
             this.lines = lines;
         }
+        index = new LineIndex(this.lines);
         repaint();
     }
 
@@ -58,30 +64,21 @@ public class MapComponent extends JComponent {
     }
 
     /**
-     * Return the bounding box of all lines.
+     * Returns the spatial index of the lines, which can be used for
+     * hit-testing in the coordinates of the lines.
+     * @return The index.
+     */
+    public LineIndex getLineIndex() {
+        return index;
+    }
+
+    /**
+     * Return the bounding box of all lines. The bounding box is computed
+     * when the lines are set.
      * @return The extension including all lines.
      */
     private Rectangle2D getMapExtension() {
-        Rectangle2D totalExt = null;
-
-        // loop over all lines
-        int nbrLines = lines.size();
-        for (int i = 0; i < nbrLines; i++) {
-            MapLine line = (MapLine) lines.get(i);
-            // ask the line for its bounding box
-            Rectangle2D lineExt = line.getExtension();
-            // if we have not yet found a valid bounding box, use the 
-            // bounding box of the current line.
-            if (totalExt == null) {
-                totalExt = lineExt;
-            }
-            // combine the bounding box of the current line with the bounding
-            // box of all previous lines.
-            if (totalExt != null && lineExt != null) {
-                Rectangle2D.union(totalExt, lineExt, totalExt);
-            }
-        }
-        return totalExt;
+        return index.getExtension();
     }
 
     /**
@@ -141,13 +138,14 @@ public class MapComponent extends JComponent {
         g2d.setStroke(new BasicStroke((float)(1d/scale), BasicStroke.CAP_BUTT, BasicStroke.JOIN_ROUND));
         g2d.setColor(Color.BLACK);
 
-        // draw each line
-        int nbrLines = lines.size();
-        for (int lineID = 0; lineID < nbrLines; lineID++) {
-            MapLine line = (MapLine) lines.get(lineID);
-            GeneralPath path = line.getPath();
-            g2d.draw(path);
-        }
+        // draw the lines intersecting the visible area, which is extended by
+        // the width of the stroke
+        Shape clip = g2d.getClip();
+        Rectangle2D visible = clip == null ? ext : clip.getBounds2D();
+        double d = 1d / scale;
+        visible.setRect(visible.getX() - d, visible.getY() - d,
+                visible.getWidth() + 2 * d, visible.getHeight() + 2 * d);
+        index.forEach(visible, line -> g2d.draw(line.getPath()));
 
         g2d.dispose();
     }
@@ -9,24 +9,42 @@ package ch.ethz.karto.gui;
 
 import java.awt.geom.GeneralPath;
 import java.awt.geom.Rectangle2D;
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
- * MapLine stores a series of 2D points in a vector that form a simple line.
+ * MapLine stores a series of 2D points that form a simple line. The
+ * coordinates are stored in a single growable array of interleaved x and y
+ * values, which takes 16 bytes per point. The bounding box is updated while
+ * points are added.
  * @author Bernhard Jenny, Institute of Cartography, ETH Zurich.
  */
 public class MapLine {
 
+    private static final int DEFAULT_CAPACITY = 8;
+
+    /**
+     * Interleaved x and y coordinates of all points of this line.
+     */
+    private double[] coords;
+
     /**
-     * A vector that holds all points of this line.
+     * The number of points of this line.
      */
-    private ArrayList<MapPoint> points = new ArrayList<MapPoint>();
-    
+    private int size = 0;
+
     /**
-     * The bounding box of this line.
+     * The bounding box of this line. Only valid if boundsValid is true.
      */
-    private Rectangle2D extension = null;
-    
+    private double xMin, xMax, yMin, yMax;
+
+    /**
+     * False if a point has been removed and the bounding box must be
+     * recomputed.
+     */
+    private boolean boundsValid = true;
+
     /**
      * The path that can be used to draw this line.
      */
@@ -34,149 +52,312 @@ public class MapLine {
 
     /** Creates a new instance of MapLine */
     public MapLine() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new instance of MapLine with space for a number of points.
+     * @param capacity The number of points that can be added without
+     * growing the internal array.
+     */
+    public MapLine(int capacity) {
+        coords = new double[Math.max(1, capacity) * 2];
+        resetBounds();
+    }
+
+    /**
+     * Creates a new instance of MapLine with a copy of interleaved
+     * coordinates.
+     * @param xy Interleaved x and y coordinates.
+     * @param offset Index of the first x coordinate in xy.
+     * @param numPoints The number of points to copy.
+     */
+    public MapLine(double[] xy, int offset, int numPoints) {
+        this(numPoints);
+        addPoints(xy, offset, numPoints);
     }
-    
+
     /**
      * Return the number of points of this line.
      */
     public int size() {
-        return points.size();
+        return size;
     }
-    
+
     /**
      * Return a copy of a point.
      * @param pointID The index of the point to return (zero-based).
-     * @return A reference to the point at position pointID.
+     * @return A new point with the coordinates at position pointID.
      */
     public MapPoint getPoint (int pointID) {
-        return points.get(pointID);
+        checkIndex(pointID);
+        return new MapPoint(coords[pointID * 2], coords[pointID * 2 + 1]);
     }
 
-    public ArrayList<MapPoint> getPoints() {
-        return points;
+    /**
+     * Return the horizontal coordinate of a point.
+     * @param pointID The index of the point (zero-based).
+     */
+    public double getX(int pointID) {
+        checkIndex(pointID);
+        return coords[pointID * 2];
     }
-    
+
+    /**
+     * Return the vertical coordinate of a point.
+     * @param pointID The index of the point (zero-based).
+     */
+    public double getY(int pointID) {
+        checkIndex(pointID);
+        return coords[pointID * 2 + 1];
+    }
+
+    /**
+     * Return a read-only view of the points of this line. The view creates a
+     * new MapPoint for each accessed point.
+     */
+    public List<MapPoint> getPoints() {
+        return new AbstractList<MapPoint>() {
+
+            @Override
+            public MapPoint get(int index) {
+                return getPoint(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Copy the coordinates of this line to an array.
+     * @param dst Receives the interleaved x and y coordinates.
+     * @param offset Index of the first x coordinate in dst.
+     */
+    public void getCoordinates(double[] dst, int offset) {
+        System.arraycopy(coords, 0, dst, offset, size * 2);
+    }
+
+    /**
+     * Return a copy of the interleaved x and y coordinates of this line.
+     */
+    public double[] getCoordinates() {
+        return Arrays.copyOf(coords, size * 2);
+    }
+
+    /**
+     * Return the internal array of interleaved coordinates without copying.
+     * Only the first 2 * size() values are valid. The array must not be
+     * modified and is replaced when the line grows.
+     */
+    double[] coordinateArray() {
+        return coords;
+    }
+
     /**
      * Add a point at the end of the line.
      * @param mapPoint The point to add.
      */
     public void addPoint(MapPoint mapPoint) {
-        if (Double.isNaN(mapPoint.x) || Double.isNaN(mapPoint.y)) {
-            return;
-        }
-        points.add(mapPoint);
-        pointChanged();
+        addPoint(mapPoint.x, mapPoint.y);
     }
-    
+
     /**
-     * Add a point at the end of the line.
+     * Add a point at the end of the line. Points with NaN coordinates are
+     * ignored.
      * @param x The horizontal coordinate of the point.
      * @param y The vertical coordinate of the point.
      */
     public void addPoint(double x, double y) {
-        addPoint(new MapPoint(x, y));
+        if (Double.isNaN(x) || Double.isNaN(y)) {
+            return;
+        }
+        if (size * 2 == coords.length) {
+            grow(size + 1);
+        }
+        coords[size * 2] = x;
+        coords[size * 2 + 1] = y;
+        size++;
+        extendBounds(x, y);
+        path = null;
+    }
+
+    /**
+     * Add a series of points at the end of the line. Points with NaN
+     * coordinates are ignored.
+     * @param xy Interleaved x and y coordinates.
+     * @param offset Index of the first x coordinate in xy.
+     * @param numPoints The number of points to add.
+     */
+    public void addPoints(double[] xy, int offset, int numPoints) {
+        ensureCapacity(size + numPoints);
+        int dst = size * 2;
+        final int end = offset + numPoints * 2;
+        for (int i = offset; i < end; i += 2) {
+            final double x = xy[i];
+            final double y = xy[i + 1];
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                continue;
+            }
+            coords[dst++] = x;
+            coords[dst++] = y;
+            extendBounds(x, y);
+        }
+        size = dst / 2;
+        path = null;
+    }
+
+    /**
+     * Add all points of another line at the end of this line.
+     * @param line The line with the points to add.
+     */
+    public void addPoints(MapLine line) {
+        addPoints(line.coords, 0, line.size);
+    }
+
+    /**
+     * Make sure a number of points can be stored without growing the internal
+     * array.
+     * @param capacity The number of points.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity * 2 > coords.length) {
+            grow(capacity);
+        }
+    }
+
+    /**
+     * Shrink the internal array to the number of points.
+     */
+    public void trimToSize() {
+        if (coords.length > size * 2) {
+            coords = Arrays.copyOf(coords, Math.max(1, size) * 2);
+        }
+    }
+
+    private void grow(int minCapacity) {
+        // at least double the capacity; coords.length is twice the capacity
+        int capacity = Math.max(minCapacity, coords.length);
+        coords = Arrays.copyOf(coords, capacity * 2);
     }
-    
+
     /**
      * Remove a point from the line.
      * @param mapPoint The point to remove.
      */
     public void removePoint(MapPoint mapPoint) {
-        points.remove(mapPoint);
-        pointChanged();
+        for (int i = 0; i < size; i++) {
+            if (coords[i * 2] == mapPoint.x && coords[i * 2 + 1] == mapPoint.y) {
+                removePoint(i);
+                return;
+            }
+        }
     }
-    
+
     /**
      * Remove a point from the line.
      * @param pointID The index of the point to remove (zero-based).
      */
     public void removePoint(int pointID) {
-        points.remove(pointID);
-        pointChanged();
+        checkIndex(pointID);
+        System.arraycopy(coords, pointID * 2 + 2, coords, pointID * 2, (size - pointID - 1) * 2);
+        size--;
+        boundsValid = false;
+        path = null;
     }
-    
+
+    /**
+     * Remove all points.
+     */
+    public void clear() {
+        size = 0;
+        resetBounds();
+        path = null;
+    }
+
+    private void checkIndex(int pointID) {
+        if (pointID < 0 || pointID >= size) {
+            throw new IndexOutOfBoundsException("Index: " + pointID + ", Size: " + size);
+        }
+    }
+
+    private void resetBounds() {
+        xMin = Double.MAX_VALUE;
+        xMax = -Double.MAX_VALUE;
+        yMin = Double.MAX_VALUE;
+        yMax = -Double.MAX_VALUE;
+        boundsValid = true;
+    }
+
+    private void extendBounds(double x, double y) {
+        if (!boundsValid) {
+            return;
+        }
+        if (x < xMin) {
+            xMin = x;
+        }
+        if (x > xMax) {
+            xMax = x;
+        }
+        if (y < yMin) {
+            yMin = y;
+        }
+        if (y > yMax) {
+            yMax = y;
+        }
+    }
+
     /**
      * Return the bounding box of this line.
-     * @return The bounding box.
+     * @return A new rectangle with the bounding box, or null if the line has
+     * no points.
      */
     public java.awt.geom.Rectangle2D getExtension() {
-        
-        if (points.isEmpty()) {
+
+        if (size == 0) {
             return null;
         }
-        
-        // If a bounding box has been computed before, return it.
-        // This is probably faster than looping throuh all points.
-        if (extension != null) {
-            return extension;
-        }
-        
-        // search the smallest and largest coordinates in x and y direction.
-        double xMin = Double.MAX_VALUE;
-        double xMax = -Double.MAX_VALUE;
-        double yMin = Double.MAX_VALUE;
-        double yMax = -Double.MAX_VALUE;
-        
-        for (MapPoint p : points) {
-            if (p.x < xMin) {
-                xMin = p.x;
-            }
-            if (p.x > xMax) {
-                xMax = p.x;
-            }
-            if (p.y < yMin) {
-                yMin = p.y;
-            }
-            if (p.y > yMax) {
-                yMax = p.y;
+
+        // the bounding box is only recomputed after points were removed
+        if (!boundsValid) {
+            resetBounds();
+            for (int i = 0; i < size * 2; i += 2) {
+                extendBounds(coords[i], coords[i + 1]);
             }
         }
-        
-        // store the found bounding values
-        extension = new java.awt.geom.Rectangle2D.Double(xMin, yMin,
-                xMax - xMin, yMax - yMin);
-        return extension;
+        return new Rectangle2D.Double(xMin, yMin, xMax - xMin, yMax - yMin);
 
     }
-    
+
     /**
      * Return a GeneralPath that can be drawn.
      * @return The GeneralPath.
      */
     public GeneralPath getPath() {
-        
+
         // if the path has been constructed before, return it.
         if (path != null) {
             return path;
         }
-        
-        path = new GeneralPath();
-        int nbrPoints = size();
-        
+
+        path = new GeneralPath(GeneralPath.WIND_NON_ZERO, Math.max(size, 2));
+
         // a line must have at least 2 points
-        if (nbrPoints < 2) {
+        if (size < 2) {
             return path;
         }
-        
+
         // add first point
-        path.moveTo(points.get(0).x, points.get(0).y);
-        
+        path.moveTo(coords[0], coords[1]);
+
         // add all following points
-        for (int pointID = 1; pointID < nbrPoints; pointID++) {
-            MapPoint p = points.get(pointID);
-            path.lineTo(p.x, p.y);
+        for (int i = 2; i < size * 2; i += 2) {
+            path.lineTo(coords[i], coords[i + 1]);
         }
-        
+
         return path;
     }
-    
-    /**
-     * Private helper method that must be called whenever a point changes.
-     */
-    private void pointChanged() {
-        path = null;
-        extension = null;
-    }
-
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package ch.ethz.karto.gui;
+
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * MapPolygon stores an area bounded by closed rings. The first ring is the
+ * outer boundary, and the following rings are holes. Rings are closed
+ * implicitly; the last point does not have to repeat the first point. The
+ * area is filled with the even-odd rule, so a projected polygon that was cut
+ * into several parts can store all parts and their holes in a single
+ * MapPolygon.
+ */
+public class MapPolygon {
+
+    private final ArrayList<MapLine> rings = new ArrayList<>(1);
+
+    /**
+     * The path that can be used to draw and fill this polygon.
+     */
+    private GeneralPath path = null;
+
+    /**
+     * Creates a polygon without rings.
+     */
+    public MapPolygon() {
+    }
+
+    /**
+     * Creates a polygon with an outer ring.
+     * @param exterior The outer ring.
+     */
+    public MapPolygon(MapLine exterior) {
+        addRing(exterior);
+    }
+
+    /**
+     * Add a ring. The first ring is the outer boundary, all following rings
+     * are holes.
+     * @param ring The ring to add.
+     */
+    public void addRing(MapLine ring) {
+        rings.add(ring);
+        path = null;
+    }
+
+    /**
+     * Return the outer ring, or null if the polygon has no rings.
+     */
+    public MapLine getExterior() {
+        return rings.isEmpty() ? null : rings.get(0);
+    }
+
+    /**
+     * Return the number of rings, including the outer ring.
+     */
+    public int getRingCount() {
+        return rings.size();
+    }
+
+    /**
+     * Return a ring.
+     * @param ringID The index of the ring. 0 is the outer ring.
+     */
+    public MapLine getRing(int ringID) {
+        return rings.get(ringID);
+    }
+
+    /**
+     * Return a read-only list of all rings.
+     */
+    public List<MapLine> getRings() {
+        return Collections.unmodifiableList(rings);
+    }
+
+    /**
+     * Return the number of points of all rings.
+     */
+    public int size() {
+        int n = 0;
+        for (MapLine ring : rings) {
+            n += ring.size();
+        }
+        return n;
+    }
+
+    /**
+     * Return the bounding box of this polygon.
+     * @return A new rectangle with the bounding box, or null if the polygon
+     * has no points.
+     */
+    public Rectangle2D getExtension() {
+        Rectangle2D ext = null;
+        for (MapLine ring : rings) {
+            Rectangle2D ringExt = ring.getExtension();
+            if (ext == null) {
+                ext = ringExt;
+            } else if (ringExt != null) {
+                Rectangle2D.union(ext, ringExt, ext);
+            }
+        }
+        return ext;
+    }
+
+    /**
+     * Return a GeneralPath with the even-odd winding rule that can be drawn
+     * and filled.
+     * @return The GeneralPath.
+     */
+    public GeneralPath getPath() {
+        if (path != null) {
+            return path;
+        }
+        path = new GeneralPath(GeneralPath.WIND_EVEN_ODD, Math.max(size() + rings.size(), 2));
+        for (MapLine ring : rings) {
+            final int n = ring.size();
+            if (n < 3) {
+                continue;
+            }
+            path.moveTo(ring.getX(0), ring.getY(0));
+            for (int i = 1; i < n; i++) {
+                path.lineTo(ring.getX(i), ring.getY(i));
+            }
+            path.closePath();
+        }
+        return path;
+    }
+}
@@ -0,0 +1,698 @@
+package ch.ethz.karto.gui;
+
+import com.jhlabs.map.MapMath;
+import com.jhlabs.map.proj.Projection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Projects polygons. Unlike lines, rings of polygons cannot simply be split
+ * where they leave the projection, as the parts must be closed again to be
+ * filled.
+ *
+ * For projections whose area is bounded by longitudes and latitudes, each
+ * ring is cut along the bounding meridian at the projection longitude +/- 180
+ * degrees and clipped to the latitude bounds. The longitudes of a ring are
+ * unwrapped relative to the projection longitude, with every segment taking
+ * the shorter way around the globe. A ring around a pole is closed along the
+ * pole. The unwrapped ring is then clipped with the Sutherland-Hodgman
+ * algorithm to every 360 degrees wide copy of the bounds it overlaps, and the
+ * parts are shifted back. The parts are closed along the bounding meridian
+ * and the latitude bounds, which follow the outline of the projected
+ * graticule after projection (see LineProjector.constructOutline()).
+ *
+ * For projections whose area is a circle around the centre of the projection,
+ * such as azimuthal projections, the parts of a ring outside of the circle are
+ * moved onto the circle along the azimuth from the centre, and the parts are
+ * connected along the circle. Rings that are entirely outside are dropped,
+ * unless they enclose the circle.
+ *
+ * Segments are densified by the LineProjector where they are curved after
+ * projection. A PolygonProjector has no mutable state and can be shared by
+ * multiple threads.
+ */
+public class PolygonProjector {
+
+    /**
+     * Distance in degrees by which cuts are moved inside the bounds, so that
+     * points on cuts are not normalized to the opposite side of the bounding
+     * meridian or rejected by Projection.inside() because of rounding.
+     */
+    private static final double EDGE_EPS = 1e-9;
+
+    /**
+     * Maximum length in degrees of segments outside of a circular area.
+     */
+    private static final double MAX_OUTSIDE_SEGMENT = 5;
+
+    /**
+     * Maximum azimuth difference in degrees between two points on the circle
+     * bounding the area of a projection.
+     */
+    private static final double CIRCLE_STEP = 2;
+
+    /**
+     * Polygons with fewer points than this in total are projected by a single
+     * task in projectPolygons().
+     */
+    private static final int POINTS_PER_TASK = 4096;
+
+    private final LineProjector lineProjector;
+
+    /**
+     * Creates a polygon projector with a default LineProjector.
+     */
+    public PolygonProjector() {
+        this(new LineProjector());
+    }
+
+    /**
+     * Creates a polygon projector.
+     *
+     * @param lineProjector Densifies curved segments and counts projected
+     * points.
+     */
+    public PolygonProjector(LineProjector lineProjector) {
+        if (lineProjector == null) {
+            throw new IllegalArgumentException();
+        }
+        this.lineProjector = lineProjector;
+    }
+
+    public LineProjector getLineProjector() {
+        return lineProjector;
+    }
+
+    /**
+     * Projects a polygon.
+     *
+     * @param polygon The polygon in geographic coordinates (degrees).
+     * @param projection An initialized projection.
+     * @return The projected polygon, or null if no part of the polygon is
+     * inside the projection.
+     */
+    public MapPolygon project(MapPolygon polygon, Projection projection) {
+        return project(polygon, new Workspace(projection));
+    }
+
+    /**
+     * Projects a vector of polygons.
+     *
+     * @param src The polygons in geographic coordinates (degrees).
+     * @param dst Receives the projected polygons.
+     * @param projection An initialized projection.
+     */
+    public void projectPolygons(ArrayList<MapPolygon> src, ArrayList<MapPolygon> dst,
+            Projection projection) {
+        Workspace ws = new Workspace(projection);
+        for (MapPolygon polygon : src) {
+            MapPolygon projected = project(polygon, ws);
+            if (projected != null) {
+                dst.add(projected);
+            }
+        }
+    }
+
+    /**
+     * Projects a vector of polygons in parallel. The polygons are distributed
+     * over fork/join tasks by their number of points, and the projected
+     * polygons are added to dst in the order of src. Each worker thread uses
+     * its own workspace, with a clone of the projection if the projection is
+     * not reentrant.
+     *
+     * @param src The polygons in geographic coordinates (degrees).
+     * @param dst Receives the projected polygons.
+     * @param projection An initialized projection that is not modified while
+     * the polygons are projected.
+     * @param pool The pool executing the tasks.
+     */
+    public void projectPolygons(ArrayList<MapPolygon> src, ArrayList<MapPolygon> dst,
+            Projection projection, ForkJoinPool pool) {
+
+        final int nbrPolygons = src.size();
+        long[] cumulativePoints = new long[nbrPolygons + 1];
+        for (int i = 0; i < nbrPolygons; i++) {
+            cumulativePoints[i + 1] = cumulativePoints[i] + src.get(i).size();
+        }
+        MapPolygon[] results = new MapPolygon[nbrPolygons];
+        ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(() -> new Workspace(
+                projection.isReentrant() ? projection : (Projection) projection.clone()));
+        ProjectPolygonsTask task = new ProjectPolygonsTask(src, results,
+                cumulativePoints, workspaces, 0, nbrPolygons);
+        if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+        for (MapPolygon polygon : results) {
+            if (polygon != null) {
+                dst.add(polygon);
+            }
+        }
+    }
+
+    /**
+     * Projects a range of polygons.
+     */
+    private final class ProjectPolygonsTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ArrayList<MapPolygon> src;
+        private final MapPolygon[] results;
+        private final long[] cumulativePoints;
+        /**
+         * The workspace of each worker thread.
+         */
+        private final ThreadLocal<Workspace> workspaces;
+        private final int from;
+        private final int to;
+
+        ProjectPolygonsTask(ArrayList<MapPolygon> src, MapPolygon[] results,
+                long[] cumulativePoints, ThreadLocal<Workspace> workspaces, int from, int to) {
+            this.src = src;
+            this.results = results;
+            this.cumulativePoints = cumulativePoints;
+            this.workspaces = workspaces;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            final long points = cumulativePoints[to] - cumulativePoints[from];
+            if (to - from > 1 && points > POINTS_PER_TASK) {
+                // split where half of the points are on either side
+                final long half = cumulativePoints[from] + points / 2;
+                int mid = Arrays.binarySearch(cumulativePoints, from, to + 1, half);
+                mid = mid < 0 ? -mid - 1 : mid;
+                mid = Math.max(from + 1, Math.min(to - 1, mid));
+                invokeAll(new ProjectPolygonsTask(src, results, cumulativePoints, workspaces, from, mid),
+                        new ProjectPolygonsTask(src, results, cumulativePoints, workspaces, mid, to));
+                return;
+            }
+            Workspace ws = workspaces.get();
+            for (int i = from; i < to; i++) {
+                results[i] = project(src.get(i), ws);
+            }
+        }
+    }
+
+    /**
+     * The description of the area of a projection and buffers that are
+     * reused for all rings projected by one thread.
+     */
+    private static final class Workspace {
+
+        final Projection projection;
+        final GeographicClipper clipper;
+        final double lon0;
+
+        /**
+         * True if the area is a circle, false if it is bounded by longitudes
+         * and latitudes.
+         */
+        final boolean circle;
+
+        /**
+         * The longitude bounds relative to lon0 and the latitude bounds.
+         */
+        final double minLon, maxLon, minLat, maxLat;
+
+        /**
+         * The centre and the radius of the circle. Points moved onto the
+         * circle are placed slightly inside.
+         */
+        final double latC, sinLatC, cosLatC, radius;
+
+        /**
+         * Interleaved coordinates of the current ring and the clipping
+         * buffers.
+         */
+        double[] ring = new double[64];
+        double[] a = new double[64];
+        double[] b = new double[64];
+
+        /**
+         * For circular areas, the azimuth of the points on the circle, NaN for
+         * points inside, and flags for segments along the circle.
+         */
+        double[] azimuth = new double[32];
+        boolean[] straight = new boolean[32];
+
+        Workspace(Projection projection) {
+            this.projection = projection;
+            clipper = new GeographicClipper(projection);
+            lon0 = projection.getProjectionLongitudeDegrees();
+            final double r = projection.getDomainRadiusDegrees();
+            circle = r > 0 && r < 180;
+            if (circle) {
+                latC = projection.getDomainCentreLatitudeDegrees();
+                sinLatC = Math.sin(latC * MapMath.DTR);
+                cosLatC = Math.cos(latC * MapMath.DTR);
+                radius = (r - 1e3 * EDGE_EPS) * MapMath.DTR;
+                minLon = maxLon = minLat = maxLat = 0;
+            } else {
+                latC = sinLatC = cosLatC = radius = 0;
+                double west = projection.getMinLongitudeDegrees();
+                double east = projection.getMaxLongitudeDegrees();
+                double south = projection.getMinLatitudeDegrees();
+                double north = projection.getMaxLatitudeDegrees();
+                if (east - west >= 360) {
+                    west = -180;
+                    east = 180;
+                }
+                minLon = west + EDGE_EPS;
+                maxLon = east - EDGE_EPS;
+                minLat = south <= -90 ? -90 : south + EDGE_EPS;
+                maxLat = north >= 90 ? 90 : north - EDGE_EPS;
+            }
+        }
+
+        double[] ensureRing(int numPoints) {
+            if (ring.length < numPoints * 2) {
+                ring = Arrays.copyOf(ring, numPoints * 4);
+            }
+            return ring;
+        }
+
+        void ensureClipBuffers(int numPoints) {
+            if (a.length < numPoints * 2) {
+                a = Arrays.copyOf(a, numPoints * 4);
+            }
+            if (b.length < numPoints * 2) {
+                b = Arrays.copyOf(b, numPoints * 4);
+            }
+        }
+
+        /**
+         * Clips the polygon in a to a half plane, and swaps a and b so that a
+         * holds the result.
+         *
+         * @return The number of points of the clipped polygon.
+         */
+        int clip(int n, int axis, double bound, boolean keepGreater) {
+            // each point adds at most two points
+            ensureClipBuffers(n * 2);
+            final int c = PolygonProjector.clip(a, n, b, axis, bound, keepGreater);
+            final double[] tmp = a;
+            a = b;
+            b = tmp;
+            return c;
+        }
+
+        void ensureFlags(int numPoints) {
+            if (azimuth.length < numPoints) {
+                azimuth = Arrays.copyOf(azimuth, numPoints * 2);
+                straight = Arrays.copyOf(straight, numPoints * 2);
+            }
+        }
+    }
+
+    private MapPolygon project(MapPolygon polygon, Workspace ws) {
+        MapPolygon projected = new MapPolygon();
+        final int nbrRings = polygon.getRingCount();
+        for (int i = 0; i < nbrRings; i++) {
+            MapLine ring = polygon.getRing(i);
+            if (ws.circle) {
+                projectRingInCircle(ring, ws, projected);
+            } else {
+                projectRingInBounds(ring, ws, projected);
+            }
+        }
+        return projected.getRingCount() == 0 ? null : projected;
+    }
+
+    /**
+     * Returns the number of points of a ring without a closing point that
+     * repeats the first point.
+     */
+    private static int openRingSize(MapLine ring) {
+        int n = ring.size();
+        if (n > 1 && ring.getX(0) == ring.getX(n - 1) && ring.getY(0) == ring.getY(n - 1)) {
+            n--;
+        }
+        return n;
+    }
+
+    private static double normalizeDegrees(double angle) {
+        return MapMath.normalizeLongitude(angle * MapMath.DTR) * MapMath.RTD;
+    }
+
+    /**
+     * Cuts a ring along the bounding meridian, clips it to the latitude
+     * bounds, and projects the parts.
+     */
+    private void projectRingInBounds(MapLine src, Workspace ws, MapPolygon dst) {
+        final int n = openRingSize(src);
+        if (n < 3) {
+            return;
+        }
+
+        // unwrap the longitudes relative to lon0
+        double[] ring = ws.ensureRing(n + 3);
+        double lon = normalizeDegrees(src.getX(0) - ws.lon0);
+        double xMin = lon, xMax = lon, latSum = 0;
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                lon += normalizeDegrees(src.getX(i) - src.getX(i - 1));
+            }
+            ring[i * 2] = lon;
+            ring[i * 2 + 1] = src.getY(i);
+            xMin = Math.min(xMin, lon);
+            xMax = Math.max(xMax, lon);
+            latSum += src.getY(i);
+        }
+        int m = n;
+        final double winding = lon + normalizeDegrees(src.getX(0) - src.getX(n - 1)) - ring[0];
+        if (Math.abs(winding) > 180) {
+            // the ring encloses a pole: close it along the pole
+            final double pole = latSum < 0 ? -90 : 90;
+            ring[m * 2] = ring[0] + winding;
+            ring[m * 2 + 1] = ring[1];
+            ring[m * 2 + 2] = ring[0] + winding;
+            ring[m * 2 + 3] = pole;
+            ring[m * 2 + 4] = ring[0];
+            ring[m * 2 + 5] = pole;
+            m += 3;
+            xMin = Math.min(xMin, ring[0] + winding);
+            xMax = Math.max(xMax, ring[0] + winding);
+        }
+
+        // clip to each copy of the bounds shifted by multiples of 360 degrees
+        final int kMin = (int) Math.ceil((xMin - ws.maxLon) / 360);
+        final int kMax = (int) Math.floor((xMax - ws.minLon) / 360);
+        for (int k = kMin; k <= kMax; k++) {
+            final double shift = 360 * k;
+            ws.ensureClipBuffers(m);
+            System.arraycopy(ring, 0, ws.a, 0, m * 2);
+            int c = ws.clip(m, 0, ws.minLon + shift, true);
+            c = ws.clip(c, 0, ws.maxLon + shift, false);
+            c = ws.clip(c, 1, ws.minLat, true);
+            c = ws.clip(c, 1, ws.maxLat, false);
+            if (c < 3) {
+                continue;
+            }
+            final double[] in = ws.a;
+            for (int i = 0; i < c; i++) {
+                in[i * 2] += ws.lon0 - shift;
+            }
+            MapLine projected = new MapLine(c);
+            lineProjector.projectRing(in, c, null, ws.projection, false, projected);
+            if (projected.size() > 2) {
+                dst.addRing(projected);
+            }
+        }
+    }
+
+    /**
+     * Clips a polygon to a half plane with the Sutherland-Hodgman algorithm.
+     *
+     * @param in Interleaved coordinates of the polygon.
+     * @param n The number of points of the polygon.
+     * @param out Receives the clipped polygon. Must have space for 2n points.
+     * @param axis 0 to clip with a vertical line, 1 with a horizontal line.
+     * @param bound The x or y coordinate of the line.
+     * @param keepGreater True if the part greater than the bound is kept.
+     * @return The number of points of the clipped polygon.
+     */
+    private static int clip(double[] in, int n, double[] out, int axis,
+            double bound, boolean keepGreater) {
+        int c = 0;
+        if (n == 0) {
+            return 0;
+        }
+        double px = in[(n - 1) * 2];
+        double py = in[(n - 1) * 2 + 1];
+        double pv = axis == 0 ? px : py;
+        boolean pIn = keepGreater ? pv >= bound : pv <= bound;
+        for (int i = 0; i < n; i++) {
+            final double qx = in[i * 2];
+            final double qy = in[i * 2 + 1];
+            final double qv = axis == 0 ? qx : qy;
+            final boolean qIn = keepGreater ? qv >= bound : qv <= bound;
+            if (qIn != pIn) {
+                // add the intersection with the line
+                final double t = (bound - pv) / (qv - pv);
+                if (axis == 0) {
+                    out[c * 2] = bound;
+                    out[c * 2 + 1] = py + t * (qy - py);
+                } else {
+                    out[c * 2] = px + t * (qx - px);
+                    out[c * 2 + 1] = bound;
+                }
+                c++;
+            }
+            if (qIn) {
+                out[c * 2] = qx;
+                out[c * 2 + 1] = qy;
+                c++;
+            }
+            px = qx;
+            py = qy;
+            pv = qv;
+            pIn = qIn;
+        }
+        return c;
+    }
+
+    /**
+     * Moves the parts of a ring outside of the circular area of an azimuthal
+     * projection onto the circle, connects them along the circle, and projects
+     * the ring.
+     */
+    private void projectRingInCircle(MapLine src, Workspace ws, MapPolygon dst) {
+        final int n = openRingSize(src);
+        if (n < 3) {
+            return;
+        }
+        final GeographicClipper clipper = ws.clipper;
+
+        // points of the ring, with parts outside of the circle moved onto the
+        // circle, and with points where the ring crosses the circle
+        int m = 0;
+        boolean inside = false;
+        double lonA = src.getX(0);
+        double latA = src.getY(0);
+        boolean inA = clipper.isInside(lonA, latA);
+        m = addRingPoint(ws, m, lonA, latA, inA, false);
+        for (int i = 1; i <= n; i++) {
+            final double lonB = src.getX(i % n);
+            final double latB = src.getY(i % n);
+            // segments take the shorter way around the globe, as in projectRing
+            final double dLon = normalizeDegrees(lonB - lonA);
+            final double dLat = latB - latA;
+            final boolean inB = clipper.isInside(lonB, latB);
+            inside |= inA;
+
+            // divide segments that are partly outside into short steps
+            final int steps = inA && inB ? 1
+                    : Math.max(1, (int) Math.ceil(Math.hypot(dLon, dLat) / MAX_OUTSIDE_SEGMENT));
+            double lonP = lonA;
+            double latP = latA;
+            boolean inP = inA;
+            for (int s = 1; s <= steps; s++) {
+                final double lonQ = s == steps ? lonB : lonA + dLon * s / steps;
+                final double latQ = s == steps ? latB : latA + dLat * s / steps;
+                final boolean inQ = s == steps ? inB : clipper.isInside(lonQ, latQ);
+                if (inP != inQ) {
+                    // lonB may differ from lonA + dLon by 360 degrees
+                    final double lonPQ = normalizeDegrees(lonQ - lonP);
+                    final double t = clipper.circleIntersection(lonP, latP, lonP + lonPQ, latQ);
+                    m = addRingPoint(ws, m, lonP + t * lonPQ,
+                            latP + t * (latQ - latP), true, true);
+                }
+                inside |= inQ;
+                m = addRingPoint(ws, m, lonQ, latQ, inQ, false);
+                lonP = lonQ;
+                latP = latQ;
+                inP = inQ;
+            }
+            lonA = lonB;
+            latA = latB;
+            inA = inB;
+        }
+        // the last point repeats the first point
+        m--;
+
+        final double[] azimuth = ws.azimuth;
+        if (!inside) {
+            // a ring entirely outside is dropped, unless it winds around the
+            // circle and contains its centre, in which case it is replaced by
+            // the circle. A ring winding around the antipode of the centre
+            // also winds around the circle.
+            double winding = 0;
+            for (int i = 0; i < m; i++) {
+                winding += normalizeDegrees(azimuth[(i + 1) % m] - azimuth[i]);
+            }
+            if (Math.abs(winding) < 180 || !containsCentre(src, n, ws)) {
+                return;
+            }
+        }
+
+        // connect consecutive points on the circle along the circle
+        final double[] ring = ws.ring;
+        int c = 0;
+        for (int i = 0; i < m; i++) {
+            final double az0 = azimuth[i];
+            final double az1 = azimuth[(i + 1) % m];
+            c = addOutputPoint(ws, c, ring[i * 2], ring[i * 2 + 1]);
+            if (!Double.isNaN(az0) && !Double.isNaN(az1)) {
+                final double dAz = normalizeDegrees(az1 - az0);
+                final int steps = (int) Math.ceil(Math.abs(dAz) / CIRCLE_STEP);
+                ws.straight[c - 1] = true;
+                for (int s = 1; s < steps; s++) {
+                    final double az = az0 + dAz * s / steps;
+                    c = addOutputPoint(ws, c, circleLongitude(ws, az), circleLatitude(ws, az));
+                    ws.straight[c - 1] = true;
+                }
+            }
+        }
+
+        MapLine projected = new MapLine(c);
+        lineProjector.projectRing(ws.a, c, ws.straight, ws.projection, true, projected);
+        if (projected.size() > 2) {
+            dst.addRing(projected);
+        }
+    }
+
+    /**
+     * Returns true if a ring contains the centre of the circle. As in
+     * projectRingInBounds(), segments are straight in longitude and latitude
+     * and take the shorter way around the globe, and a ring that winds around
+     * a pole is closed along the pole.
+     */
+    private static boolean containsCentre(MapLine src, int n, Workspace ws) {
+        // unwrap the longitudes relative to lon0
+        final double lonFirst = normalizeDegrees(src.getX(0) - ws.lon0);
+        double lon = lonFirst;
+        double xMin = lon, xMax = lon, latSum = 0;
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                lon += normalizeDegrees(src.getX(i) - src.getX(i - 1));
+            }
+            xMin = Math.min(xMin, lon);
+            xMax = Math.max(xMax, lon);
+            latSum += src.getY(i);
+        }
+        final double winding = lon + normalizeDegrees(src.getX(0) - src.getX(n - 1)) - lonFirst;
+        final boolean enclosesPole = Math.abs(winding) > 180;
+        final double pole = latSum < 0 ? -90 : 90;
+        xMin = Math.min(xMin, lonFirst + winding);
+        xMax = Math.max(xMax, lonFirst + winding);
+
+        // count the crossings of a ray from each copy of the centre shifted
+        // by multiples of 360 degrees. A centre at a pole is moved off the
+        // pole, where rings enclosing the pole are closed.
+        final double y = Math.max(-90 + EDGE_EPS, Math.min(90 - EDGE_EPS, ws.latC));
+        final int kMax = (int) Math.floor(xMax / 360);
+        for (int k = (int) Math.ceil(xMin / 360); k <= kMax; k++) {
+            final double x = 360 * k;
+            boolean contains = false;
+            double lonA = lonFirst;
+            double latA = src.getY(0);
+            for (int i = 1; i <= n; i++) {
+                final double lonB = lonA + normalizeDegrees(src.getX(i % n) - src.getX(i - 1));
+                final double latB = src.getY(i % n);
+                contains ^= crosses(lonA, latA, lonB, latB, x, y);
+                lonA = lonB;
+                latA = latB;
+            }
+            if (enclosesPole) {
+                contains ^= crosses(lonA, latA, lonA, pole, x, y);
+                contains ^= crosses(lonFirst, pole, lonFirst, src.getY(0), x, y);
+            }
+            if (contains) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if a segment crosses the ray from a point towards
+     * increasing x.
+     */
+    private static boolean crosses(double x1, double y1, double x2, double y2,
+            double x, double y) {
+        return (y1 > y) != (y2 > y) && x < x1 + (y - y1) * (x2 - x1) / (y2 - y1);
+    }
+
+    /**
+     * Adds a point to the ring buffer of the workspace. A point outside of the
+     * circle is replaced by the point on the circle with the same azimuth.
+     *
+     * @param inside True if the point is inside the circle.
+     * @param onCircle True if the point is on the circle.
+     * @return The new number of points.
+     */
+    private static int addRingPoint(Workspace ws, int m, double lon, double lat,
+            boolean inside, boolean onCircle) {
+        double[] ring = ws.ensureRing(m + 1);
+        ws.ensureFlags(m + 1);
+        if (inside && !onCircle) {
+            ring[m * 2] = lon;
+            ring[m * 2 + 1] = lat;
+            ws.azimuth[m] = Double.NaN;
+        } else {
+            final double az = azimuth(ws, lon, lat);
+            ws.azimuth[m] = az;
+            if (inside) {
+                ring[m * 2] = lon;
+                ring[m * 2 + 1] = lat;
+            } else {
+                ring[m * 2] = circleLongitude(ws, az);
+                ring[m * 2 + 1] = circleLatitude(ws, az);
+            }
+        }
+        return m + 1;
+    }
+
+    /**
+     * Adds a point to the output buffer of the workspace.
+     *
+     * @return The new number of points.
+     */
+    private static int addOutputPoint(Workspace ws, int c, double lon, double lat) {
+        ws.ensureClipBuffers(c + 1);
+        ws.ensureFlags(c + 1);
+        ws.a[c * 2] = lon;
+        ws.a[c * 2 + 1] = lat;
+        ws.straight[c] = false;
+        return c + 1;
+    }
+
+    /**
+     * Returns the azimuth in degrees from the centre of the circle to a point.
+     */
+    private static double azimuth(Workspace ws, double lon, double lat) {
+        final double phi = lat * MapMath.DTR;
+        final double dLam = (lon - ws.lon0) * MapMath.DTR;
+        final double cosPhi = Math.cos(phi);
+        return Math.atan2(Math.sin(dLam) * cosPhi,
+                ws.cosLatC * Math.sin(phi) - ws.sinLatC * cosPhi * Math.cos(dLam)) * MapMath.RTD;
+    }
+
+    /**
+     * Returns the latitude of the point on the circle at an azimuth.
+     */
+    private static double circleLatitude(Workspace ws, double az) {
+        final double a = az * MapMath.DTR;
+        return Math.asin(ws.sinLatC * Math.cos(ws.radius)
+                + ws.cosLatC * Math.sin(ws.radius) * Math.cos(a)) * MapMath.RTD;
+    }
+
+    /**
+     * Returns the longitude of the point on the circle at an azimuth.
+     */
+    private static double circleLongitude(Workspace ws, double az) {
+        final double a = az * MapMath.DTR;
+        // this form is also stable if the centre is at a pole
+        return ws.lon0 + Math.atan2(Math.sin(a) * Math.sin(ws.radius),
+                ws.cosLatC * Math.cos(ws.radius)
+                - ws.sinLatC * Math.sin(ws.radius) * Math.cos(a)) * MapMath.RTD;
+    }
+}
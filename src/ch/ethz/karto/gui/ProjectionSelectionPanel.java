@@ -16,6 +16,7 @@ import java.awt.event.ActionListener;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -53,6 +54,12 @@ public class ProjectionSelectionPanel extends JPanel {
      */
     private ArrayList<MapLine> lines = null;
 
+    /**
+     * The projected graticules, which are reused when a slider returns to a
+     * previous value.
+     */
+    private final GraticuleCache graticuleCache = new GraticuleCache();
+
     private JLabel descriptionLabel = new JLabel();
     private JPanel infoPanel = new JPanel();
     private JCheckBox inverseCheckBox = new JCheckBox();
@@ -96,10 +103,11 @@ public class ProjectionSelectionPanel extends JPanel {
                 projection.setEllipsoid(Ellipsoid.SPHERE);
                 projection.initialize();
 
-                LineProjector projector = new LineProjector();
+                LineProjector projector = graticuleCache.getLineProjector();
                 ArrayList<MapLine> projectedLines = new ArrayList<>();
-                projector.constructGraticule(projectedLines, projection);
-                projector.projectLines(lines, projectedLines, projection);
+                graticuleCache.addGraticule(projectedLines, projection,
+                        LineProjector.DEFAULT_GRATICULE_DENSITY);
+                projector.projectLines(lines, projectedLines, projection, ForkJoinPool.commonPool());
                 if (inverse && projection.hasInverse()) {
                     projectedLines = projector.inverse(projectedLines, projection);
                 }
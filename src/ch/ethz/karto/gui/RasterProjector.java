@@ -0,0 +1,614 @@
+package ch.ethz.karto.gui;
+
+import com.jhlabs.map.proj.ApproximateTransformer;
+import com.jhlabs.map.proj.Projection;
+import com.jhlabs.map.proj.ProjectionException;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Projects raster images in geographic coordinates, for example global
+ * equirectangular images. For each pixel of the projected image, the center of
+ * the pixel is inverse-projected and the source image is resampled at the
+ * resulting longitude and latitude. Scanlines are inverse-projected with the
+ * batch transformation of Projection, and bands of scanlines are processed in
+ * parallel.
+ *
+ * Pixels outside of the domain of the projection remain transparent. A pixel
+ * is outside if the inverse projection fails or returns NaN, if the longitude
+ * and latitude are not inside() the projection, or if the forward projection
+ * of the longitude and latitude does not return to the pixel. The last test
+ * catches projections that return clamped or wrapped values for points
+ * outside of their outline.
+ *
+ * By default, scanlines are inverse-projected with an ApproximateTransformer
+ * that projects a few points per scanline exactly and interpolates the
+ * others. The tolerance is a fraction of the size of a source pixel. With
+ * an approximated scanline, the round trip test is applied to the exactly
+ * projected points only, and an interpolated point passes if the exact points
+ * on both sides pass.
+ *
+ * Projections without a closed-form inverse, such as Winkel Tripel or Aitoff,
+ * are inverted with Projection.newtonInverse and are about ten times slower to
+ * project than projections with a closed-form inverse. Attaching an
+ * InverseGrid to the projection with Projection.setInverseGrid reduces the
+ * number of Newton iterations for pixels inside the graticule.
+ *
+ * The projection must be initialized and must not be modified while an image
+ * is projected. Projections that are not reentrant are cloned once for each
+ * worker thread.
+ */
+public class RasterProjector {
+
+    /**
+     * Resampling methods.
+     */
+    public enum Interpolation {
+
+        /**
+         * Nearest neighbor.
+         */
+        NEAREST,
+        /**
+         * Bilinear interpolation between four pixels.
+         */
+        BILINEAR,
+        /**
+         * Bicubic (Catmull-Rom) interpolation between 16 pixels.
+         */
+        BICUBIC
+    }
+
+    /**
+     * Number of scanlines processed by a single task.
+     */
+    private static final int ROWS_PER_TASK = 16;
+
+    private Interpolation interpolation = Interpolation.BILINEAR;
+    private double roundTripTolerance = 0.5;
+    private double approximationTolerance = 0.125;
+    private ApproximateTransformer approximateTransformer = null;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    public RasterProjector() {
+    }
+
+    public Interpolation getInterpolation() {
+        return interpolation;
+    }
+
+    public void setInterpolation(Interpolation interpolation) {
+        if (interpolation == null) {
+            throw new IllegalArgumentException();
+        }
+        this.interpolation = interpolation;
+    }
+
+    public double getRoundTripTolerance() {
+        return roundTripTolerance;
+    }
+
+    /**
+     * Set the maximum distance in pixels between the center of a pixel and the
+     * forward projection of its inverse projection. Pixels exceeding this
+     * distance are outside of the projection. A negative value disables the
+     * test. Only exactly inverse-projected pixels are tested; see the class
+     * documentation.
+     */
+    public void setRoundTripTolerance(double roundTripTolerance) {
+        this.roundTripTolerance = roundTripTolerance;
+    }
+
+    public double getApproximationTolerance() {
+        return approximationTolerance;
+    }
+
+    /**
+     * Set the maximum error of interpolated longitudes and latitudes in source
+     * pixels. 0 inverse-projects every pixel exactly.
+     */
+    public void setApproximationTolerance(double approximationTolerance) {
+        if (!(approximationTolerance >= 0)) {
+            throw new IllegalArgumentException();
+        }
+        this.approximationTolerance = approximationTolerance;
+    }
+
+    /**
+     * Returns the transformer used by the last call to project(), which
+     * provides statistics about the number of exact inverse projections, or
+     * null if the last image was projected exactly.
+     */
+    public ApproximateTransformer getApproximateTransformer() {
+        return approximateTransformer;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public void setPool(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException();
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the bounding box of the projected graticule in metres.
+     *
+     * @param projection An initialized projection.
+     */
+    public static Rectangle2D getProjectedExtent(Projection projection) {
+        final double minLon = projection.getMinLongitudeDegrees();
+        final double maxLon = projection.getMaxLongitudeDegrees();
+        final double minLat = projection.getMinLatitudeDegrees();
+        final double maxLat = projection.getMaxLatitudeDegrees();
+        final double lon0 = projection.getProjectionLongitudeDegrees();
+        final int cols = 361;
+        final int rows = 181;
+        Rectangle2D extent = null;
+        Point2D.Double pt = new Point2D.Double();
+        for (int r = 0; r < rows; r++) {
+            double lat = minLat + (maxLat - minLat) * r / (rows - 1);
+            for (int c = 0; c < cols; c++) {
+                double lon = lon0 + minLon + (maxLon - minLon) * c / (cols - 1);
+                try {
+                    projection.transform(lon, lat, pt);
+                } catch (ProjectionException exc) {
+                    continue;
+                }
+                if (Double.isNaN(pt.x) || Double.isNaN(pt.y)
+                        || Double.isInfinite(pt.x) || Double.isInfinite(pt.y)) {
+                    continue;
+                }
+                if (extent == null) {
+                    extent = new Rectangle2D.Double(pt.x, pt.y, 0, 0);
+                } else {
+                    extent.add(pt.x, pt.y);
+                }
+            }
+        }
+        return extent;
+    }
+
+    /**
+     * Project a global image covering 360 degrees of longitude and 180 degrees
+     * of latitude. The projected image covers the projected graticule.
+     *
+     * @param src The source image in equirectangular projection.
+     * @param projection An initialized projection.
+     * @param dstWidth Width of the projected image in pixels.
+     * @param dstHeight Height of the projected image in pixels.
+     * @return The projected image.
+     */
+    public BufferedImage project(BufferedImage src, Projection projection,
+            int dstWidth, int dstHeight) {
+        Rectangle2D srcBounds = new Rectangle2D.Double(-180, -90, 360, 180);
+        Rectangle2D dstBounds = getProjectedExtent(projection);
+        if (dstBounds == null) {
+            throw new ProjectionException("cannot compute extent of projection");
+        }
+        return project(src, srcBounds, projection, dstBounds, dstWidth, dstHeight);
+    }
+
+    /**
+     * Project an image.
+     *
+     * @param src The source image in equirectangular projection.
+     * @param srcBounds The extent of the source image in degrees. The outer
+     * borders of the image pixels are on the borders of this rectangle.
+     * @param projection An initialized projection.
+     * @param dstBounds The extent of the projected image in metres.
+     * @param dstWidth Width of the projected image in pixels.
+     * @param dstHeight Height of the projected image in pixels.
+     * @return The projected image with a transparent background.
+     */
+    public BufferedImage project(BufferedImage src, Rectangle2D srcBounds,
+            Projection projection, Rectangle2D dstBounds,
+            int dstWidth, int dstHeight) {
+        if (dstWidth < 1 || dstHeight < 1) {
+            throw new IllegalArgumentException("invalid image size");
+        }
+        BufferedImage dst = new BufferedImage(dstWidth, dstHeight, BufferedImage.TYPE_INT_ARGB);
+        int[] dstPixels = ((DataBufferInt) dst.getRaster().getDataBuffer()).getData();
+        Source source = new Source(src, srcBounds);
+        Target target = new Target(dstPixels, dstBounds, dstWidth, dstHeight);
+        ApproximateTransformer transformer = null;
+        if (approximationTolerance > 0) {
+            double tol = approximationTolerance * Math.min(source.pixelWidth, source.pixelHeight);
+            transformer = new ApproximateTransformer(projection, tol);
+        }
+        approximateTransformer = transformer;
+        ThreadLocal<Projection> clones = null;
+        ThreadLocal<ApproximateTransformer> transformers = null;
+        if (!projection.isReentrant()) {
+            final ThreadLocal<Projection> c
+                    = ThreadLocal.withInitial(() -> (Projection) projection.clone());
+            clones = c;
+            if (transformer != null) {
+                final ApproximateTransformer shared = transformer;
+                transformers = ThreadLocal.withInitial(() -> shared.forProjection(c.get()));
+            }
+        }
+        RecursiveAction task = new BandTask(source, target, projection, transformer,
+                clones, transformers, 0, dstHeight);
+        if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+        return dst;
+    }
+
+    /**
+     * The source image as an array of ARGB values with its georeference.
+     */
+    private static final class Source {
+
+        final int[] pixels;
+        final int width;
+        final int height;
+        final double west;
+        final double north;
+        final double lonWidth;
+        final double pixelWidth;
+        final double pixelHeight;
+        final boolean wrap;
+
+        Source(BufferedImage img, Rectangle2D bounds) {
+            width = img.getWidth();
+            height = img.getHeight();
+            if (img.getType() == BufferedImage.TYPE_INT_ARGB) {
+                pixels = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+            } else {
+                pixels = img.getRGB(0, 0, width, height, null, 0, width);
+            }
+            west = bounds.getMinX();
+            north = bounds.getMaxY();
+            lonWidth = bounds.getWidth();
+            pixelWidth = bounds.getWidth() / width;
+            pixelHeight = bounds.getHeight() / height;
+            wrap = Math.abs(bounds.getWidth() - 360) < pixelWidth * 0.5;
+        }
+
+        /**
+         * Returns the column for a longitude, relative to pixel centers.
+         */
+        double column(double lon) {
+            double dLon = lon - west;
+            if (wrap) {
+                dLon %= 360;
+                if (dLon < 0) {
+                    dLon += 360;
+                }
+            } else if (dLon < 0 && dLon + 360 <= lonWidth) {
+                dLon += 360;
+            } else if (dLon > lonWidth && dLon - 360 >= 0) {
+                dLon -= 360;
+            }
+            return dLon / pixelWidth - 0.5;
+        }
+
+        /**
+         * Returns the row for a latitude, relative to pixel centers.
+         */
+        double row(double lat) {
+            return (north - lat) / pixelHeight - 0.5;
+        }
+
+        /**
+         * Returns true if a column and row are on the image.
+         */
+        boolean contains(double col, double row) {
+            return row > -0.5 && row < height - 0.5
+                    && (wrap || (col > -0.5 && col < width - 0.5));
+        }
+
+        int clampColumn(int col) {
+            if (wrap) {
+                col %= width;
+                return col < 0 ? col + width : col;
+            }
+            return col < 0 ? 0 : (col >= width ? width - 1 : col);
+        }
+
+        int clampRow(int row) {
+            return row < 0 ? 0 : (row >= height ? height - 1 : row);
+        }
+    }
+
+    /**
+     * The destination pixels with their georeference.
+     */
+    private static final class Target {
+
+        final int[] pixels;
+        final int width;
+        final int height;
+        final double west;
+        final double north;
+        final double pixelWidth;
+        final double pixelHeight;
+
+        Target(int[] pixels, Rectangle2D bounds, int width, int height) {
+            this.pixels = pixels;
+            this.width = width;
+            this.height = height;
+            west = bounds.getMinX();
+            north = bounds.getMaxY();
+            pixelWidth = bounds.getWidth() / width;
+            pixelHeight = bounds.getHeight() / height;
+        }
+    }
+
+    /**
+     * Projects a band of scanlines.
+     */
+    private final class BandTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Source source;
+        private final Target target;
+        private final Projection projection;
+        private final ApproximateTransformer transformer;
+        private final ThreadLocal<Projection> clones;
+        private final ThreadLocal<ApproximateTransformer> transformers;
+        private final int fromRow;
+        private final int toRow;
+
+        BandTask(Source source, Target target, Projection projection,
+                ApproximateTransformer transformer, ThreadLocal<Projection> clones,
+                ThreadLocal<ApproximateTransformer> transformers, int fromRow, int toRow) {
+            this.source = source;
+            this.target = target;
+            this.projection = projection;
+            this.transformer = transformer;
+            this.clones = clones;
+            this.transformers = transformers;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow > ROWS_PER_TASK) {
+                int mid = (fromRow + toRow) >>> 1;
+                invokeAll(new BandTask(source, target, projection, transformer,
+                        clones, transformers, fromRow, mid),
+                        new BandTask(source, target, projection, transformer,
+                                clones, transformers, mid, toRow));
+                return;
+            }
+            Projection p = clones == null ? projection : clones.get();
+            ApproximateTransformer t = transformers == null ? transformer : transformers.get();
+            final int w = target.width;
+            double[] x = new double[w];
+            double[] y = new double[w];
+            double[] lon = new double[w];
+            double[] lat = new double[w];
+            double[] fx = roundTripTolerance >= 0 ? new double[w] : null;
+            double[] fy = roundTripTolerance >= 0 ? new double[w] : null;
+            boolean[] valid = roundTripTolerance >= 0 ? new boolean[w] : null;
+            // the exactly inverse-projected points if the scanline is approximated
+            boolean[] exact = roundTripTolerance >= 0 && t != null ? new boolean[w] : null;
+            // bicubic weights and pixel offsets of the current pixel
+            double[] weights = interpolation == Interpolation.BICUBIC ? new double[8] : null;
+            int[] offsets = interpolation == Interpolation.BICUBIC ? new int[8] : null;
+            for (int c = 0; c < w; c++) {
+                x[c] = target.west + (c + 0.5) * target.pixelWidth;
+            }
+            for (int r = fromRow; r < toRow; r++) {
+                final double yr = target.north - (r + 0.5) * target.pixelHeight;
+                Arrays.fill(y, yr);
+                if (t != null) {
+                    t.inverseTransformLine(x, y, lon, lat, w, exact);
+                } else {
+                    // points that cannot be inverse-projected are NaN
+                    p.inverseTransform(x, y, 0, lon, lat, 0, w);
+                }
+                if (valid != null) {
+                    roundTrip(p, x, yr, lon, lat, exact, fx, fy, valid);
+                }
+                resampleRow(p, lon, lat, valid, weights, offsets, r * w);
+            }
+        }
+
+        /**
+         * Tests whether the forward projection of the inverse-projected
+         * points returns to the pixels. Interpolated points can deviate from
+         * the exact inverse projection by the approximation tolerance, which
+         * can exceed the round trip tolerance. Therefore only exactly
+         * inverse-projected points are tested, and an interpolated point is
+         * valid if the exact points on both sides are valid.
+         *
+         * @param exact The exactly inverse-projected points, or null if all
+         * points are exact.
+         * @param valid Receives the result for each point.
+         */
+        private void roundTrip(Projection p, double[] x, double yr,
+                double[] lon, double[] lat, boolean[] exact,
+                double[] fx, double[] fy, boolean[] valid) {
+            final int w = target.width;
+            if (exact == null) {
+                forwardRow(p, lon, lat, fx, fy, w);
+            } else {
+                forwardPoints(p, lon, lat, exact, fx, fy, w);
+            }
+            final double tolX = roundTripTolerance * target.pixelWidth;
+            final double tolY = roundTripTolerance * target.pixelHeight;
+            int prev = -1;
+            for (int c = 0; c < w; c++) {
+                if (exact != null && !exact[c]) {
+                    continue;
+                }
+                valid[c] = Math.abs(fx[c] - x[c]) <= tolX && Math.abs(fy[c] - yr) <= tolY;
+                if (c - prev > 1) {
+                    // the first and the last point are always exact
+                    Arrays.fill(valid, prev + 1, c, valid[prev] && valid[c]);
+                }
+                prev = c;
+            }
+        }
+
+        private void resampleRow(Projection p, double[] lon, double[] lat,
+                boolean[] valid, double[] weights, int[] offsets, int dstOffset) {
+            final int[] dstPixels = target.pixels;
+            for (int c = 0; c < target.width; c++) {
+                final double lo = lon[c];
+                final double la = lat[c];
+                if (Double.isNaN(lo) || Double.isNaN(la) || !p.inside(lo, la)) {
+                    continue;
+                }
+                if (valid != null && !valid[c]) {
+                    continue;
+                }
+                final double col = source.column(lo);
+                final double row = source.row(la);
+                if (!source.contains(col, row)) {
+                    continue;
+                }
+                switch (interpolation) {
+                    case NEAREST:
+                        dstPixels[dstOffset + c] = nearest(source, col, row);
+                        break;
+                    case BILINEAR:
+                        dstPixels[dstOffset + c] = bilinear(source, col, row);
+                        break;
+                    default:
+                        dstPixels[dstOffset + c] = bicubic(source, col, row, weights, offsets);
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Projects the points of a scanline that are flagged. The other points
+     * are not changed.
+     */
+    private static void forwardPoints(Projection p, double[] lon, double[] lat,
+            boolean[] flags, double[] x, double[] y, int n) {
+        Point2D.Double pt = new Point2D.Double();
+        for (int i = 0; i < n; i++) {
+            if (!flags[i]) {
+                continue;
+            }
+            try {
+                p.transform(lon[i], lat[i], pt);
+                x[i] = pt.x;
+                y[i] = pt.y;
+            } catch (ProjectionException e) {
+                x[i] = y[i] = Double.NaN;
+            }
+        }
+    }
+
+    private static void forwardRow(Projection p, double[] lon, double[] lat,
+            double[] x, double[] y, int n) {
+        try {
+            p.transform(lon, lat, 0, x, y, 0, n);
+        } catch (ProjectionException exc) {
+            Point2D.Double pt = new Point2D.Double();
+            for (int i = 0; i < n; i++) {
+                try {
+                    p.transform(lon[i], lat[i], pt);
+                    x[i] = pt.x;
+                    y[i] = pt.y;
+                } catch (ProjectionException e) {
+                    x[i] = y[i] = Double.NaN;
+                }
+            }
+        }
+    }
+
+    private static int nearest(Source s, double col, double row) {
+        int c = s.clampColumn((int) Math.floor(col + 0.5));
+        int r = s.clampRow((int) Math.floor(row + 0.5));
+        return s.pixels[r * s.width + c];
+    }
+
+    private static int bilinear(Source s, double col, double row) {
+        final double c0 = Math.floor(col);
+        final double r0 = Math.floor(row);
+        final double u = col - c0;
+        final double v = row - r0;
+        final int cLeft = s.clampColumn((int) c0);
+        final int cRight = s.clampColumn((int) c0 + 1);
+        final int top = s.clampRow((int) r0) * s.width;
+        final int bottom = s.clampRow((int) r0 + 1) * s.width;
+        final int p00 = s.pixels[top + cLeft];
+        final int p10 = s.pixels[top + cRight];
+        final int p01 = s.pixels[bottom + cLeft];
+        final int p11 = s.pixels[bottom + cRight];
+        int argb = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            final double a = (p00 >>> shift) & 0xFF;
+            final double b = (p10 >>> shift) & 0xFF;
+            final double c = (p01 >>> shift) & 0xFF;
+            final double d = (p11 >>> shift) & 0xFF;
+            final double t = a + u * (b - a);
+            final double value = t + v * (c + u * (d - c) - t);
+            argb |= ((int) (value + 0.5)) << shift;
+        }
+        return argb;
+    }
+
+    /**
+     * Bicubic interpolation.
+     *
+     * @param weights Scratch array of length 8 for the horizontal and vertical
+     * weights.
+     * @param offsets Scratch array of length 8 for the column indices and the
+     * row offsets.
+     */
+    private static int bicubic(Source s, double col, double row,
+            double[] weights, int[] offsets) {
+        final double c0 = Math.floor(col);
+        final double r0 = Math.floor(row);
+        cubicWeights(col - c0, weights, 0);
+        cubicWeights(row - r0, weights, 4);
+        for (int i = 0; i < 4; i++) {
+            offsets[i] = s.clampColumn((int) c0 + i - 1);
+            offsets[i + 4] = s.clampRow((int) r0 + i - 1) * s.width;
+        }
+        int argb = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            double value = 0;
+            for (int j = 0; j < 4; j++) {
+                double rowValue = 0;
+                for (int i = 0; i < 4; i++) {
+                    rowValue += weights[i] * ((s.pixels[offsets[j + 4] + offsets[i]] >>> shift) & 0xFF);
+                }
+                value += weights[j + 4] * rowValue;
+            }
+            int channel = (int) (value + 0.5);
+            channel = channel < 0 ? 0 : (channel > 255 ? 255 : channel);
+            argb |= channel << shift;
+        }
+        return argb;
+    }
+
+    /**
+     * Computes the Catmull-Rom weights for the four pixels around a fractional
+     * position t in [0, 1).
+     *
+     * @param w Receives the four weights.
+     * @param offset Index of the first weight in w.
+     */
+    private static void cubicWeights(double t, double[] w, int offset) {
+        final double t2 = t * t;
+        final double t3 = t2 * t;
+        w[offset] = 0.5 * (-t3 + 2 * t2 - t);
+        w[offset + 1] = 0.5 * (3 * t3 - 5 * t2 + 2);
+        w[offset + 2] = 0.5 * (-3 * t3 + 4 * t2 + t);
+        w[offset + 3] = 0.5 * (t3 - t2);
+    }
+}
@@ -6,86 +6,445 @@
 
 package ch.ethz.karto.gui;
 
-import java.io.BufferedReader;
-import java.io.FileInputStream;
+import com.jhlabs.map.FastDoubleParser;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.StringTokenizer;
+import java.util.function.Consumer;
 
 
 /**
  * An importer for the ESRI Ungenerate file format.
+ *
+ * Each line of the file starts with an identifier line, followed by one
+ * coordinate pair per text line, and ends with a line starting with "END",
+ * with an empty line, or with the end of the file. Text lines with less than
+ * two values are ignored. Lines without any coordinates are not returned.
+ *
+ * The file is read as bytes with NIO, memory-mapped if it is a file, and the
+ * coordinates are parsed directly from the bytes with FastDoubleParser
+ * without creating strings.
+ *
+ * Lines can be collected in a list with importData(), passed one by one to a
+ * Consumer with read(), or iterated with a LineIterator returned by open().
+ * The last two do not keep all lines in memory, and can for example pass each
+ * line directly to a LineProjector.
  * @author Bernhard Jenny, Institute of Cartography, ETH Zurich.
  */
 public class UngenerateImporter {
 
+    /**
+     * Size of the buffer for reading bytes.
+     */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
     private UngenerateImporter() {
     }
-    
+
     /**
      * Reads an Ungenerate file and returns the found lines in a Vector.
      * @param filePath The file to import.
      * @return A Vector containing all read MapLines.
      */
     public static ArrayList<MapLine> importData(String filePath) throws IOException {
-        return importData (new FileInputStream(filePath));
+        ArrayList<MapLine> lines = new ArrayList<MapLine>();
+        read(filePath, lines::add);
+        return lines;
     }
-    
+
+    /**
+     * Reads Ungenerate data from a stream and returns the found lines. The
+     * stream is closed.
+     * @param inputStream The stream to read.
+     * @return A list containing all read MapLines.
+     */
     public static ArrayList<MapLine> importData(InputStream inputStream) throws IOException {
-        // store the read lines in this vector.
         ArrayList<MapLine> lines = new ArrayList<MapLine>();
-        
-        // open the file
-        BufferedReader in = new BufferedReader(new InputStreamReader(inputStream));
-        
-        // read lines until we reach the end of the file
-        try {
-            String idStr;
-            while ((idStr = in.readLine()) != null) {
-                MapLine line = readLine(in);
-                if (line != null) {
-                    lines.add(line);
-                }
+        read(inputStream, lines::add);
+        return lines;
+    }
+
+    /**
+     * Reads an Ungenerate file and passes each line to a consumer as soon as
+     * it has been read.
+     * @param filePath The file to import.
+     * @param consumer Receives the lines.
+     */
+    public static void read(String filePath, Consumer<MapLine> consumer) throws IOException {
+        try (LineIterator it = open(filePath)) {
+            it.forEachRemaining(consumer);
+        } catch (UncheckedIOException exc) {
+            throw exc.getCause();
+        }
+    }
+
+    /**
+     * Reads Ungenerate data from a stream and passes each line to a consumer
+     * as soon as it has been read. The stream is closed.
+     * @param inputStream The stream to read.
+     * @param consumer Receives the lines.
+     */
+    public static void read(InputStream inputStream, Consumer<MapLine> consumer) throws IOException {
+        try (LineIterator it = open(inputStream)) {
+            it.forEachRemaining(consumer);
+        } catch (UncheckedIOException exc) {
+            throw exc.getCause();
+        }
+    }
+
+    /**
+     * Opens an Ungenerate file for reading the lines one by one. The file is
+     * memory-mapped.
+     * @param filePath The file to import.
+     * @return An iterator over the lines, which must be closed.
+     */
+    public static LineIterator open(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return new LineIterator(FileChannel.open(Paths.get(filePath), StandardOpenOption.READ));
             }
-        } finally {
-            in.close();
+            // the mapping stays valid after the channel is closed
+            return new LineIterator(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
         }
-        
-        // return the read lines
-        return lines;
     }
-    
+
+    /**
+     * Opens a stream with Ungenerate data for reading the lines one by one.
+     * @param inputStream The stream to read. It is closed when the returned
+     * iterator is closed.
+     * @return An iterator over the lines, which must be closed.
+     */
+    public static LineIterator open(InputStream inputStream) {
+        return new LineIterator(Channels.newChannel(inputStream));
+    }
+
     /**
-     * Reads a MapLine from the current file position.
-     * @param in The reader that provides the data to read.
-     * @return MapLine The read line.
+     * Reads lines one by one. Errors while reading are thrown as
+     * UncheckedIOException by hasNext() and next().
      */
-    private static MapLine readLine(BufferedReader in) throws java.io.IOException {
-        String str;
-        MapLine line = new MapLine();
-        
-        while (true) {
-            str = in.readLine();
-            if (str == null || str.length() == 0) {
-                break;
+    public static final class LineIterator implements Iterator<MapLine>, Closeable {
+
+        /**
+         * The channel to read from, or null if the data is mapped.
+         */
+        private ReadableByteChannel channel;
+
+        /**
+         * The mapped data, or null if the data is read from a channel.
+         */
+        private ByteBuffer mapped;
+
+        /**
+         * Bytes that have been read but not parsed yet.
+         */
+        private final byte[] chunk;
+        private final ByteBuffer chunkBuffer;
+        private int pos = 0;
+        private int limit = 0;
+
+        /**
+         * True if the last text line ended with a carriage return, which may
+         * be followed by a line feed.
+         */
+        private boolean skipLineFeed = false;
+
+        /**
+         * Holds text lines that are split between two chunks.
+         */
+        private byte[] spill = new byte[256];
+
+        /**
+         * The current text line is in lineBytes from lineStart to lineEnd.
+         */
+        private byte[] lineBytes;
+        private int lineStart;
+        private int lineEnd;
+        private long lineNumber = 0;
+
+        /**
+         * Interleaved coordinates of the current line.
+         */
+        private double[] xy = new double[1024];
+
+        /**
+         * View of lineBytes for parsing numbers.
+         */
+        private final ByteChars chars = new ByteChars();
+
+        /**
+         * The next line, or null if it has not been read yet.
+         */
+        private MapLine next = null;
+        private boolean eof = false;
+
+        private LineIterator(ReadableByteChannel channel) {
+            this.channel = channel;
+            this.chunk = new byte[CHUNK_SIZE];
+            this.chunkBuffer = ByteBuffer.wrap(chunk);
+        }
+
+        private LineIterator(ByteBuffer mapped) {
+            this.mapped = mapped;
+            this.chunk = new byte[Math.min(CHUNK_SIZE, Math.max(1, mapped.remaining()))];
+            this.chunkBuffer = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !eof) {
+                try {
+                    next = readMapLine();
+                } catch (IOException exc) {
+                    throw new UncheckedIOException(exc);
+                }
+                eof = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public MapLine next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            MapLine line = next;
+            next = null;
+            return line;
+        }
+
+        @Override
+        public void close() throws IOException {
+            mapped = null;
+            eof = true;
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+
+        /**
+         * Fills the chunk with the following bytes.
+         * @return False if there are no more bytes.
+         */
+        private boolean fill() throws IOException {
+            pos = limit = 0;
+            if (mapped != null) {
+                final int n = Math.min(chunk.length, mapped.remaining());
+                mapped.get(chunk, 0, n);
+                limit = n;
+            } else if (channel != null) {
+                chunkBuffer.clear();
+                int n;
+                do {
+                    n = channel.read(chunkBuffer);
+                } while (n == 0);
+                limit = Math.max(0, chunkBuffer.position());
+            }
+            return limit > 0;
+        }
+
+        /**
+         * Finds the next text line. Lines end with a line feed, a carriage
+         * return, or a carriage return followed by a line feed. A line that
+         * lies entirely in the current chunk is not copied.
+         * @return False if the end of the data has been reached.
+         */
+        private boolean nextTextLine() throws IOException {
+            int spilled = 0;
+            while (true) {
+                if (pos >= limit && !fill()) {
+                    if (spilled == 0) {
+                        return false;
+                    }
+                    setLine(spill, 0, spilled);
+                    return true;
+                }
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (chunk[pos] == '\n') {
+                        ++pos;
+                        continue;
+                    }
+                }
+                int i = pos;
+                while (i < limit && chunk[i] != '\n' && chunk[i] != '\r') {
+                    ++i;
+                }
+                if (i < limit) {
+                    if (spilled == 0) {
+                        setLine(chunk, pos, i);
+                    } else {
+                        spilled = spill(i, spilled);
+                        setLine(spill, 0, spilled);
+                    }
+                    skipLineFeed = chunk[i] == '\r';
+                    pos = i + 1;
+                    return true;
+                }
+                spilled = spill(limit, spilled);
+                pos = limit;
+            }
+        }
+
+        /**
+         * Appends the bytes of the chunk from pos to end to the spill buffer.
+         * @return The new number of bytes in the spill buffer.
+         */
+        private int spill(int end, int spilled) {
+            final int n = end - pos;
+            if (spilled + n > spill.length) {
+                byte[] a = new byte[Math.max(spill.length * 2, spilled + n)];
+                System.arraycopy(spill, 0, a, 0, spilled);
+                spill = a;
             }
-            str = str.trim().toLowerCase();
-            if (str.startsWith("end") ) {
-                break;
+            System.arraycopy(chunk, pos, spill, spilled, n);
+            return spilled + n;
+        }
+
+        private void setLine(byte[] bytes, int start, int end) {
+            lineBytes = bytes;
+            lineStart = start;
+            lineEnd = end;
+            ++lineNumber;
+        }
+
+        /**
+         * Reads the next line with at least one point.
+         * @return The line, or null at the end of the data.
+         */
+        private MapLine readMapLine() throws IOException {
+            // each line starts with an identifier line
+            while (nextTextLine()) {
+                final int n = readPoints();
+                if (n > 0) {
+                    return new MapLine(xy, 0, n);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Reads the points of a line into xy until a line starting with "END",
+         * an empty line or the end of the data.
+         * @return The number of points.
+         */
+        private int readPoints() throws IOException {
+            int n = 0;
+            while (nextTextLine()) {
+                if (lineStart == lineEnd) {
+                    break;
+                }
+                final byte[] b = lineBytes;
+                final int end = lineEnd;
+
+                // first value
+                int i = skipSeparators(b, lineStart, end);
+                if (isEnd(b, i, end)) {
+                    break;
+                }
+                if (i == end) {
+                    continue;
+                }
+                final int xStart = i;
+                final int xEnd = tokenEnd(b, i, end);
+
+                // second value
+                i = skipSeparators(b, xEnd, end);
+                if (i == end) {
+                    // found a line without any readable data. Just read the next line
+                    continue;
+                }
+                final int yEnd = tokenEnd(b, i, end);
+
+                if (n * 2 + 2 > xy.length) {
+                    double[] a = new double[xy.length * 2];
+                    System.arraycopy(xy, 0, a, 0, n * 2);
+                    xy = a;
+                }
+                xy[n * 2] = parseNumber(b, xStart, xEnd);
+                xy[n * 2 + 1] = parseNumber(b, i, yEnd);
+                ++n;
             }
+            return n;
+        }
+
+        private double parseNumber(byte[] b, int start, int end) throws IOException {
             try {
-                StringTokenizer tokenizer = new StringTokenizer(str, " \t,");
-                double x = Double.parseDouble((String)tokenizer.nextToken());
-                double y = Double.parseDouble((String)tokenizer.nextToken());
-                line.addPoint(x, y);
-            } catch (NoSuchElementException e) {
-                // found a line without any readable data. Just read the next line
+                chars.bytes = b;
+                return FastDoubleParser.parseDouble(chars, start, end);
+            } catch (NumberFormatException exc) {
+                throw new IOException("Invalid number in line " + lineNumber + ": "
+                        + new String(b, start, end - start, StandardCharsets.ISO_8859_1));
             }
         }
-        return line;
     }
 
+    private static boolean isSeparator(byte c) {
+        return c <= ' ' || c == ',';
+    }
+
+    private static int skipSeparators(byte[] b, int i, int end) {
+        while (i < end && isSeparator(b[i])) {
+            ++i;
+        }
+        return i;
+    }
+
+    private static int tokenEnd(byte[] b, int i, int end) {
+        while (i < end && !isSeparator(b[i])) {
+            ++i;
+        }
+        return i;
+    }
+
+    /**
+     * Returns true if the text starting at i starts with "end", ignoring case.
+     */
+    private static boolean isEnd(byte[] b, int i, int end) {
+        return end - i >= 3
+                && (b[i] | 0x20) == 'e'
+                && (b[i + 1] | 0x20) == 'n'
+                && (b[i + 2] | 0x20) == 'd';
+    }
+
+    /**
+     * A CharSequence view of ISO 8859-1 bytes, so that numbers can be parsed
+     * with FastDoubleParser without copying the bytes.
+     */
+    private static final class ByteChars implements CharSequence {
+
+        private byte[] bytes;
+
+        @Override
+        public int length() {
+            return bytes.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[index] & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    }
 }
@@ -0,0 +1,117 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map;
+
+/**
+ * Converts decimal numbers in a range of characters to doubles without
+ * creating a String. Numbers with an optional sign, fraction and exponent
+ * are converted directly if the digits fit into 53 bits and the power of ten
+ * is exact; a single multiplication or division then yields the correctly
+ * rounded result. Everything else is passed to Double.parseDouble, so the
+ * result is always identical to Double.parseDouble.
+ */
+public final class FastDoubleParser {
+
+    /**
+     * Exact powers of ten that can be represented by a double.
+     */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Largest integer up to which all integers can be represented by a double.
+     */
+    private static final long MAX_EXACT_INTEGER = 1L << 53;
+
+    private FastDoubleParser() {
+    }
+
+    /**
+     * Converts characters to a double.
+     * @param s The characters.
+     * @param start The index of the first character.
+     * @param end The index after the last character.
+     * @return The converted value.
+     * @throws NumberFormatException If the characters are not a number.
+     */
+    public static double parseDouble(CharSequence s, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            ++i;
+        }
+
+        long significand = 0;
+        int significantDigits = 0;
+        int digits = 0;
+        int exponent = 0;
+        char c;
+
+        // integer part
+        for (; i < end && (c = s.charAt(i)) >= '0' && c <= '9'; ++i, ++digits) {
+            significand = significand * 10 + (c - '0');
+            if (significand != 0) {
+                ++significantDigits;
+            }
+        }
+
+        // fraction
+        if (i < end && s.charAt(i) == '.') {
+            for (++i; i < end && (c = s.charAt(i)) >= '0' && c <= '9'; ++i, ++digits) {
+                significand = significand * 10 + (c - '0');
+                if (significand != 0) {
+                    ++significantDigits;
+                }
+                --exponent;
+            }
+        }
+
+        // exponent
+        if (digits > 0 && i < end && ((c = s.charAt(i)) == 'e' || c == 'E')) {
+            ++i;
+            boolean negativeExponent = false;
+            if (i < end && ((c = s.charAt(i)) == '-' || c == '+')) {
+                negativeExponent = c == '-';
+                ++i;
+            }
+            int e = 0;
+            final int exponentStart = i;
+            for (; i < end && (c = s.charAt(i)) >= '0' && c <= '9' && e < 10000; ++i) {
+                e = e * 10 + (c - '0');
+            }
+            if (i == exponentStart) {
+                digits = 0;
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+
+        if (i == end && digits > 0 && significantDigits <= 18) {
+            if (significand == 0) {
+                return negative ? -0d : 0d;
+            }
+            if (significand <= MAX_EXACT_INTEGER
+                    && exponent >= -22 && exponent <= 22) {
+                double v = significand;
+                v = exponent < 0 ? v / POWERS_OF_TEN[-exponent] : v * POWERS_OF_TEN[exponent];
+                return negative ? -v : v;
+            }
+        }
+        return Double.parseDouble(s.subSequence(start, end).toString());
+    }
+}
@@ -127,6 +127,11 @@ public class AiryProjection extends AzimuthalProjection {
 		}
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Airy";
 	}
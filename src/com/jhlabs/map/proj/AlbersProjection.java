@@ -169,6 +169,11 @@ public class AlbersProjection extends ConicProjection {
 		return true;
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	/**
 	 * Returns the ESPG code for this projection, or 0 if unknown.
 	 */
@@ -61,6 +61,11 @@ public class Apian1Projection extends Projection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return "Apian Globular I";
@@ -42,7 +42,7 @@ public class Apian2Projection extends Projection {
 
     @Override
     public Point2D.Double projectInverse(double x, double y, Point2D.Double out) {
-        binarySearchInverse(x, y, out);
+        newtonInverse(x, y, out);
         return out;
     }
 
@@ -51,6 +51,11 @@ public class Apian2Projection extends Projection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return "Apian Globular II";
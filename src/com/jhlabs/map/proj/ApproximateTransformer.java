@@ -0,0 +1,284 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Approximates the inverse projection of points that are evenly spaced along
+ * a straight line, such as the pixel centers of a scanline. Only the end
+ * points and the middle point of the line are inverse-projected exactly. If
+ * the middle point deviates from the linear interpolation between the end
+ * points by less than the tolerance, all other points are interpolated
+ * linearly. Otherwise the line is split at the middle point and both halves
+ * are processed the same way.
+ *
+ * Most projections are smooth over short distances, so this usually replaces
+ * the large majority of exact inverse projections with linear interpolation.
+ * Note that features smaller than the distance between exactly projected
+ * points can be missed. To limit this, lines longer than a maximum span are
+ * always split, even if the middle point is within the tolerance. Without
+ * this limit, a scanline whose end points are outside of the outline of a
+ * projection could be interpolated across the whole graticule.
+ *
+ * The statistics are thread-safe and shared by all transformers created with
+ * forProjection().
+ */
+public class ApproximateTransformer {
+
+    /**
+     * Lines with this number of points or fewer are projected exactly.
+     */
+    private final static int MIN_POINTS = 3;
+
+    /**
+     * Default maximum number of intervals between two exactly projected points.
+     */
+    public final static int DEFAULT_MAX_SPAN = 64;
+
+    private final Projection projection;
+    private final double tolerance;
+    private final int maxSpan;
+    private final LongAdder exactCount;
+    private final LongAdder interpolatedCount;
+    private final AtomicLong maxErrorBits;
+
+    /**
+     * Creates a transformer.
+     *
+     * @param projection An initialized projection.
+     * @param tolerance Maximum error in degrees for interpolated longitudes and
+     * latitudes. 0 projects all points exactly.
+     */
+    public ApproximateTransformer(Projection projection, double tolerance) {
+        this(projection, tolerance, DEFAULT_MAX_SPAN);
+    }
+
+    /**
+     * Creates a transformer.
+     *
+     * @param projection An initialized projection.
+     * @param tolerance Maximum error in degrees for interpolated longitudes and
+     * latitudes. 0 projects all points exactly.
+     * @param maxSpan Maximum number of intervals between two exactly projected
+     * points, at least 2.
+     */
+    public ApproximateTransformer(Projection projection, double tolerance, int maxSpan) {
+        if (projection == null || !(tolerance >= 0) || maxSpan < 2) {
+            throw new IllegalArgumentException();
+        }
+        this.projection = projection;
+        this.tolerance = tolerance;
+        this.maxSpan = maxSpan;
+        this.exactCount = new LongAdder();
+        this.interpolatedCount = new LongAdder();
+        this.maxErrorBits = new AtomicLong(Double.doubleToLongBits(0));
+    }
+
+    private ApproximateTransformer(ApproximateTransformer t, Projection projection) {
+        this.projection = projection;
+        this.tolerance = t.tolerance;
+        this.maxSpan = t.maxSpan;
+        this.exactCount = t.exactCount;
+        this.interpolatedCount = t.interpolatedCount;
+        this.maxErrorBits = t.maxErrorBits;
+    }
+
+    /**
+     * Returns a transformer with the same tolerance and the same statistics
+     * for another projection, for example a clone used by another thread.
+     */
+    public ApproximateTransformer forProjection(Projection projection) {
+        if (projection == null) {
+            throw new IllegalArgumentException();
+        }
+        return new ApproximateTransformer(this, projection);
+    }
+
+    public Projection getProjection() {
+        return projection;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public int getMaxSpan() {
+        return maxSpan;
+    }
+
+    /**
+     * Inverse-project points evenly spaced along a straight line, producing
+     * a lon/lat result in degrees. Points that cannot be inverse-projected are
+     * set to NaN.
+     *
+     * @param x The x coordinates in metres.
+     * @param y The y coordinates in metres.
+     * @param lon Receives the longitudes in degrees.
+     * @param lat Receives the latitudes in degrees.
+     * @param numPoints Number of points.
+     */
+    public void inverseTransformLine(double[] x, double[] y,
+            double[] lon, double[] lat, int numPoints) {
+        inverseTransformLine(x, y, lon, lat, numPoints, null);
+    }
+
+    /**
+     * Inverse-project points evenly spaced along a straight line, producing
+     * a lon/lat result in degrees, and mark the points that were
+     * inverse-projected exactly. Points that cannot be inverse-projected are
+     * set to NaN.
+     *
+     * @param x The x coordinates in metres.
+     * @param y The y coordinates in metres.
+     * @param lon Receives the longitudes in degrees.
+     * @param lat Receives the latitudes in degrees.
+     * @param numPoints Number of points.
+     * @param exact Receives true for exactly inverse-projected points and
+     * false for interpolated points. Can be null.
+     */
+    public void inverseTransformLine(double[] x, double[] y,
+            double[] lon, double[] lat, int numPoints, boolean[] exact) {
+        if (numPoints <= 0) {
+            return;
+        }
+        if (exact != null) {
+            Arrays.fill(exact, 0, numPoints, false);
+        }
+        Point2D.Double pt = new Point2D.Double();
+        exact(x, y, lon, lat, 0, pt, exact);
+        if (numPoints > 1) {
+            exact(x, y, lon, lat, numPoints - 1, pt, exact);
+        }
+        if (tolerance == 0) {
+            for (int i = 1; i < numPoints - 1; i++) {
+                exact(x, y, lon, lat, i, pt, exact);
+            }
+        } else {
+            subdivide(x, y, lon, lat, 0, numPoints - 1, pt, exact);
+        }
+    }
+
+    /**
+     * Fills the points between first and last, which have been projected.
+     */
+    private void subdivide(double[] x, double[] y, double[] lon, double[] lat,
+            int first, int last, Point2D.Double pt, boolean[] exact) {
+        if (last - first + 1 <= MIN_POINTS) {
+            for (int i = first + 1; i < last; i++) {
+                exact(x, y, lon, lat, i, pt, exact);
+            }
+            return;
+        }
+        final int mid = (first + last) >>> 1;
+        exact(x, y, lon, lat, mid, pt, exact);
+        final double t = (double) (mid - first) / (last - first);
+        final double dLon = Math.abs(lon[first] + t * (lon[last] - lon[first]) - lon[mid]);
+        final double dLat = Math.abs(lat[first] + t * (lat[last] - lat[first]) - lat[mid]);
+        final double error = Math.max(dLon, dLat);
+        // NaN errors fail this test
+        if (error <= tolerance && last - first <= maxSpan) {
+            updateMaxError(error);
+            interpolate(lon, first, last, mid);
+            interpolate(lat, first, last, mid);
+            interpolatedCount.add(last - first - 2);
+        } else {
+            subdivide(x, y, lon, lat, first, mid, pt, exact);
+            subdivide(x, y, lon, lat, mid, last, pt, exact);
+        }
+    }
+
+    /**
+     * Linearly interpolates between first and last, skipping mid.
+     */
+    private static void interpolate(double[] v, int first, int last, int mid) {
+        final double v0 = v[first];
+        final double dv = (v[last] - v0) / (last - first);
+        for (int i = first + 1; i < last; i++) {
+            if (i != mid) {
+                v[i] = v0 + (i - first) * dv;
+            }
+        }
+    }
+
+    private void exact(double[] x, double[] y, double[] lon, double[] lat,
+            int i, Point2D.Double pt, boolean[] exact) {
+        exactCount.increment();
+        if (exact != null) {
+            exact[i] = true;
+        }
+        try {
+            pt.x = x[i];
+            pt.y = y[i];
+            projection.inverseTransform(pt, pt);
+            lon[i] = pt.x;
+            lat[i] = pt.y;
+        } catch (ProjectionException exc) {
+            lon[i] = lat[i] = Double.NaN;
+        }
+    }
+
+    private void updateMaxError(double error) {
+        long bits = maxErrorBits.get();
+        while (error > Double.longBitsToDouble(bits)
+                && !maxErrorBits.compareAndSet(bits, Double.doubleToLongBits(error))) {
+            bits = maxErrorBits.get();
+        }
+    }
+
+    /**
+     * Returns the number of exactly inverse-projected points.
+     */
+    public long getExactCount() {
+        return exactCount.sum();
+    }
+
+    /**
+     * Returns the number of linearly interpolated points.
+     */
+    public long getInterpolatedCount() {
+        return interpolatedCount.sum();
+    }
+
+    /**
+     * Returns the largest error in degrees measured at a middle point whose
+     * line was then interpolated.
+     */
+    public double getMaxError() {
+        return Double.longBitsToDouble(maxErrorBits.get());
+    }
+
+    /**
+     * Returns the ratio between the number of points and the number of
+     * exactly inverse-projected points.
+     */
+    public double getReductionFactor() {
+        long exact = getExactCount();
+        return exact == 0 ? 1 : (double) (exact + getInterpolatedCount()) / exact;
+    }
+
+    /**
+     * Resets the statistics.
+     */
+    public void resetStatistics() {
+        exactCount.reset();
+        interpolatedCount.reset();
+        maxErrorBits.set(Double.doubleToLongBits(0));
+    }
+}
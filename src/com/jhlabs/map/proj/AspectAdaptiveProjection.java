@@ -129,6 +129,11 @@ public class AspectAdaptiveProjection extends CylindricalProjection {
         return false;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Aspect-Adaptive";
     }
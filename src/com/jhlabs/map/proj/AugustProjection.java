@@ -49,6 +49,11 @@ public class AugustProjection extends Projection {
 		return false;
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "August Epicycloidal";
 	}
@@ -70,5 +70,18 @@ public class AzimuthalProjection extends Projection {
 		return mapRadius;
 	}
 
+	@Override
+	public double getDomainRadiusDegrees() {
+		return mapRadius;
+	}
+
+	/**
+	 * Meridians are straight lines in the polar aspect.
+	 */
+	@Override
+	public boolean meridiansAreStraight() {
+		return mode == NORTH_POLE || mode == SOUTH_POLE;
+	}
+
 }
 
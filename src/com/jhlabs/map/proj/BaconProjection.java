@@ -64,6 +64,11 @@ public class BaconProjection extends Projection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return "Bacon Globular";
@@ -0,0 +1,399 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The coordinate system files in /coordsys compiled into a binary catalog.
+ * The catalog is created when the library is built by running main(), and is
+ * stored as the resource /coordsys/catalog.bin. At runtime it is
+ * memory-mapped if it is a file, and coordinate systems are found by binary
+ * search without parsing any text.
+ *
+ * All strings (names of files, codes, keys and values) are stored once in a
+ * dictionary. Each distinct parameter (key and value) is also stored once,
+ * together with its value parsed as a number. The entries of each file are
+ * sorted by the UTF-8 bytes of their code.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * header     int magic, int version, int stringCount, int parameterCount,
+ *            int fileCount
+ * strings    int[stringCount + 1] offsets, UTF-8 bytes
+ * parameters per parameter: int key string, int value string (-1 for a
+ *            flag without value), double number (NaN if the value is not a
+ *            decimal number)
+ * files      per file: int name string, int entry count, int entry position
+ * entries    per entry: int code string, int first reference,
+ *            int reference count
+ * references int parameter index
+ * </pre>
+ */
+public final class BinaryCoordinateSystemCatalog {
+
+    /**
+     * The name of the catalog resource.
+     */
+    public static final String RESOURCE = "/coordsys/catalog.bin";
+
+    private static final int MAGIC = 0x4B435253; // "KCRS"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 20;
+    private static final int PARAMETER_SIZE = 16;
+    private static final int FILE_SIZE = 12;
+    private static final int ENTRY_SIZE = 12;
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int stringData;
+    private final int parameters;
+
+    /**
+     * For each file, the number of entries and the position of the first
+     * entry.
+     */
+    private final Map<String, int[]> files = new HashMap<>();
+
+    /**
+     * Decoded strings. Strings are decoded when first used.
+     */
+    private final String[] strings;
+
+    /**
+     * The catalog resource, loaded when first used.
+     */
+    private static final class Holder {
+
+        static final BinaryCoordinateSystemCatalog catalog = load();
+    }
+
+    private BinaryCoordinateSystemCatalog(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC
+                || buffer.getInt(4) != VERSION) {
+            throw new IOException("Invalid coordinate system catalog");
+        }
+        stringCount = buffer.getInt(8);
+        final int parameterCount = buffer.getInt(12);
+        final int fileCount = buffer.getInt(16);
+        strings = new String[stringCount];
+        stringData = HEADER_SIZE + (stringCount + 1) * 4;
+        parameters = stringData + buffer.getInt(HEADER_SIZE + stringCount * 4);
+        final int fileTable = parameters + parameterCount * PARAMETER_SIZE;
+        for (int i = 0; i < fileCount; i++) {
+            final int pos = fileTable + i * FILE_SIZE;
+            files.put(string(buffer.getInt(pos)),
+                    new int[]{buffer.getInt(pos + 4), buffer.getInt(pos + 8)});
+        }
+    }
+
+    /**
+     * Returns the catalog resource.
+     *
+     * @return The catalog, or null if the library was built without a
+     * catalog or the catalog cannot be read.
+     */
+    public static BinaryCoordinateSystemCatalog getDefault() {
+        return Holder.catalog;
+    }
+
+    private static BinaryCoordinateSystemCatalog load() {
+        URL url = BinaryCoordinateSystemCatalog.class.getResource(RESOURCE);
+        if (url == null) {
+            return null;
+        }
+        try {
+            if ("file".equals(url.getProtocol())) {
+                try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+                    return new BinaryCoordinateSystemCatalog(
+                            channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                }
+            }
+            // a resource in a jar cannot be mapped
+            try (InputStream in = url.openStream()) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] b = new byte[64 * 1024];
+                int n;
+                while ((n = in.read(b)) >= 0) {
+                    bytes.write(b, 0, n);
+                }
+                return new BinaryCoordinateSystemCatalog(ByteBuffer.wrap(bytes.toByteArray()));
+            }
+        } catch (IOException | URISyntaxException | RuntimeException exc) {
+            Logger.getLogger(BinaryCoordinateSystemCatalog.class.getName()).log(Level.WARNING,
+                    "Cannot read coordinate system catalog", exc);
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if the catalog contains a file.
+     */
+    public boolean containsFile(String file) {
+        return files.containsKey(file);
+    }
+
+    /**
+     * Returns the parameters of a coordinate system.
+     *
+     * @return New parameters, or null if the file is not in the catalog or
+     * does not contain the code.
+     */
+    PROJ4Parameters getParameters(String file, String code) {
+        final int[] f = files.get(file);
+        if (f == null) {
+            return null;
+        }
+        final byte[] key = code.getBytes(StandardCharsets.UTF_8);
+        int lo = 0;
+        int hi = f[0] - 1;
+        while (lo <= hi) {
+            final int mid = (lo + hi) >>> 1;
+            final int entry = f[1] + mid * ENTRY_SIZE;
+            final int cmp = compare(buffer.getInt(entry), key);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return parameters(entry);
+            }
+        }
+        return null;
+    }
+
+    private PROJ4Parameters parameters(int entry) {
+        PROJ4Parameters params = new PROJ4Parameters();
+        final int first = buffer.getInt(entry + 4);
+        final int count = buffer.getInt(entry + 8);
+        for (int i = 0; i < count; i++) {
+            final int p = parameters + buffer.getInt(first + i * 4) * PARAMETER_SIZE;
+            final int value = buffer.getInt(p + 4);
+            params.put(string(buffer.getInt(p)), value < 0 ? null : string(value),
+                    buffer.getDouble(p + 8));
+        }
+        return params;
+    }
+
+    /**
+     * Compares a string of the dictionary with UTF-8 bytes.
+     */
+    private int compare(int stringID, byte[] key) {
+        final int start = stringData + buffer.getInt(HEADER_SIZE + stringID * 4);
+        final int length = stringData + buffer.getInt(HEADER_SIZE + stringID * 4 + 4) - start;
+        final int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            final int cmp = (buffer.get(start + i) & 0xFF) - (key[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - key.length;
+    }
+
+    private String string(int stringID) {
+        String s = strings[stringID];
+        if (s == null) {
+            final int start = stringData + buffer.getInt(HEADER_SIZE + stringID * 4);
+            final int end = stringData + buffer.getInt(HEADER_SIZE + stringID * 4 + 4);
+            byte[] b = new byte[end - start];
+            for (int i = 0; i < b.length; i++) {
+                b[i] = buffer.get(start + i);
+            }
+            s = new String(b, StandardCharsets.UTF_8);
+            strings[stringID] = s;
+        }
+        return s;
+    }
+
+    /**
+     * Compiles coordinate system files into a catalog.
+     *
+     * @param files Map from file name to the argument lists of the entries.
+     * @return The catalog.
+     */
+    static byte[] compile(Map<String, Map<String, String[]>> files) throws IOException {
+        // dictionary of strings and of parameters
+        final HashMap<String, Integer> stringIDs = new HashMap<>();
+        final ArrayList<byte[]> stringList = new ArrayList<>();
+        final HashMap<String, Integer> parameterIDs = new HashMap<>();
+        final ArrayList<int[]> parameterList = new ArrayList<>();
+        final ArrayList<Double> numberList = new ArrayList<>();
+
+        final ArrayList<int[]> fileList = new ArrayList<>();
+        final ArrayList<int[]> entryList = new ArrayList<>();
+        final ArrayList<Integer> references = new ArrayList<>();
+
+        for (Map.Entry<String, Map<String, String[]>> file : files.entrySet()) {
+            // sort the codes by their UTF-8 bytes
+            List<String> codes = new ArrayList<>(file.getValue().keySet());
+            codes.sort(Comparator.comparing((String c) -> c.getBytes(StandardCharsets.UTF_8),
+                    BinaryCoordinateSystemCatalog::compareBytes));
+            fileList.add(new int[]{intern(file.getKey(), stringIDs, stringList),
+                entryList.size(), codes.size()});
+            for (String code : codes) {
+                entryList.add(new int[]{intern(code, stringIDs, stringList), references.size()});
+                PROJ4Parameters params = PROJ4Parameters.fromArguments(file.getValue().get(code));
+                for (String arg : params.toArguments()) {
+                    Integer id = parameterIDs.get(arg);
+                    if (id == null) {
+                        final int eq = arg.indexOf('=');
+                        final String key = eq < 0 ? arg.substring(1) : arg.substring(1, eq);
+                        final String value = eq < 0 ? null : arg.substring(eq + 1);
+                        id = parameterList.size();
+                        parameterIDs.put(arg, id);
+                        parameterList.add(new int[]{
+                            intern(key, stringIDs, stringList),
+                            value == null ? -1 : intern(value, stringIDs, stringList)});
+                        numberList.add(PROJ4Parameters.parseDecimal(value));
+                    }
+                    references.add(id);
+                }
+            }
+        }
+
+        // positions of the sections
+        int stringBytes = 0;
+        for (byte[] b : stringList) {
+            stringBytes += b.length;
+        }
+        final int parameterPos = HEADER_SIZE + (stringList.size() + 1) * 4 + stringBytes;
+        final int filePos = parameterPos + parameterList.size() * PARAMETER_SIZE;
+        final int entryPos = filePos + fileList.size() * FILE_SIZE;
+        final int referencePos = entryPos + entryList.size() * ENTRY_SIZE;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(referencePos + references.size() * 4);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(stringList.size());
+        out.writeInt(parameterList.size());
+        out.writeInt(fileList.size());
+        int offset = 0;
+        for (byte[] b : stringList) {
+            out.writeInt(offset);
+            offset += b.length;
+        }
+        out.writeInt(offset);
+        for (byte[] b : stringList) {
+            out.write(b);
+        }
+        for (int i = 0; i < parameterList.size(); i++) {
+            out.writeInt(parameterList.get(i)[0]);
+            out.writeInt(parameterList.get(i)[1]);
+            out.writeDouble(numberList.get(i));
+        }
+        for (int[] f : fileList) {
+            out.writeInt(f[0]);
+            out.writeInt(f[2]);
+            out.writeInt(entryPos + f[1] * ENTRY_SIZE);
+        }
+        for (int i = 0; i < entryList.size(); i++) {
+            final int[] e = entryList.get(i);
+            final int end = i + 1 < entryList.size() ? entryList.get(i + 1)[1] : references.size();
+            out.writeInt(e[0]);
+            out.writeInt(referencePos + e[1] * 4);
+            out.writeInt(end - e[1]);
+        }
+        for (int id : references) {
+            out.writeInt(id);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static int intern(String s, HashMap<String, Integer> ids, ArrayList<byte[]> list) {
+        Integer id = ids.get(s);
+        if (id == null) {
+            id = list.size();
+            ids.put(s, id);
+            list.add(s.getBytes(StandardCharsets.UTF_8));
+        }
+        return id;
+    }
+
+    private static int compareBytes(byte[] a, byte[] b) {
+        final int n = Math.min(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            final int cmp = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * Compiles all coordinate system files in a directory into a catalog.
+     * Used by the build.
+     * Usage: BinaryCoordinateSystemCatalog coordsysDirectory catalogFile
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BinaryCoordinateSystemCatalog coordsysDirectory catalogFile");
+            System.exit(1);
+        }
+        final File dir = new File(args[0]);
+        final File output = new File(args[1]);
+        File[] list = dir.listFiles();
+        if (list == null) {
+            throw new IOException("Not a directory: " + dir);
+        }
+        Arrays.sort(list);
+        TreeMap<String, Map<String, String[]>> files = new TreeMap<>();
+        for (File file : list) {
+            final String name = file.getName();
+            if (!file.isFile() || name.startsWith(".") || name.endsWith(".bin")) {
+                continue;
+            }
+            try (Reader reader = new InputStreamReader(Files.newInputStream(file.toPath()))) {
+                files.put(name, CoordinateSystemCatalog.parse(reader, name));
+            }
+        }
+        final File parent = output.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (FileOutputStream out = new FileOutputStream(output)) {
+            out.write(compile(files));
+        }
+    }
+}
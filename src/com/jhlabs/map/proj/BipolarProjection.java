@@ -165,6 +165,11 @@ public class BipolarProjection extends Projection {
 		return true;
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public void initialize() { // bipc
 		super.initialize();
 //		noskew = pj_param(params, "bns").i;//FIXME
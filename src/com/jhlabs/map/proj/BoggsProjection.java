@@ -61,7 +61,18 @@ public class BoggsProjection extends PseudoCylindricalProjection {
 	}
 
 	public boolean hasInverse() {
-		return false;
+		return true;
+	}
+
+	@Override
+	public Point2D.Double projectInverse(double x, double y, Point2D.Double lp) {
+		newtonInverse(x, y, lp);
+		return lp;
+	}
+
+	@Override
+	public boolean isReentrant() {
+		return true;
 	}
 
 	public String toString() {
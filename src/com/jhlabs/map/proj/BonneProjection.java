@@ -114,6 +114,11 @@ public class BonneProjection extends ConicProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public void initialize() {
         super.initialize();
@@ -139,6 +144,11 @@ public class BonneProjection extends ConicProjection {
         }
     }
 
+    @Override
+    public boolean meridiansAreStraight() {
+        return false;
+    }
+
     @Override
     public String toString() {
         return "Bonne";
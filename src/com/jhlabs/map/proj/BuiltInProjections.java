@@ -0,0 +1,431 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The projections included in the library. The names are stored here so that
+ * the list of projections is available without creating a projection, and
+ * projections are created with a switch instead of reflection.
+ */
+final class BuiltInProjections implements ProjectionProvider {
+
+    /**
+     * Creates the projection with a PROJ.4 name when get() is called. The
+     * constructor is looked up on the first call, so that a projection class
+     * is not loaded before a projection of the class is needed.
+     */
+    private static final class Factory implements Supplier<Projection> {
+
+        private final String proj4Name;
+        private Supplier<Projection> constructor;
+
+        Factory(String proj4Name) {
+            this.proj4Name = proj4Name;
+        }
+
+        @Override
+        public Projection get() {
+            Supplier<Projection> c = constructor;
+            if (c == null) {
+                c = constructor = constructor(proj4Name);
+            }
+            return c.get();
+        }
+    }
+
+    @Override
+    public List<ProjectionDescriptor> getProjections() {
+        ArrayList<ProjectionDescriptor> list = new ArrayList<>(128);
+        add(list, "aea", "Albers Equal Area");
+        add(list, "aeqd", "Equidistant Azimuthal");
+        add(list, "airy", "Airy");
+        add(list, "aitoff", "Aitoff");
+//        add(list, "alsk", "");
+        add(list, "apian1", "Apian Globular I");
+        add(list, "apian2", "Apian Globular II");
+        add(list, "ardn_cls", "Arden-Close");
+        add(list, "aspect", "Aspect-Adaptive");
+        add(list, "august", "August Epicycloidal");
+        add(list, "bacon", "Bacon Globular");
+        add(list, "bipc", "Bipolar Conic of Western Hemisphere");
+        add(list, "boggs", "Boggs Eumorphic");
+        add(list, "bonne", "Bonne");
+        add(list, "cass", "Cassini");
+        add(list, "cc", "Central Cylindrical");
+        add(list, "cea", "Cylindrical Equal-Area");
+        add(list, "compmill", "Compact Miller");
+//        add(list, "chamb", "");
+        add(list, "collg", "Collignon");
+        add(list, "crast", "Craster Parabolic (Putnins P4)");
+        add(list, "denoy", "Denoyer Semi-elliptical");
+        add(list, "eck1", "Eckert I");
+        add(list, "eck2", "Eckert II");
+        add(list, "eck3", "Eckert III");
+        add(list, "eck4", "Eckert IV");
+        add(list, "eck5", "Eckert V");
+        add(list, "eck6", "Eckert VI");
+        add(list, "eckgreif", "Eckert-Greifendorff");
+        add(list, "equalearth", "Equal Earth");
+        add(list, "eqc", "Equirectangular");
+        add(list, "eqdc", "Equidistant Conic");
+        add(list, "euler", "Euler");
+        add(list, "fahey", "Fahey");
+        add(list, "fouc", "Foucaut");
+        add(list, "fouc_s", "Foucaut Sinusoidal");
+        add(list, "four2", "Fournier II");
+        add(list, "gall", "Gall (Gall Stereographic)");
+        add(list, "gallpeters", "Gall-Peters");
+        add(list, "gins8", "Ginzburg VIII (TsNIIGAiK 1944)");
+//        add(list, "gn_sinu", "");
+        add(list, "gnom", "Gnomonic Azimuthal");
+        add(list, "goode", "Goode Homolosine");
+//        add(list, "gs48", "Mod. Stererographics of 48 U.S.");
+//        add(list, "gs50", "Mod. Stererographics of 50 U.S.");
+        add(list, "hammer", "Hammer"); // Eckert-Greifendorff is in own class
+        add(list, "hatano", "Hatano Asymmetrical");
+        add(list, "holzel", "H\u00F6lzel");
+        add(list, "hufnagel", "Hufnagel");
+//        add(list, "imw_p", "Internation Map of the World Polyconic");
+        add(list, "kav1", "Kavrayskiy I");
+        add(list, "kav5", "Kavrayskiy V");
+        add(list, "kav7", "Kavrayskiy VII");
+//        add(list, "labrd", "Laborde");
+        add(list, "laea", "Lambert Azimuthal Equal Area");
+        add(list, "lagrng", "Lagrange");
+        add(list, "larr", "Larriv\u00E9e");
+        add(list, "lask", "Laskowski");
+        add(list, "lcc", "Lambert Conformal Conic");
+        add(list, "leac", "Lambert Equal Area Conic");
+//        add(list, "lee_os", "Lee Oblated Stereographic");
+        add(list, "longlat", "Linear");
+        add(list, "loxim", "Loximuthal");
+        add(list, "lsat", "Landsat");
+        add(list, "mbt_s", "McBryde-Thomas Sine (No. 1)");
+        add(list, "mbt_fps", "McBryde-Thomas Flat-Pole Sine (No. 2)");
+        add(list, "mbtfpp", "McBride-Thomas Flat-Pole Parabolic");
+        add(list, "mbtfpq", "McBryde-Thomas Flat-Pole Quartic");
+//        add(list, "mbtfps", "");
+        add(list, "merc", "Mercator");
+//        add(list, "mil_os", "Miller Oblated Stereographic");
+        add(list, "mill", "Miller Cylindrical I");
+//        add(list, "mpoly", "Modified Polyconic");
+        add(list, "moll", "Mollweide");
+        add(list, "murd1", "Murdoch I");
+        add(list, "murd2", "Murdoch II");
+        add(list, "murd3", "Murdoch III");
+        add(list, "natearth", "Natural Earth");
+        add(list, "natearth2", "Natural Earth II");
+        add(list, "nell", "Nell");
+        add(list, "nell_h", "Nell-Hammer");
+        add(list, "nicol", "Nicolosi Globular");
+        add(list, "nsper", "Perspective");
+        add(list, "nzmg", "New Zealand Map Grid");
+//        add(list, "ob_tran", "General Oblique Transformation");
+//        add(list, "ocea", "Oblique Cylindrical Equal Area");
+//        add(list, "oea", "Oblated Equal Area");
+        add(list, "omerc", "Oblique Mercator");
+        add(list, "ortel", "Ortelius Oval");
+        add(list, "ortho", "Orthographic Azimuthal");
+        add(list, "patt", "Patterson");
+        add(list, "pconic", "Perspective Conic");
+        add(list, "poly", "Polyconic (American)");
+        add(list, "putp1", "Putnins P1");
+        add(list, "putp2", "Putnins P2");
+//        add(list, "putp3", "Putnins P3");
+        add(list, "putp4p", "Putnins P4'");
+        add(list, "putp5", "Putnins P5");
+        add(list, "putp5p", "Putnins P5'");
+//        add(list, "putp6", "Putnins P6");
+//        add(list, "putp6p", "Putnins P6'");
+        add(list, "qua_aut", "Quartic Authalic");
+        add(list, "robin", "Robinson"); // RobinsonProjectionOriginal_Proj4_JHL has vertical shift at latitude +/-40 degrees
+        add(list, "rpoly", "Rectangular Polyconic");
+        add(list, "sinu", "Sinusoidal");
+        add(list, "somerc", "Swiss Oblique Mercator");
+        add(list, "stere", "Stereographic Azimuthal");
+        add(list, "tcc", "Transverse Central Cylindrical");
+        add(list, "tcea", "Transverse Cylindrical Equal Area");
+        add(list, "tissot", "Tissot");
+        add(list, "toblermercator", "Tobler-Mercator");
+        add(list, "tmerc", "Transverse Mercator");
+        add(list, "tlat", "Transverse Wagner Transformation between Lambert Azimuthal and Equal-area Cylindrical");
+
+//        add(list, "tpeqd", "Two Point Equidistant");
+//        add(list, "tpers", "Tilted perspective");
+//        add(list, "ups", "Universal Polar Stereographic");
+//        add(list, "urm5", "Urmaev V");
+        add(list, "urmfps", "Urmayev Flat-Polar Sinusoidal"); // Urmaev Flat-Polar Sinusoidal
+        add(list, "utm", "Universal Transverse Mercator");
+        add(list, "vandg", "van der Grinten (I)");
+//        add(list, "vandg2", "van der Grinten II");
+//        add(list, "vandg3", "van der Grinten III");
+//        add(list, "vandg4", "van der Grinten IV");
+        add(list, "vitk1", "Vitkovsky");
+        add(list, "wag1", "Wagner I");
+        add(list, "wag2", "Wagner II");
+        add(list, "wag3", "Wagner III");
+        add(list, "wag4", "Wagner IV");
+        add(list, "wag5", "Wagner V");
+        add(list, "wag6", "Wagner VI");
+        add(list, "wag7", "Wagner VII");
+        add(list, "weren", "Werenskiold I");
+        add(list, "wink1", "Winkel I");
+        add(list, "wink2", "Winkel II");
+        add(list, "wintri", "Winkel Tripel");
+        return list;
+    }
+
+    private static void add(List<ProjectionDescriptor> list, String proj4Name, String name) {
+        list.add(new ProjectionDescriptor(proj4Name, name, new Factory(proj4Name)));
+    }
+
+    /**
+     * Returns the constructor of the projection with a PROJ.4 name registered
+     * in getProjections().
+     */
+    private static Supplier<Projection> constructor(String proj4Name) {
+        switch (proj4Name) {
+            case "aea":
+                return AlbersProjection::new;
+            case "aeqd":
+                return EquidistantAzimuthalProjection::new;
+            case "airy":
+                return AiryProjection::new;
+            case "aitoff":
+                return AitoffProjection::new;
+            case "apian1":
+                return Apian1Projection::new;
+            case "apian2":
+                return Apian2Projection::new;
+            case "ardn_cls":
+                return ArdenCloseProjection::new;
+            case "aspect":
+                return AspectAdaptiveProjection::new;
+            case "august":
+                return AugustProjection::new;
+            case "bacon":
+                return BaconProjection::new;
+            case "bipc":
+                return BipolarProjection::new;
+            case "boggs":
+                return BoggsProjection::new;
+            case "bonne":
+                return BonneProjection::new;
+            case "cass":
+                return CassiniProjection::new;
+            case "cc":
+                return CentralCylindricalProjection::new;
+            case "cea":
+                return CylindricalEqualAreaProjection::new;
+            case "compmill":
+                return CompactMillerProjection::new;
+            case "collg":
+                return CollignonProjection::new;
+            case "crast":
+                return CrasterProjection::new;
+            case "denoy":
+                return DenoyerProjection::new;
+            case "eck1":
+                return Eckert1Projection::new;
+            case "eck2":
+                return Eckert2Projection::new;
+            case "eck3":
+                return Eckert3Projection::new;
+            case "eck4":
+                return Eckert4Projection::new;
+            case "eck5":
+                return Eckert5Projection::new;
+            case "eck6":
+                return Eckert6Projection::new;
+            case "eckgreif":
+                return EckertGreifendorffProjection::new;
+            case "equalearth":
+                return EqualEarthProjection::new;
+            case "eqc":
+                return EquidistantCylindricalProjection::new;
+            case "eqdc":
+                return EquidistantConicProjection::new;
+            case "euler":
+                return EulerProjection::new;
+            case "fahey":
+                return FaheyProjection::new;
+            case "fouc":
+                return FoucautProjection::new;
+            case "fouc_s":
+                return FoucautSinusoidalProjection::new;
+            case "four2":
+                return Fournier2Projection::new;
+            case "gall":
+                return GallProjection::new;
+            case "gallpeters":
+                return GallPetersProjection::new;
+            case "gins8":
+                return Ginzburg8Projection::new;
+            case "gnom":
+                return GnomonicAzimuthalProjection::new;
+            case "goode":
+                return GoodeProjection::new;
+            case "hammer":
+                return HammerProjection::new;
+            case "hatano":
+                return HatanoProjection::new;
+            case "holzel":
+                return HolzelProjection::new;
+            case "hufnagel":
+                return HufnagelProjection::new;
+            case "kav1":
+                return Kavrayskiy1Projection::new;
+            case "kav5":
+                return Kavrayskiy5Projection::new;
+            case "kav7":
+                return Kavrayskiy7Projection::new;
+            case "laea":
+                return LambertAzimuthalEqualAreaProjection::new;
+            case "lagrng":
+                return LagrangeProjection::new;
+            case "larr":
+                return LarriveeProjection::new;
+            case "lask":
+                return LaskowskiProjection::new;
+            case "lcc":
+                return LambertConformalConicProjection::new;
+            case "leac":
+                return LambertEqualAreaConicProjection::new;
+            case "longlat":
+                return LinearProjection::new;
+            case "loxim":
+                return LoximuthalProjection::new;
+            case "lsat":
+                return LandsatProjection::new;
+            case "mbt_s":
+                return McBrydeThomasSine1Projection::new;
+            case "mbt_fps":
+                return McBrydeThomasFlatPolarSine2Projection::new;
+            case "mbtfpp":
+                return McBrydeThomasFlatPolarParabolicProjection::new;
+            case "mbtfpq":
+                return McBrydeThomasFlatPolarQuarticProjection::new;
+            case "merc":
+                return MercatorProjection::new;
+            case "mill":
+                return MillerCylindrical1Projection::new;
+            case "moll":
+                return MollweideProjection::new;
+            case "murd1":
+                return Murdoch1Projection::new;
+            case "murd2":
+                return Murdoch2Projection::new;
+            case "murd3":
+                return Murdoch3Projection::new;
+            case "natearth":
+                return NaturalEarthProjection::new;
+            case "natearth2":
+                return NaturalEarth2Projection::new;
+            case "nell":
+                return NellProjection::new;
+            case "nell_h":
+                return NellHammerProjection::new;
+            case "nicol":
+                return NicolosiProjection::new;
+            case "nsper":
+                return PerspectiveProjection::new;
+            case "nzmg":
+                return NZMGProjection::new;
+            case "omerc":
+                return ObliqueMercatorProjection::new;
+            case "ortel":
+                return OrteliusProjection::new;
+            case "ortho":
+                return OrthographicAzimuthalProjection::new;
+            case "patt":
+                return PattersonProjection::new;
+            case "pconic":
+                return PerspectiveConicProjection::new;
+            case "poly":
+                return PolyconicProjection::new;
+            case "putp1":
+                return PutninsP1Projection::new;
+            case "putp2":
+                return PutninsP2Projection::new;
+            case "putp4p":
+                return PutninsP4PProjection::new;
+            case "putp5":
+                return PutninsP5Projection::new;
+            case "putp5p":
+                return PutninsP5PProjection::new;
+            case "qua_aut":
+                return QuarticAuthalicProjection::new;
+            case "robin":
+                return RobinsonProjection::new;
+            case "rpoly":
+                return RectangularPolyconicProjection::new;
+            case "sinu":
+                return SinusoidalProjection::new;
+            case "somerc":
+                return SwissObliqueMercatorProjection::new;
+            case "stere":
+                return StereographicAzimuthalProjection::new;
+            case "tcc":
+                return TCCProjection::new;
+            case "tcea":
+                return TCEAProjection::new;
+            case "tissot":
+                return TissotProjection::new;
+            case "toblermercator":
+                return ToblerMercator::new;
+            case "tmerc":
+                return TransverseMercatorProjection::new;
+            case "tlat":
+                return TransformedLambertAzimuthalTransverse::new;
+            case "urmfps":
+                return URMFPSProjection::new;
+            case "utm":
+                return UniversalTransverseMercatorProjection::new;
+            case "vandg":
+                return VanDerGrintenProjection::new;
+            case "vitk1":
+                return VitkovskyProjection::new;
+            case "wag1":
+                return Wagner1Projection::new;
+            case "wag2":
+                return Wagner2Projection::new;
+            case "wag3":
+                return Wagner3Projection::new;
+            case "wag4":
+                return Wagner4Projection::new;
+            case "wag5":
+                return Wagner5Projection::new;
+            case "wag6":
+                return Wagner6Projection::new;
+            case "wag7":
+                return Wagner7Projection::new;
+            case "weren":
+                return Werenskiold1Projection::new;
+            case "wink1":
+                return Winkel1Projection::new;
+            case "wink2":
+                return Winkel2Projection::new;
+            case "wintri":
+                return WinkelTripelProjection::new;
+            default:
+                throw new IllegalArgumentException(proj4Name);
+        }
+    }
+}
@@ -28,16 +28,17 @@ import java.time.Year;
 public class CassiniProjection extends CylindricalProjection {
 
     private double m0;
-    private double n;
-    private double t;
-    private double a1;
-    private double c;
-    private double r;
-    private double dd;
-    private double d2;
-    private double a2;
-    private double tn;
     private double[] en;
+    // scratch space of project() and projectInverse()
+    private transient double n;
+    private transient double t;
+    private transient double a1;
+    private transient double c;
+    private transient double r;
+    private transient double dd;
+    private transient double d2;
+    private transient double a2;
+    private transient double tn;
     private final static double EPS10 = 1e-10;
     private final static double C1 = .16666666666666666666;
     private final static double C2 = .00833333333333333333;
@@ -115,6 +116,11 @@ public class CassiniProjection extends CylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return false;
+    }
+
     /**
      * Returns the ESPG code for this projection.
      */
@@ -122,6 +128,11 @@ public class CassiniProjection extends CylindricalProjection {
         return 9806;
     }
 
+    @Override
+    public boolean isRectilinear() {
+        return false;
+    }
+
     @Override
     public String toString() {
         return "Cassini";
@@ -50,6 +50,11 @@ public class CentralCylindricalProjection extends CylindricalProjection {
 		return true;
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Central Cylindrical";
 	}
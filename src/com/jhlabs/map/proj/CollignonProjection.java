@@ -71,6 +71,11 @@ public class CollignonProjection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Collignon";
     }
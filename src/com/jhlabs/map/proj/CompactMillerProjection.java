@@ -41,6 +41,11 @@ public class CompactMillerProjection extends CylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public Point2D.Double projectInverse(double x, double y, Point2D.Double lp) {
 
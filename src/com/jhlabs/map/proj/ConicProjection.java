@@ -72,6 +72,11 @@ public class ConicProjection extends Projection {
         return getProjectionLatitude2() * RTD;
     }
 
+    @Override
+    public boolean meridiansAreStraight() {
+        return true;
+    }
+
     public String toString() {
         return "Conic";
     }
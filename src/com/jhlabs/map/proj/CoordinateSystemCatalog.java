@@ -0,0 +1,290 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StreamTokenizer;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An in-memory index of the coordinate system files in /coordsys. Each file
+ * is parsed once, when a coordinate system of the file is first requested,
+ * and its entries are stored with the PROJ.4 arguments already split. Later
+ * lookups are hash table lookups.
+ *
+ * The catalog is thread-safe. A file is parsed by a single thread; other
+ * threads requesting the same file wait for the result. preloadInBackground()
+ * parses all files in a daemon thread, for example at startup.
+ *
+ * If the library was built with a BinaryCoordinateSystemCatalog, coordinate
+ * systems are read from the binary catalog and the text files are not parsed.
+ */
+public final class CoordinateSystemCatalog {
+
+    /**
+     * The files searched by getArguments(String) without a file prefix, in the
+     * order they are searched.
+     */
+    private static final String[] FILES = {"world", "nad83", "nad27", "esri", "epsg"};
+
+    /**
+     * For each parsed file, the arguments of each coordinate system.
+     */
+    private static final Map<String, Map<String, String[]>> files = new ConcurrentHashMap<>();
+
+    private CoordinateSystemCatalog() {
+    }
+
+    /**
+     * Returns the PROJ.4 arguments of a coordinate system.
+     *
+     * @param name The name of the coordinate system, either "file:code", for
+     * example "epsg:4326", or only the code. Without a file, the files world,
+     * nad83, nad27, esri and epsg are searched in this order.
+     * @return A new array with the arguments, or null if no coordinate system
+     * with this name exists.
+     * @throws IOException If a file cannot be read.
+     */
+    public static String[] getArguments(String name) throws IOException {
+        int p = name.indexOf(':');
+        if (p >= 0) {
+            return getArguments(name.substring(0, p), name.substring(p + 1));
+        }
+        for (String file : FILES) {
+            String[] args = getArguments(file, name);
+            if (args != null) {
+                return args;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the PROJ.4 arguments of a coordinate system in a file.
+     *
+     * @param file The name of the file in /coordsys, for example "epsg".
+     * @param name The name of the coordinate system in the file, for example
+     * "4326".
+     * @return A new array with the arguments, or null if the file does not
+     * contain a coordinate system with this name.
+     * @throws IOException If the file does not exist or cannot be read.
+     */
+    public static String[] getArguments(String file, String name) throws IOException {
+        BinaryCoordinateSystemCatalog binary = BinaryCoordinateSystemCatalog.getDefault();
+        if (binary != null && binary.containsFile(file)) {
+            PROJ4Parameters params = binary.getParameters(file, name);
+            return params == null ? null : params.toArguments();
+        }
+        String[] args = getFile(file).get(name);
+        return args == null ? null : args.clone();
+    }
+
+    /**
+     * Returns the parameters of a coordinate system.
+     *
+     * @param name The name of the coordinate system, either "file:code" or
+     * only the code.
+     * @return New parameters, or null if no coordinate system with this name
+     * exists.
+     * @throws IOException If a file cannot be read.
+     */
+    static PROJ4Parameters getParameters(String name) throws IOException {
+        int p = name.indexOf(':');
+        if (p >= 0) {
+            return getParameters(name.substring(0, p), name.substring(p + 1));
+        }
+        for (String file : FILES) {
+            PROJ4Parameters params = getParameters(file, name);
+            if (params != null) {
+                return params;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the parameters of a coordinate system in a file. The numbers
+     * of coordinate systems read from the binary catalog are already parsed.
+     *
+     * @return New parameters, or null if the file does not contain a
+     * coordinate system with this name.
+     * @throws IOException If the file does not exist or cannot be read.
+     */
+    static PROJ4Parameters getParameters(String file, String name) throws IOException {
+        BinaryCoordinateSystemCatalog binary = BinaryCoordinateSystemCatalog.getDefault();
+        if (binary != null && binary.containsFile(file)) {
+            return binary.getParameters(file, name);
+        }
+        String[] args = getFile(file).get(name);
+        return args == null ? null : PROJ4Parameters.fromArguments(args);
+    }
+
+    /**
+     * Returns the names of all coordinate systems in a file.
+     *
+     * @param file The name of the file in /coordsys.
+     * @return A read-only set of names.
+     * @throws IOException If the file does not exist or cannot be read.
+     */
+    public static Set<String> getNames(String file) throws IOException {
+        return Collections.unmodifiableSet(getFile(file).keySet());
+    }
+
+    /**
+     * Parses all files that have not been parsed yet.
+     *
+     * @throws IOException If a file cannot be read.
+     */
+    public static void preload() throws IOException {
+        for (String file : FILES) {
+            getFile(file);
+        }
+    }
+
+    /**
+     * Parses all files in a daemon thread. Errors are logged.
+     */
+    public static void preloadInBackground() {
+        Thread thread = new Thread(() -> {
+            try {
+                preload();
+            } catch (IOException exc) {
+                Logger.getLogger(CoordinateSystemCatalog.class.getName()).log(Level.WARNING, null, exc);
+            }
+        }, "CoordinateSystemCatalog");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static Map<String, String[]> getFile(String file) throws IOException {
+        try {
+            return files.computeIfAbsent(file, f -> {
+                try {
+                    return parseFile(f);
+                } catch (IOException exc) {
+                    throw new UncheckedIOException(exc);
+                }
+            });
+        } catch (UncheckedIOException exc) {
+            throw exc.getCause();
+        }
+    }
+
+    private static Map<String, String[]> parseFile(String file) throws IOException {
+        InputStream is = CoordinateSystemCatalog.class.getResourceAsStream("/coordsys/" + file);
+        if (is == null) {
+            throw new IOException("Unknown coordinate system file: " + file);
+        }
+        try (Reader reader = new BufferedReader(new InputStreamReader(is))) {
+            return parse(reader, file);
+        }
+    }
+
+    /**
+     * Parses a list of coordinate systems of the form
+     * "&lt;name&gt; +key=value ... &lt;&gt;". Comments start with '#'. If a name
+     * appears more than once, the first entry is used. If a syntax error is
+     * found, the entries before the error are returned and the error is
+     * logged.
+     */
+    static Map<String, String[]> parse(Reader reader, String file) throws IOException {
+        HashMap<String, String[]> entries = new HashMap<>();
+        StreamTokenizer t = new StreamTokenizer(reader);
+        t.commentChar('#');
+        t.ordinaryChars('0', '9');
+        t.ordinaryChars('.', '.');
+        t.ordinaryChars('-', '-');
+        t.ordinaryChars('+', '+');
+        t.wordChars('0', '9');
+        t.wordChars('\'', '\'');
+        t.wordChars('"', '"');
+        t.wordChars('_', '_');
+        t.wordChars('.', '.');
+        t.wordChars('-', '-');
+        t.wordChars('+', '+');
+        t.wordChars(',', ',');
+        t.nextToken();
+
+        ArrayList<String> v = new ArrayList<>();
+        String error = null;
+        entries:
+        while (t.ttype == '<') {
+            t.nextToken();
+            if (t.ttype != StreamTokenizer.TT_WORD) {
+                error = "Word expected after '<'";
+                break;
+            }
+
+            String cname = t.sval;
+            t.nextToken();
+            if (t.ttype != '>') {
+                error = "'>' expected";
+                break;
+            }
+            t.nextToken();
+            v.clear();
+            while (t.ttype != '<') {
+                if (t.ttype == '+') {
+                    t.nextToken();
+                }
+                if (t.ttype != StreamTokenizer.TT_WORD) {
+                    error = "Word expected after '+'";
+                    break entries;
+                }
+                String key = t.sval;
+                t.nextToken();
+                if (t.ttype == '=') {
+                    t.nextToken();
+                    // no check for a word to allow for proj4 hack +nadgrids=@null
+                    String value = t.sval;
+                    t.nextToken();
+                    if (key.startsWith("+")) {
+                        v.add(key + "=" + value);
+                    } else {
+                        v.add("+" + key + "=" + value);
+                    }
+                } else {
+                    // a flag, for example +south
+                    v.add(key.startsWith("+") ? key : "+" + key);
+                }
+            }
+            t.nextToken();
+            if (t.ttype != '>') {
+                error = "'<>' expected";
+                break;
+            }
+            t.nextToken();
+            entries.putIfAbsent(cname, v.toArray(new String[v.size()]));
+        }
+        if (error != null) {
+            Logger.getLogger(CoordinateSystemCatalog.class.getName()).log(Level.WARNING,
+                    "{0}:{1}: {2}", new Object[]{file, t.lineno(), error});
+        }
+        return entries;
+    }
+}
@@ -57,6 +57,11 @@ public class CrasterProjection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Craster Parabolic (Putnins P4)";
     }
@@ -74,6 +74,37 @@ public class CylindricalEqualAreaProjection extends CylindricalProjection {
         return xy;
     }
 
+    @Override
+    protected void projectBatch(double[] src, int srcOffset, double[] dst, int dstOffset, int numPoints) {
+        if (!spherical) {
+            super.projectBatch(src, srcOffset, dst, dstOffset, numPoints);
+            return;
+        }
+        final double k = scaleFactor;
+        final int end = srcOffset + 2 * numPoints;
+        for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+            final double phi = src[i + 1];
+            dst[j] = k * src[i];
+            dst[j + 1] = Math.sin(phi) / k;
+        }
+    }
+
+    @Override
+    protected void projectBatch(double[] lam, double[] phi, int srcOffset,
+            double[] x, double[] y, int dstOffset, int numPoints) {
+        if (!spherical) {
+            super.projectBatch(lam, phi, srcOffset, x, y, dstOffset, numPoints);
+            return;
+        }
+        final double k = scaleFactor;
+        for (int i = 0; i < numPoints; i++) {
+            x[dstOffset + i] = k * lam[srcOffset + i];
+        }
+        for (int i = 0; i < numPoints; i++) {
+            y[dstOffset + i] = Math.sin(phi[srcOffset + i]) / k;
+        }
+    }
+
     @Override
     public Point2D.Double projectInverse(double x, double y, Point2D.Double lp) {
         if (spherical) {
@@ -102,6 +133,11 @@ public class CylindricalEqualAreaProjection extends CylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public boolean isEqualArea() {
         return true;
@@ -40,6 +40,22 @@ public class DenoyerProjection extends PseudoCylindricalProjection {
         return out;
     }
 
+    @Override
+    public Point2D.Double projectInverse(double x, double y, Point2D.Double lp) {
+        newtonInverse(x, y, lp);
+        return lp;
+    }
+
+    @Override
+    public boolean hasInverse() {
+        return true;
+    }
+
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Denoyer Semi-elliptical";
     }
@@ -46,6 +46,11 @@ public class Eckert1Projection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Eckert I";
     }
@@ -56,6 +56,11 @@ public class Eckert2Projection extends PseudoCylindricalProjection {
 		return true;
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Eckert II";
 	}
@@ -35,6 +35,11 @@ public class Eckert3Projection extends EllipticalPseudoCylindrical{
                 0.4052847345693510857755);
     }
     
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Eckert III";
     }
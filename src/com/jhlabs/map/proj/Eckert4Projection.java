@@ -73,6 +73,11 @@ public class Eckert4Projection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Eckert IV";
     }
@@ -47,6 +47,11 @@ public class Eckert5Projection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Eckert V";
     }
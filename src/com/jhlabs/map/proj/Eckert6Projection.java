@@ -58,6 +58,11 @@ public class Eckert6Projection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public boolean isEqualArea() {
         return true;
     }
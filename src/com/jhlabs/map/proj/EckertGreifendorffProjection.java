@@ -71,6 +71,22 @@ public class EckertGreifendorffProjection extends Projection {
         return m;
     }
 
+    @Override
+    public Point2D.Double projectInverse(double x, double y, Point2D.Double lp) {
+        newtonInverse(x, y, lp);
+        return lp;
+    }
+
+    @Override
+    public boolean hasInverse() {
+        return true;
+    }
+
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Eckert-Greifendorff";
     }
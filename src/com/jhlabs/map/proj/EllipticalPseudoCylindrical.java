@@ -56,12 +56,58 @@ public abstract class EllipticalPseudoCylindrical extends PseudoCylindricalProje
     
     public Point2D.Double projectInverse(double x, double y, Point2D.Double dst) {
         dst.y = y / C_y;
-	dst.x = x / (C_x * (A + this.asqrt(1. - B * y * y)));
+	dst.x = x / (C_x * (A + this.asqrt(1. - B * dst.y * dst.y)));
         return dst;
     }
     
     private double asqrt(double v) {
         return ((v <= 0) ? 0. : Math.sqrt(v));
     }
+
+    @Override
+    protected void projectBatch(double[] src, int srcOffset, double[] dst, int dstOffset, int numPoints) {
+        final int end = srcOffset + 2 * numPoints;
+        for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+            final double lam = src[i];
+            final double phi = src[i + 1];
+            dst[j] = C_x * lam * (A + asqrt(1. - B * phi * phi));
+            dst[j + 1] = C_y * phi;
+        }
+    }
+
+    @Override
+    protected void projectBatch(double[] lam, double[] phi, int srcOffset,
+            double[] x, double[] y, int dstOffset, int numPoints) {
+        for (int i = 0; i < numPoints; i++) {
+            final double p = phi[srcOffset + i];
+            x[dstOffset + i] = C_x * lam[srcOffset + i] * (A + asqrt(1. - B * p * p));
+        }
+        for (int i = 0; i < numPoints; i++) {
+            y[dstOffset + i] = C_y * phi[srcOffset + i];
+        }
+    }
+
+    @Override
+    protected void projectInverseBatch(double[] src, int srcOffset, double[] dst, int dstOffset, int numPoints) {
+        final int end = srcOffset + 2 * numPoints;
+        for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+            final double x = src[i];
+            final double phi = src[i + 1] / C_y;
+            dst[j] = x / (C_x * (A + asqrt(1. - B * phi * phi)));
+            dst[j + 1] = phi;
+        }
+    }
+
+    @Override
+    protected void projectInverseBatch(double[] x, double[] y, int srcOffset,
+            double[] lam, double[] phi, int dstOffset, int numPoints) {
+        for (int i = 0; i < numPoints; i++) {
+            final double p = y[srcOffset + i] / C_y;
+            lam[dstOffset + i] = x[srcOffset + i] / (C_x * (A + asqrt(1. - B * p * p)));
+        }
+        for (int i = 0; i < numPoints; i++) {
+            phi[dstOffset + i] = y[srcOffset + i] / C_y;
+        }
+    }
     
 }
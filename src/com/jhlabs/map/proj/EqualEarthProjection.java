@@ -86,6 +86,11 @@ public class EqualEarthProjection extends PseudoCylindricalProjection {
     public boolean hasInverse() {
         return true;
     }
+
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
     
     @Override
     public boolean isEqualArea() {
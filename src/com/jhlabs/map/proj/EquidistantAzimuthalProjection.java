@@ -243,6 +243,11 @@ public class EquidistantAzimuthalProjection extends AzimuthalProjection {
 		return true;
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Equidistant Azimuthal";
 	}
@@ -192,6 +192,11 @@ public class EquidistantConicProjection extends ConicProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return "Equidistant Conic";
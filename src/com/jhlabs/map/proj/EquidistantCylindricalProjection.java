@@ -43,6 +43,50 @@ public class EquidistantCylindricalProjection extends CylindricalProjection {
         return lp;
     }
 
+    @Override
+    protected void projectBatch(double[] src, int srcOffset, double[] dst, int dstOffset, int numPoints) {
+        final double k = cosTrueScaleLatitude;
+        final int end = srcOffset + 2 * numPoints;
+        for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+            dst[j] = src[i] * k;
+            dst[j + 1] = src[i + 1];
+        }
+    }
+
+    @Override
+    protected void projectInverseBatch(double[] src, int srcOffset, double[] dst, int dstOffset, int numPoints) {
+        final double k = cosTrueScaleLatitude;
+        final int end = srcOffset + 2 * numPoints;
+        for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+            dst[j] = src[i] / k;
+            dst[j + 1] = src[i + 1];
+        }
+    }
+
+    @Override
+    protected void projectBatch(double[] lam, double[] phi, int srcOffset,
+            double[] x, double[] y, int dstOffset, int numPoints) {
+        final double k = cosTrueScaleLatitude;
+        for (int i = 0; i < numPoints; i++) {
+            x[dstOffset + i] = lam[srcOffset + i] * k;
+        }
+        if (phi != y || srcOffset != dstOffset) {
+            System.arraycopy(phi, srcOffset, y, dstOffset, numPoints);
+        }
+    }
+
+    @Override
+    protected void projectInverseBatch(double[] x, double[] y, int srcOffset,
+            double[] lam, double[] phi, int dstOffset, int numPoints) {
+        final double k = cosTrueScaleLatitude;
+        for (int i = 0; i < numPoints; i++) {
+            lam[dstOffset + i] = x[srcOffset + i] / k;
+        }
+        if (y != phi || srcOffset != dstOffset) {
+            System.arraycopy(y, srcOffset, phi, dstOffset, numPoints);
+        }
+    }
+
     @Override
     public void initialize() {
         super.initialize();
@@ -55,6 +99,11 @@ public class EquidistantCylindricalProjection extends CylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return "Equirectangular";
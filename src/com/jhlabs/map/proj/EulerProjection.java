@@ -80,6 +80,11 @@ public class EulerProjection extends ConicProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Euler";
     }
@@ -52,6 +52,11 @@ public class FaheyProjection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Fahey";
     }
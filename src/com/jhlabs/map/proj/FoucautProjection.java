@@ -32,6 +32,11 @@ public class FoucautProjection extends STSProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Foucaut";
     }
@@ -84,6 +84,11 @@ public class FoucautSinusoidalProjection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public boolean isEqualArea() {
         return true;
     }
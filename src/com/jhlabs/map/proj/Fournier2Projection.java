@@ -47,6 +47,11 @@ public class Fournier2Projection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Fournier II";
     }
@@ -12,6 +12,11 @@ public class GallPetersProjection extends CylindricalEqualAreaProjection {
         super(0, 0, Math.PI / 4);
     }
     
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return "Gall-Peters";
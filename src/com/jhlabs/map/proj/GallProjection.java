@@ -48,6 +48,11 @@ public class GallProjection extends CylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Gall (Gall Stereographic)";
     }
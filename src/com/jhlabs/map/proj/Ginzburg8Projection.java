@@ -41,6 +41,34 @@ public class Ginzburg8Projection extends PseudoCylindricalProjection {
         return out;
     }
 
+    @Override
+    protected boolean partialDerivatives(double lplam, double lpphi,
+            Point2D.Double dLam, Point2D.Double dPhi) {
+        double p2 = lpphi * lpphi;
+        double l4 = lplam * lplam * lplam * lplam;
+        dLam.x = (1. - Cp * p2) * (0.87 - 5. * Cl * l4);
+        dLam.y = 0;
+        dPhi.x = -2. * Cp * lpphi * lplam * (0.87 - Cl * l4);
+        dPhi.y = 1. + 3. * C12 * p2;
+        return true;
+    }
+
+    @Override
+    public Point2D.Double projectInverse(double x, double y, Point2D.Double lp) {
+        newtonInverse(x, y, lp);
+        return lp;
+    }
+
+    @Override
+    public boolean hasInverse() {
+        return true;
+    }
+
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Ginzburg VIII (TsNIIGAiK 1944)";
     }
@@ -127,6 +127,21 @@ public class GnomonicAzimuthalProjection extends AzimuthalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
+    @Override
+    public boolean meridiansAreStraight() {
+        return true;
+    }
+
+    @Override
+    public boolean greatCirclesAreStraight() {
+        return true;
+    }
+
     public String toString() {
         return "Gnomonic Azimuthal";
     }
@@ -56,6 +56,11 @@ public class GoodeProjection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Goode Homolosine";
     }
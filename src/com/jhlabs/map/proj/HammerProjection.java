@@ -68,6 +68,16 @@ public class HammerProjection extends Projection {
         return true;
     }
 
+    @Override
+    public boolean hasInverse() {
+        return true;
+    }
+
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return "Hammer";
@@ -89,6 +89,11 @@ public class HatanoProjection extends Projection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public boolean isEqualArea() {
         return true;
     }
@@ -279,6 +279,11 @@ public class HufnagelProjection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public boolean isEqualArea() {
         return true;
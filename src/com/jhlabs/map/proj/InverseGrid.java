@@ -0,0 +1,283 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import java.awt.geom.Point2D;
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A lookup table for the inverse of projections without a closed-form
+ * inverse. The table covers the bounding box of the projected graticule with
+ * a regular grid. Each node stores the longitude and latitude that project
+ * onto it. An inverse projection interpolates bilinearly between the four
+ * nodes around a point and then polishes the result with one or two Newton
+ * steps until the tolerance is reached.
+ *
+ * A grid only depends on the shape of the projection on the unary sphere, so
+ * it can be shared by projections with different ellipsoid radii, false
+ * origins and units. Grids are immutable and serializable, and grids created
+ * with getInstance() are cached.
+ *
+ * Usage: projection.setInverseGrid(InverseGrid.getInstance(projection, 512,
+ * 256)). Projections using Projection.newtonInverse() then use the grid.
+ */
+public final class InverseGrid implements Serializable {
+
+    /**
+     * Default tolerance in projected coordinates on the unary sphere.
+     */
+    public final static double DEFAULT_TOLERANCE = 1e-10;
+    /**
+     * Default maximum number of Newton steps after interpolation.
+     */
+    public final static int DEFAULT_REFINEMENTS = 2;
+
+    /**
+     * Maximum number of grids kept by getInstance().
+     */
+    public final static int CACHE_CAPACITY = 16;
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Grids created by getInstance() in the order of access. Access must be
+     * synchronized on the map.
+     */
+    private final static LinkedHashMap<String, InverseGrid> cache
+            = new LinkedHashMap<String, InverseGrid>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, InverseGrid> eldest) {
+            return size() > CACHE_CAPACITY;
+        }
+    };
+
+    private final String fingerprint;
+    private final int cols;
+    private final int rows;
+    private final double west;
+    private final double south;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final double[] lon;
+    private final double[] lat;
+    private final double tolerance;
+    private final int refinements;
+
+    /**
+     * Returns a cached grid for a projection, creating the grid if necessary.
+     * At most CACHE_CAPACITY grids are cached; the least recently used grid
+     * is removed first. Grids are created outside of the lock, so creating a
+     * grid does not block requests for other grids. Two threads missing the
+     * same grid at the same time may both create it; only one is stored.
+     *
+     * @param projection An initialized projection.
+     * @param cols Number of grid columns, at least 2.
+     * @param rows Number of grid rows, at least 2.
+     * @return The grid.
+     */
+    public static InverseGrid getInstance(Projection projection, int cols, int rows) {
+        final String key = projection.getShapeFingerprint() + " " + cols + "x" + rows;
+        InverseGrid grid;
+        synchronized (cache) {
+            grid = cache.get(key);
+        }
+        if (grid != null) {
+            return grid;
+        }
+        grid = new InverseGrid(projection, cols, rows, DEFAULT_TOLERANCE, DEFAULT_REFINEMENTS);
+        synchronized (cache) {
+            InverseGrid existing = cache.putIfAbsent(key, grid);
+            return existing == null ? grid : existing;
+        }
+    }
+
+    /**
+     * Removes all grids from the cache.
+     */
+    public static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Creates a grid with the default tolerance and number of refinements.
+     *
+     * @param projection An initialized projection.
+     * @param cols Number of grid columns, at least 2.
+     * @param rows Number of grid rows, at least 2.
+     */
+    public InverseGrid(Projection projection, int cols, int rows) {
+        this(projection, cols, rows, DEFAULT_TOLERANCE, DEFAULT_REFINEMENTS);
+    }
+
+    /**
+     * Creates a grid. The forward projection is sampled over the bounds of
+     * the projection to find the extent of the grid; each grid node is then
+     * inverted with Newton's method.
+     *
+     * @param projection An initialized projection.
+     * @param cols Number of grid columns, at least 2.
+     * @param rows Number of grid rows, at least 2.
+     * @param tolerance Tolerance in projected coordinates on the unary sphere.
+     * @param refinements Maximum number of Newton steps after interpolation.
+     */
+    public InverseGrid(Projection projection, int cols, int rows,
+            double tolerance, int refinements) {
+        if (cols < 2 || rows < 2) {
+            throw new IllegalArgumentException("grid needs at least 2x2 nodes");
+        }
+        this.fingerprint = projection.getShapeFingerprint();
+        this.cols = cols;
+        this.rows = rows;
+        this.tolerance = tolerance;
+        this.refinements = refinements;
+
+        // extent of the projected graticule
+        final double minLon = projection.getMinLongitude();
+        final double maxLon = projection.getMaxLongitude();
+        final double minLat = projection.getMinLatitude();
+        final double maxLat = projection.getMaxLatitude();
+        double xMin = Double.MAX_VALUE, xMax = -Double.MAX_VALUE;
+        double yMin = Double.MAX_VALUE, yMax = -Double.MAX_VALUE;
+        Point2D.Double pt = new Point2D.Double();
+        for (int r = 0; r < rows; r++) {
+            double phi = minLat + (maxLat - minLat) * r / (rows - 1);
+            for (int c = 0; c < cols; c++) {
+                double lam = minLon + (maxLon - minLon) * c / (cols - 1);
+                projection.project(lam, phi, pt);
+                if (Double.isNaN(pt.x) || Double.isNaN(pt.y)
+                        || Double.isInfinite(pt.x) || Double.isInfinite(pt.y)) {
+                    continue;
+                }
+                xMin = Math.min(xMin, pt.x);
+                xMax = Math.max(xMax, pt.x);
+                yMin = Math.min(yMin, pt.y);
+                yMax = Math.max(yMax, pt.y);
+            }
+        }
+        if (xMin > xMax || yMin > yMax) {
+            throw new ProjectionException("cannot sample projection");
+        }
+        this.west = xMin;
+        this.south = yMin;
+        this.cellWidth = (xMax - xMin) / (cols - 1);
+        this.cellHeight = (yMax - yMin) / (rows - 1);
+
+        // invert grid nodes, using the previous node as first approximation
+        this.lon = new double[cols * rows];
+        this.lat = new double[cols * rows];
+        for (int r = 0; r < rows; r++) {
+            double y = south + r * cellHeight;
+            double guessLon = minLon;
+            double guessLat = Math.max(minLat, Math.min(maxLat, y));
+            for (int c = 0; c < cols; c++) {
+                double x = west + c * cellWidth;
+                int i = r * cols + c;
+                if (projection.newtonInverse(x, y, guessLon, guessLat, pt) < 0) {
+                    // start again from the default approximation
+                    guessLon = Projection.newtonGuessLongitude(x);
+                    guessLat = Projection.newtonGuessLatitude(y);
+                    projection.newtonInverse(x, y, guessLon, guessLat, pt);
+                }
+                lon[i] = pt.x;
+                lat[i] = pt.y;
+                if (!Double.isNaN(pt.x)) {
+                    guessLon = pt.x;
+                    guessLat = pt.y;
+                }
+            }
+        }
+    }
+
+    /**
+     * Inverse-project a point by interpolating in the grid and applying up to
+     * the configured number of Newton steps. If the steps do not reach the
+     * tolerance, the full Newton iteration continues from the interpolated
+     * approximation.
+     *
+     * @param projection The projection this grid was created for.
+     * @param x The projected x coordinate relative to the unary sphere.
+     * @param y The projected y coordinate relative to the unary sphere.
+     * @param lp A point that will receive the longitude and latitude in
+     * radians.
+     * @return The number of Newton iterations, or -1 if the point could not be
+     * inverted.
+     */
+    public int projectInverse(Projection projection, double x, double y, Point2D.Double lp) {
+        double u = (x - west) / cellWidth;
+        double v = (y - south) / cellHeight;
+        if (!(u >= 0 && v >= 0 && u <= cols - 1 && v <= rows - 1)) {
+            // outside of the bounding box of the graticule
+            lp.x = Double.NaN;
+            lp.y = Double.NaN;
+            return -1;
+        }
+        int c = Math.min((int) u, cols - 2);
+        int r = Math.min((int) v, rows - 2);
+        u -= c;
+        v -= r;
+        int i = r * cols + c;
+        double guessLon = interpolate(lon, i, u, v);
+        double guessLat = interpolate(lat, i, u, v);
+        if (Double.isNaN(guessLon) || Double.isNaN(guessLat)) {
+            // near the outline some nodes are outside of the graticule
+            int nearest = i + (u < 0.5 ? 0 : 1) + (v < 0.5 ? 0 : cols);
+            guessLon = lon[nearest];
+            guessLat = lat[nearest];
+            if (Double.isNaN(guessLon)) {
+                guessLon = Projection.newtonGuessLongitude(x);
+                guessLat = Projection.newtonGuessLatitude(y);
+            }
+        }
+        int n = projection.newtonInverse(x, y, guessLon, guessLat, tolerance, refinements + 1, lp);
+        if (n < 0) {
+            n = projection.newtonInverse(x, y, guessLon, guessLat, lp);
+        }
+        return n;
+    }
+
+    private double interpolate(double[] table, int i, double u, double v) {
+        double bottom = table[i] + u * (table[i + 1] - table[i]);
+        double top = table[i + cols] + u * (table[i + cols + 1] - table[i + cols]);
+        return bottom + v * (top - bottom);
+    }
+
+    /**
+     * Returns true if this grid can be used to invert a projection.
+     */
+    public boolean matches(Projection projection) {
+        return fingerprint.equals(projection.getShapeFingerprint());
+    }
+
+    public int getColumns() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public int getRefinements() {
+        return refinements;
+    }
+}
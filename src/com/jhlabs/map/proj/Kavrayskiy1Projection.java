@@ -47,6 +47,29 @@ public class Kavrayskiy1Projection extends CylindricalProjection {
         return out;
     }
 
+    @Override
+    public Point2D.Double projectInverse(double x, double y, Point2D.Double lp) {
+        lp.x = x;
+        if (y > DY) {
+            lp.y = (y - DY) / C + MERCATOR_MAX_LAT;
+        } else if (y < -DY) {
+            lp.y = (y + DY) / C - MERCATOR_MAX_LAT;
+        } else {
+            lp.y = 2. * Math.atan(Math.exp(y)) - MapMath.HALFPI;
+        }
+        return lp;
+    }
+
+    @Override
+    public boolean hasInverse() {
+        return true;
+    }
+
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return "Kavrayskiy I";
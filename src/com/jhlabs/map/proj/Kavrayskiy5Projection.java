@@ -37,6 +37,11 @@ public class Kavrayskiy5Projection extends STSProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Kavrayskiy V";
     }
@@ -34,6 +34,11 @@ public class Kavrayskiy7Projection extends EllipticalPseudoCylindrical {
                 3. / Math.PI / Math.PI);
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Kavrayskiy VII";
     }
@@ -86,6 +86,11 @@ public class LagrangeProjection extends Projection {
         return false;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Lagrange";
     }
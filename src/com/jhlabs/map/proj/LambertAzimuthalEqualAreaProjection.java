@@ -67,6 +67,19 @@ public class LambertAzimuthalEqualAreaProjection extends AzimuthalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
+    /**
+     * This projection always uses the equatorial aspect.
+     */
+    @Override
+    public boolean meridiansAreStraight() {
+        return false;
+    }
+
     @Override
     public String toString() {
         return "Lambert Azimuthal Equal Area";
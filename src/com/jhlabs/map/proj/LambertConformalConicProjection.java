@@ -139,6 +139,11 @@ public class LambertConformalConicProjection extends ConicProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Lambert Conformal Conic";
     }
@@ -36,6 +36,11 @@ public class LambertEqualAreaConicProjection extends AlbersProjection {
         initialize();
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Lambert Equal Area Conic";
     }
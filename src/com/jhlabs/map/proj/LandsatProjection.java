@@ -203,6 +203,11 @@ path = 120;
 		return true;
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Landsat";
 	}
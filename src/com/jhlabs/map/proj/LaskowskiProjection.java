@@ -45,6 +45,37 @@ public class LaskowskiProjection extends Projection {
 		return out;
 	}
 
+	@Override
+	protected boolean partialDerivatives(double lplam, double lpphi,
+			Point2D.Double dLam, Point2D.Double dPhi) {
+		double l2, p2;
+
+		l2 = lplam * lplam;
+		p2 = lpphi * lpphi;
+		dLam.x = a10 + p2 * (a12 + 3. * l2 * a32 + p2 * a14);
+		dLam.y = 2. * lplam * lpphi * (b21 + p2 * b23 + 2. * l2 * b41);
+		dPhi.x = 2. * lplam * lpphi * (a12 + l2 * a32 + 2. * p2 * a14);
+		dPhi.y = b01 + l2 * (b21 + 3. * p2 * b23 + l2 * b41) +
+			p2 * (3. * b03 + 5. * p2 * b05);
+		return true;
+	}
+
+	@Override
+	public Point2D.Double projectInverse(double x, double y, Point2D.Double lp) {
+		newtonInverse(x, y, lp);
+		return lp;
+	}
+
+	@Override
+	public boolean hasInverse() {
+		return true;
+	}
+
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Laskowski";
 	}
@@ -18,6 +18,13 @@ package com.jhlabs.map.proj;
 
 import java.awt.geom.Point2D;
 
+/**
+ * A projection which passes coordinates through unchanged, in degrees as well
+ * as in radians. The scale, the false origin and the central meridian are not
+ * applied. The final methods transform(double, double, Point2D.Double) and
+ * transformRadians(double, double, Point2D.Double) cannot be overridden and
+ * are not identities.
+ */
 public class LinearProjection extends Projection {
 	
 	public Point2D.Double transform(Point2D.Double src, Point2D.Double dst) {
@@ -33,6 +40,29 @@ public class LinearProjection extends Projection {
 		}
 	}
 
+	@Override
+	public void transform(double[] lon, double[] lat, int srcOffset,
+			double[] x, double[] y, int dstOffset, int numPoints) {
+		System.arraycopy(lon, srcOffset, x, dstOffset, numPoints);
+		System.arraycopy(lat, srcOffset, y, dstOffset, numPoints);
+	}
+
+	@Override
+	public Point2D.Double transformRadians(Point2D.Double src, Point2D.Double dst) {
+		return transform(src, dst);
+	}
+
+	@Override
+	public void transformRadians(double[] srcPoints, int srcOffset, double[] dstPoints, int dstOffset, int numPoints) {
+		transform(srcPoints, srcOffset, dstPoints, dstOffset, numPoints);
+	}
+
+	@Override
+	public void transformRadians(double[] lon, double[] lat, int srcOffset,
+			double[] x, double[] y, int dstOffset, int numPoints) {
+		transform(lon, lat, srcOffset, x, y, dstOffset, numPoints);
+	}
+
 	public Point2D.Double inverseTransform(Point2D.Double src, Point2D.Double dst) {
 		dst.x = src.x;
 		dst.y = src.y;
@@ -46,10 +76,44 @@ public class LinearProjection extends Projection {
 		}
 	}
 
+	@Override
+	public void inverseTransform(double[] x, double[] y, int srcOffset,
+			double[] lon, double[] lat, int dstOffset, int numPoints) {
+		System.arraycopy(x, srcOffset, lon, dstOffset, numPoints);
+		System.arraycopy(y, srcOffset, lat, dstOffset, numPoints);
+	}
+
+	@Override
+	public Point2D.Double inverseTransformRadians(Point2D.Double src, Point2D.Double dst) {
+		return inverseTransform(src, dst);
+	}
+
+	@Override
+	public void inverseTransformRadians(double srcX, double srcY, Point2D.Double dst) {
+		dst.x = srcX;
+		dst.y = srcY;
+	}
+
+	@Override
+	public void inverseTransformRadians(double[] srcPoints, int srcOffset, double[] dstPoints, int dstOffset, int numPoints) {
+		inverseTransform(srcPoints, srcOffset, dstPoints, dstOffset, numPoints);
+	}
+
+	@Override
+	public void inverseTransformRadians(double[] x, double[] y, int srcOffset,
+			double[] lon, double[] lat, int dstOffset, int numPoints) {
+		inverseTransform(x, y, srcOffset, lon, lat, dstOffset, numPoints);
+	}
+
 	public boolean hasInverse() {
 		return true;
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public boolean isRectilinear() {
 		return true;
 	}
@@ -81,6 +81,11 @@ public class LoximuthalProjection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Loximuthal";
     }
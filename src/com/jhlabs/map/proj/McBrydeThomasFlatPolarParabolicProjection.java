@@ -72,6 +72,11 @@ public class McBrydeThomasFlatPolarParabolicProjection extends PseudoCylindrical
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public boolean isEqualArea() {
         return true;
     }
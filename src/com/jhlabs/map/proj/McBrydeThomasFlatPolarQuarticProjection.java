@@ -92,6 +92,11 @@ public class McBrydeThomasFlatPolarQuarticProjection extends PseudoCylindricalPr
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public boolean isEqualArea() {
         return true;
     }
@@ -70,6 +70,11 @@ public class McBrydeThomasFlatPolarSine2Projection extends PseudoCylindricalProj
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public boolean isEqualArea() {
         return true; // FIXME verify if correct.
     }
@@ -28,6 +28,11 @@ public class McBrydeThomasSine1Projection extends STSProjection {
 		super( 1.48875, 1.36509, false );
 	}
 	
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "McBryde-Thomas Sine (No. 1)";
 	}
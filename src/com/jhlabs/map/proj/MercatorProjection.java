@@ -61,10 +61,84 @@ public class MercatorProjection extends CylindricalProjection {
         return out;
     }
 
+    @Override
+    protected void projectBatch(double[] src, int srcOffset, double[] dst, int dstOffset, int numPoints) {
+        final double k = scaleFactor;
+        final int end = srcOffset + 2 * numPoints;
+        if (spherical) {
+            final double minPhi = minLatitude;
+            final double maxPhi = maxLatitude;
+            for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+                double phi = src[i + 1];
+                if (phi > maxPhi) {
+                    phi = maxPhi;
+                } else if (phi < minPhi) {
+                    phi = minPhi;
+                }
+                dst[j] = k * src[i];
+                dst[j + 1] = k * Math.log(Math.tan(MapMath.QUARTERPI + 0.5 * phi));
+            }
+        } else {
+            for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+                final double phi = src[i + 1];
+                dst[j] = k * src[i];
+                dst[j + 1] = -k * Math.log(MapMath.tsfn(phi, Math.sin(phi), e));
+            }
+        }
+    }
+
+    @Override
+    protected void projectBatch(double[] lam, double[] phi, int srcOffset,
+            double[] x, double[] y, int dstOffset, int numPoints) {
+        if (!spherical) {
+            super.projectBatch(lam, phi, srcOffset, x, y, dstOffset, numPoints);
+            return;
+        }
+        final double k = scaleFactor;
+        final double minPhi = minLatitude;
+        final double maxPhi = maxLatitude;
+        for (int i = 0; i < numPoints; i++) {
+            x[dstOffset + i] = k * lam[srcOffset + i];
+        }
+        for (int i = 0; i < numPoints; i++) {
+            double p = phi[srcOffset + i];
+            if (p > maxPhi) {
+                p = maxPhi;
+            } else if (p < minPhi) {
+                p = minPhi;
+            }
+            y[dstOffset + i] = k * Math.log(Math.tan(MapMath.QUARTERPI + 0.5 * p));
+        }
+    }
+
+    @Override
+    protected void projectInverseBatch(double[] src, int srcOffset, double[] dst, int dstOffset, int numPoints) {
+        final double k = scaleFactor;
+        final int end = srcOffset + 2 * numPoints;
+        if (spherical) {
+            for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+                final double y = src[i + 1];
+                dst[j] = src[i] / k;
+                dst[j + 1] = MapMath.HALFPI - 2. * Math.atan(Math.exp(-y / k));
+            }
+        } else {
+            for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+                final double y = src[i + 1];
+                dst[j] = src[i] / k;
+                dst[j + 1] = MapMath.phi2(Math.exp(-y / k), e);
+            }
+        }
+    }
+
     public boolean hasInverse() {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public boolean isConformal() {
         return true;
     }
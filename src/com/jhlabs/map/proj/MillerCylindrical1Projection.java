@@ -48,6 +48,11 @@ public class MillerCylindrical1Projection extends CylindricalProjection {
 		return true;
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Miller Cylindrical I";
 	}
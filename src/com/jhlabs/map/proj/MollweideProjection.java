@@ -116,6 +116,11 @@ public class MollweideProjection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public boolean isEqualArea() {
         return type == WAGNER4 || type == MOLLWEIDE;
     }
@@ -25,6 +25,11 @@ public class Murdoch1Projection extends SimpleConicProjection {
 		super( SimpleConicProjection.MURD1 );
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Murdoch I";
 	}
@@ -25,6 +25,11 @@ public class Murdoch2Projection extends SimpleConicProjection {
 		super( SimpleConicProjection.MURD2 );
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Murdoch II";
 	}
@@ -25,6 +25,11 @@ public class Murdoch3Projection extends SimpleConicProjection {
 		super( SimpleConicProjection.MURD3 );
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Murdoch III";
 	}
@@ -93,6 +93,11 @@ public class NZMGProjection extends Projection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "New Zealand Map Grid";
     }
@@ -0,0 +1,106 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import java.util.Map;
+
+/**
+ * An immutable hash table with String keys that can be searched with a range
+ * of characters in a CharSequence, so that no String has to be created for a
+ * lookup. Keys are case-sensitive.
+ */
+final class NameTable<V> {
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int mask;
+
+    /**
+     * Creates a table with the entries of a map.
+     */
+    NameTable(Map<String, ? extends V> map) {
+        int capacity = 4;
+        while (capacity < map.size() * 2) {
+            capacity <<= 1;
+        }
+        keys = new String[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        for (Map.Entry<String, ? extends V> e : map.entrySet()) {
+            int i = spread(e.getKey().hashCode()) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = e.getKey();
+            values[i] = e.getValue();
+        }
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the index of a key, or -1 if the table does not contain the key.
+     *
+     * @param s The characters.
+     * @param start The index of the first character of the key.
+     * @param end The index after the last character of the key.
+     */
+    int indexOf(CharSequence s, int start, int end) {
+        // same hash as String.hashCode()
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        final int length = end - start;
+        for (int i = spread(h) & mask;; i = (i + 1) & mask) {
+            final String key = keys[i];
+            if (key == null) {
+                return -1;
+            }
+            if (key.length() == length && regionMatches(key, s, start)) {
+                return i;
+            }
+        }
+    }
+
+    private static boolean regionMatches(String key, CharSequence s, int start) {
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != s.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the value of a key, or null.
+     */
+    V get(CharSequence s, int start, int end) {
+        final int i = indexOf(s, start, end);
+        return i < 0 ? null : valueAt(i);
+    }
+
+    String keyAt(int index) {
+        return keys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    V valueAt(int index) {
+        return (V) values[index];
+    }
+}
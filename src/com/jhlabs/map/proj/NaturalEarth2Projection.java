@@ -62,6 +62,11 @@ public class NaturalEarth2Projection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public Point2D.Double projectInverse(double x, double y, Point2D.Double lp) {
 
@@ -66,11 +66,46 @@ public class NaturalEarthProjection extends PseudoCylindricalProjection {
         return out;
     }
 
+    @Override
+    protected void projectBatch(double[] src, int srcOffset, double[] dst, int dstOffset, int numPoints) {
+        final int end = srcOffset + 2 * numPoints;
+        for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+            final double lplam = src[i];
+            final double lpphi = src[i + 1];
+            final double phi2 = lpphi * lpphi;
+            final double phi4 = phi2 * phi2;
+            dst[j] = lplam * (A0 + phi2 * (A1 + phi2 * (A2 + phi4 * phi2 * (A3 + phi2 * A4))));
+            dst[j + 1] = lpphi * (B0 + phi2 * (B1 + phi4 * (B2 + B3 * phi2 + B4 * phi4)));
+        }
+    }
+
+    @Override
+    protected void projectBatch(double[] lam, double[] phi, int srcOffset,
+            double[] x, double[] y, int dstOffset, int numPoints) {
+        for (int i = 0; i < numPoints; i++) {
+            final double lpphi = phi[srcOffset + i];
+            final double phi2 = lpphi * lpphi;
+            final double phi4 = phi2 * phi2;
+            x[dstOffset + i] = lam[srcOffset + i] * (A0 + phi2 * (A1 + phi2 * (A2 + phi4 * phi2 * (A3 + phi2 * A4))));
+        }
+        for (int i = 0; i < numPoints; i++) {
+            final double lpphi = phi[srcOffset + i];
+            final double phi2 = lpphi * lpphi;
+            final double phi4 = phi2 * phi2;
+            y[dstOffset + i] = lpphi * (B0 + phi2 * (B1 + phi4 * (B2 + B3 * phi2 + B4 * phi4)));
+        }
+    }
+
     @Override
     public boolean hasInverse() {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public Point2D.Double projectInverse(double x, double y, Point2D.Double lp) {
      
@@ -70,6 +70,11 @@ public class NellHammerProjection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Nell-Hammer";
     }
@@ -81,6 +81,11 @@ public class NicolosiProjection extends Projection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Nicolosi Globular";
     }
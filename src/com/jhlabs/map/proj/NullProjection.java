@@ -29,6 +29,17 @@ public class NullProjection extends Projection {
 		dst.y = src.y;
 		return dst;
 	}
+
+	public void transform(double[] srcPoints, int srcOffset, double[] dstPoints, int dstOffset, int numPoints) {
+		System.arraycopy(srcPoints, srcOffset, dstPoints, dstOffset, 2 * numPoints);
+	}
+
+	@Override
+	public void transform(double[] lon, double[] lat, int srcOffset,
+			double[] x, double[] y, int dstOffset, int numPoints) {
+		System.arraycopy(lon, srcOffset, x, dstOffset, numPoints);
+		System.arraycopy(lat, srcOffset, y, dstOffset, numPoints);
+	}
 	
 	public Shape getBoundingShape() {
 		return null;
@@ -60,6 +60,31 @@ public class ObliqueMercatorProjection extends CylindricalProjection {
         initialize();
     }
 
+    /**
+     * Set the azimuth of the central line at the projection centre in degrees
+     * east of north (PROJ.4 parameter alpha).
+     */
+    public void setAlphaDegrees(double alpha) {
+        this.alpha = Math.toRadians(alpha);
+    }
+
+    public double getAlphaDegrees() {
+        return Math.toDegrees(alpha);
+    }
+
+    /**
+     * Set the longitude of the projection centre in degrees (PROJ.4
+     * parameter lonc). The projection longitude is computed from this
+     * longitude by initialize().
+     */
+    public void setCenterLongitudeDegrees(double lonc) {
+        lamc = Math.toRadians(lonc);
+    }
+
+    public double getCenterLongitudeDegrees() {
+        return Math.toDegrees(lamc);
+    }
+
     public void initialize() {
         super.initialize();
         double con, com, cosphi0, d, f, h, l, sinphi0, p, j;
@@ -71,7 +96,7 @@ public class ObliqueMercatorProjection extends CylindricalProjection {
         if (azi != 0) {//alpha specified
             if (Math.abs(alpha) <= TOL
                     || Math.abs(Math.abs(projectionLatitude) - MapMath.HALFPI) <= TOL
-                    || Math.abs(Math.abs(alpha) - MapMath.HALFPI) <= TOL) {
+                    || Math.abs(Math.abs(alpha) - Math.PI) <= TOL) {
                 throw new ProjectionException("Obl 1");
             }
         } else {
@@ -177,7 +202,7 @@ public class ObliqueMercatorProjection extends CylindricalProjection {
                     us += Math.PI * al / bl;
                 }
             } else {
-                us = al * bl * lam;
+                us = al * lam;
             }
         }
         if (Math.abs(Math.abs(ul) - 1.) <= EPS10) {
@@ -230,6 +255,16 @@ public class ObliqueMercatorProjection extends CylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
+    @Override
+    public boolean isRectilinear() {
+        return false;
+    }
+
     public String toString() {
         return "Oblique Mercator";
     }
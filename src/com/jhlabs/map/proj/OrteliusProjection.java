@@ -65,6 +65,11 @@ public class OrteliusProjection extends Projection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Ortelius Oval";
     }
@@ -121,6 +121,11 @@ public class OrthographicAzimuthalProjection extends AzimuthalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Orthographic Azimuthal";
     }
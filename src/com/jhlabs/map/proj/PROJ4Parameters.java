@@ -0,0 +1,130 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The parameters of a PROJ.4 definition. Each parameter has a text value and
+ * optionally a pre-parsed number, for example from the binary coordinate
+ * system catalog, so that numbers do not have to be parsed again when a
+ * projection is created.
+ */
+final class PROJ4Parameters {
+
+    /**
+     * Plain decimal numbers, which are converted to the same value as a
+     * number and as an angle in degrees.
+     */
+    private static final Pattern DECIMAL = Pattern.compile("[-+]?(\\d+\\.?\\d*|\\.\\d+)([eE][-+]?\\d+)?");
+
+    private final LinkedHashMap<String, String> values = new LinkedHashMap<>();
+    private final HashMap<String, Double> numbers = new HashMap<>();
+
+    /**
+     * Creates parameters from a PROJ.4 argument list of the form
+     * "+key=value". An argument "+key" without '=' is a flag, which has a null
+     * value. Arguments that do not start with '+' are ignored. If a key
+     * appears more than once, the last value is used.
+     */
+    static PROJ4Parameters fromArguments(String[] args) {
+        PROJ4Parameters params = new PROJ4Parameters();
+        for (String arg : args) {
+            if (arg.startsWith("+")) {
+                int index = arg.indexOf('=');
+                if (index != -1) {
+                    params.put(arg.substring(1, index), arg.substring(index + 1));
+                } else if (arg.length() > 1) {
+                    params.put(arg.substring(1), null);
+                }
+            }
+        }
+        return params;
+    }
+
+    /**
+     * Returns the parameters as a PROJ.4 argument list.
+     */
+    String[] toArguments() {
+        String[] args = new String[values.size()];
+        int i = 0;
+        for (Map.Entry<String, String> e : values.entrySet()) {
+            args[i++] = e.getValue() == null ? "+" + e.getKey() : "+" + e.getKey() + "=" + e.getValue();
+        }
+        return args;
+    }
+
+    /**
+     * Returns the number of a value that is a plain decimal number, or NaN.
+     */
+    static double parseDecimal(String value) {
+        if (value != null && DECIMAL.matcher(value).matches()) {
+            return Double.parseDouble(value);
+        }
+        return Double.NaN;
+    }
+
+    void put(String key, String value) {
+        values.put(key, value);
+        numbers.remove(key);
+    }
+
+    /**
+     * Sets a parameter with a pre-parsed number.
+     *
+     * @param number The value of the text as a number, or NaN if the text is
+     * not a plain decimal number.
+     */
+    void put(String key, String value, double number) {
+        values.put(key, value);
+        if (Double.isNaN(number)) {
+            numbers.remove(key);
+        } else {
+            numbers.put(key, number);
+        }
+    }
+
+    boolean containsKey(String key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * Returns the text of a parameter, or null if the parameter is a flag or
+     * not set.
+     */
+    String get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Returns the pre-parsed number of a parameter, or NaN.
+     */
+    double getNumber(String key) {
+        Double number = numbers.get(key);
+        return number != null ? number : Double.NaN;
+    }
+
+    /**
+     * Returns the keys in the order they were first set.
+     */
+    Set<String> keys() {
+        return values.keySet();
+    }
+}
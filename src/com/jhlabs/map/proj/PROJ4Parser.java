@@ -0,0 +1,759 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import com.jhlabs.map.Ellipsoid;
+import com.jhlabs.map.FastDoubleParser;
+import com.jhlabs.map.MapMath;
+import com.jhlabs.map.Unit;
+import com.jhlabs.map.Units;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+/**
+ * A parser for PROJ.4 definitions of the form "+proj=tmerc +lat_0=0 ...".
+ * The definition is read in a single pass directly from a CharSequence. Keys,
+ * projection, ellipsoid, datum, unit and prime meridian names are looked up in
+ * hash tables without creating strings, and numbers and angles are converted
+ * without creating intermediate objects. Only the values of init and nadgrids
+ * are copied to strings.
+ *
+ * A parser can be reused for many definitions by calling reset() between
+ * them. If a key appears more than once, the last value is used. Arguments
+ * that do not start with '+' and unknown keys are ignored. A parser must not
+ * be used by more than one thread at a time.
+ */
+final class PROJ4Parser {
+
+    private final static double SIXTH = .1666666666666666667;
+    /* 1/6 */
+    private final static double RA4 = .04722222222222222222;
+    /* 17/360 */
+    private final static double RA6 = .02215608465608465608;
+    /* 67/3024 */
+    private final static double RV4 = .06944444444444444444;
+    /* 5/72 */
+    private final static double RV6 = .04243827160493827160;
+    /* 55/1296 */
+
+    // keys
+    private static final int PROJ = 0, INIT = 1, R = 2, ELLPS = 3, DATUM = 4,
+            A = 5, B = 6, ES = 7, RF = 8, F = 9,
+            R_A = 10, R_V = 11, R_a = 12, R_g = 13, R_h = 14, R_LAT_A = 15, R_LAT_G = 16,
+            LAT_0 = 17, LON_0 = 18, LAT_1 = 19, LAT_2 = 20, LAT_TS = 21,
+            X_0 = 22, Y_0 = 23, K_0 = 24, K = 25, UNITS = 26, TO_METER = 27,
+            ZONE = 28, SOUTH = 29, ALPHA = 30, LONC = 31, PM = 32,
+            TOWGS84 = 33, NADGRIDS = 34;
+
+    private static final NameTable<Integer> keys;
+    private static final NameTable<Ellipsoid> ellipsoids;
+    private static final NameTable<Datum> datums;
+    private static final NameTable<Unit> units;
+    private static final NameTable<Double> primeMeridians;
+
+    /**
+     * A datum of PROJ.4: an ellipsoid and either a shift to WGS 84 or grid
+     * shift files.
+     */
+    private static final class Datum {
+
+        final String ellipsoidName;
+        final Ellipsoid ellipsoid;
+        final double[] toWGS84;
+        final String gridShiftFiles;
+
+        Datum(String ellipsoidName, double[] toWGS84, String gridShiftFiles) {
+            this.ellipsoidName = ellipsoidName;
+            this.ellipsoid = ellipsoids.get(ellipsoidName, 0, ellipsoidName.length());
+            this.toWGS84 = toWGS84;
+            this.gridShiftFiles = gridShiftFiles;
+        }
+    }
+
+    /**
+     * The projections of the ProjectionFactory, by PROJ.4 name. This is a
+     * separate class so that the registry is only built when a projection is
+     * requested.
+     */
+    private static final class Projections {
+
+        static final NameTable<ProjectionDescriptor> table;
+
+        static {
+            HashMap<String, ProjectionDescriptor> map = new HashMap<>();
+            for (ProjectionDescriptor descriptor : ProjectionFactory.getProjectionDescriptors()) {
+                map.put(descriptor.getPROJ4Name(), descriptor);
+            }
+            table = new NameTable<>(map);
+        }
+    }
+
+    static {
+        String[] keyNames = {"proj", "init", "R", "ellps", "datum",
+            "a", "b", "es", "rf", "f",
+            "R_A", "R_V", "R_a", "R_g", "R_h", "R_lat_a", "R_lat_g",
+            "lat_0", "lon_0", "lat_1", "lat_2", "lat_ts",
+            "x_0", "y_0", "k_0", "k", "units", "to_meter",
+            "zone", "south", "alpha", "lonc", "pm",
+            "towgs84", "nadgrids"};
+        HashMap<String, Integer> keyMap = new HashMap<>();
+        for (int i = 0; i < keyNames.length; i++) {
+            keyMap.put(keyNames[i], i);
+        }
+        keys = new NameTable<>(keyMap);
+
+        // the first ellipsoid with a name is used, as by a linear search
+        LinkedHashMap<String, Ellipsoid> ellipsoidMap = new LinkedHashMap<>();
+        for (Ellipsoid e : Ellipsoid.ellipsoids) {
+            ellipsoidMap.putIfAbsent(e.shortName, e);
+        }
+        Ellipsoid[] others = {Ellipsoid.BESSEL_NOR, Ellipsoid.CLARKE_1858,
+            Ellipsoid.CLARKE_1880_MOD, Ellipsoid.CLARKE_1880_PAL, Ellipsoid.CLARKE_1880_IGN,
+            Ellipsoid.EVEREST_30, Ellipsoid.EVEREST_PA, Ellipsoid.HAYFORD,
+            Ellipsoid.INDONESIAN, Ellipsoid.INTERNATIONAL_1924, Ellipsoid.SA_1969};
+        for (Ellipsoid e : others) {
+            ellipsoidMap.putIfAbsent(e.shortName, e);
+        }
+        // names used by PROJ.4 for ellipsoids with other names in this library
+        ellipsoidMap.putIfAbsent("intl", Ellipsoid.INTERNATIONAL_1924);
+        ellipsoidMap.putIfAbsent("new_intl", Ellipsoid.INTERNATIONAL_1967);
+        ellipsoidMap.putIfAbsent("mod_airy", Ellipsoid.AIRY_MOD);
+        ellipsoidMap.putIfAbsent("aust_SA", Ellipsoid.AUSTRALIAN);
+        ellipsoidMap.putIfAbsent("bess_nam", Ellipsoid.BESSEL_NAM);
+        ellipsoidMap.putIfAbsent("evrstSS", Ellipsoid.EVEREST_SS);
+        ellipsoidMap.putIfAbsent("helmert", Ellipsoid.HELMET);
+        ellipsoids = new NameTable<>(ellipsoidMap);
+
+        // the datums of PROJ.4
+        HashMap<String, Datum> datumMap = new HashMap<>();
+        datumMap.put("WGS84", new Datum("WGS84", new double[]{0, 0, 0}, null));
+        datumMap.put("GGRS87", new Datum("GRS80", new double[]{-199.87, 74.79, 246.62}, null));
+        datumMap.put("NAD83", new Datum("GRS80", new double[]{0, 0, 0}, null));
+        datumMap.put("NAD27", new Datum("clrk66", null, "@conus,@alaska,@ntv2_0.gsb,@ntv1_can.dat"));
+        datumMap.put("potsdam", new Datum("bessel", new double[]{598.1, 73.7, 418.2, 0.202, 0.045, -2.455, 6.7}, null));
+        datumMap.put("carthage", new Datum("clrk80ign", new double[]{-263.0, 6.0, 431.0}, null));
+        datumMap.put("hermannskogel", new Datum("bessel", new double[]{577.326, 90.129, 463.919, 5.137, 1.474, 5.297, 2.4232}, null));
+        datumMap.put("ire65", new Datum("mod_airy", new double[]{482.530, -130.596, 564.557, -1.042, -0.214, -0.631, 8.15}, null));
+        datumMap.put("nzgd49", new Datum("intl", new double[]{59.47, -5.04, 187.44, 0.47, -0.1, 1.024, -4.5993}, null));
+        datumMap.put("OSGB36", new Datum("airy", new double[]{446.448, -125.157, 542.060, 0.1502, 0.2470, 0.8421, -20.4894}, null));
+        datums = new NameTable<>(datumMap);
+
+        // the units searched by Units.findUnits, followed by other length units
+        LinkedHashMap<String, Unit> unitMap = new LinkedHashMap<>();
+        Unit[] otherUnits = {Units.CHAINS, Units.US_CHAINS, Units.FATHOMS, Units.LINKS};
+        for (Unit[] list : new Unit[][]{Units.units, otherUnits}) {
+            for (Unit unit : list) {
+                unitMap.putIfAbsent(unit.name, unit);
+                unitMap.putIfAbsent(unit.plural, unit);
+                unitMap.putIfAbsent(unit.abbreviation, unit);
+            }
+        }
+        units = new NameTable<>(unitMap);
+
+        // the prime meridians of PROJ.4 in degrees east of Greenwich
+        HashMap<String, Double> pmMap = new HashMap<>();
+        pmMap.put("greenwich", 0d);
+        pmMap.put("lisbon", -MapMath.dmsToDeg(9, 7, 54.862));
+        pmMap.put("paris", MapMath.dmsToDeg(2, 20, 14.025));
+        pmMap.put("bogota", -MapMath.dmsToDeg(74, 4, 51.3));
+        pmMap.put("madrid", -MapMath.dmsToDeg(3, 41, 14.55));
+        pmMap.put("rome", MapMath.dmsToDeg(12, 27, 8.4));
+        pmMap.put("bern", MapMath.dmsToDeg(7, 26, 22.5));
+        pmMap.put("jakarta", MapMath.dmsToDeg(106, 48, 27.79));
+        pmMap.put("ferro", -MapMath.dmsToDeg(17, 40, 0));
+        pmMap.put("brussels", MapMath.dmsToDeg(4, 22, 4.71));
+        pmMap.put("stockholm", MapMath.dmsToDeg(18, 3, 29.8));
+        pmMap.put("athens", MapMath.dmsToDeg(23, 42, 58.815));
+        pmMap.put("oslo", MapMath.dmsToDeg(10, 43, 22.5));
+        primeMeridians = new NameTable<>(pmMap);
+    }
+
+    private ProjectionDescriptor proj;
+    private String init;
+    private String ellipsoidName;
+    private Ellipsoid ellipsoid;
+    private String datumName;
+    private Datum datum;
+    private double radius, a, b, es, rf, f;
+    private boolean authalic, volumetric, arithmeticMean, geometricMean, harmonicMean;
+    private double authalicLatitude, geometricLatitude;
+    private double lat0, lon0, lat1, lat2, latTS;
+    private double x0, y0, k0, k;
+    private Unit unit;
+    private double toMeter;
+    private int zone;
+    private boolean south;
+    private double alpha, lonc, pm;
+    private final double[] toWGS84 = new double[7];
+    private int toWGS84Count;
+    private String gridShiftFiles;
+
+    PROJ4Parser() {
+        reset();
+    }
+
+    /**
+     * Removes all parameters.
+     */
+    void reset() {
+        proj = null;
+        init = null;
+        ellipsoidName = null;
+        ellipsoid = null;
+        datumName = null;
+        datum = null;
+        radius = a = b = es = rf = f = Double.NaN;
+        authalic = volumetric = arithmeticMean = geometricMean = harmonicMean = false;
+        authalicLatitude = geometricLatitude = Double.NaN;
+        lat0 = lon0 = lat1 = lat2 = latTS = Double.NaN;
+        x0 = y0 = k0 = k = Double.NaN;
+        unit = null;
+        toMeter = Double.NaN;
+        zone = 0;
+        south = false;
+        alpha = lonc = Double.NaN;
+        pm = 0;
+        toWGS84Count = 0;
+        gridShiftFiles = null;
+    }
+
+    /**
+     * Adds the parameters of a definition, for example
+     * "+proj=merc +lon_0=10". Arguments are separated by white space.
+     *
+     * @throws ProjectionException If a projection, ellipsoid or prime
+     * meridian is unknown.
+     * @throws NumberFormatException If a value is not a valid number.
+     */
+    void parse(CharSequence definition) {
+        final int n = definition.length();
+        int i = 0;
+        while (i < n) {
+            while (i < n && definition.charAt(i) <= ' ') {
+                ++i;
+            }
+            final int start = i;
+            while (i < n && definition.charAt(i) > ' ') {
+                ++i;
+            }
+            if (i > start) {
+                parseArgument(definition, start, i);
+            }
+        }
+    }
+
+    /**
+     * Adds a single argument of the form "+key=value" or "+key". The value
+     * may contain white space.
+     */
+    void parseArgument(CharSequence s, int start, int end) {
+        if (start >= end || s.charAt(start) != '+') {
+            return;
+        }
+        int eq = start + 1;
+        while (eq < end && s.charAt(eq) != '=') {
+            ++eq;
+        }
+        final int key = keys.indexOf(s, start + 1, eq);
+        if (key >= 0) {
+            set(keys.valueAt(key), s, eq < end ? eq + 1 : -1, end, Double.NaN);
+        }
+    }
+
+    /**
+     * Adds a parameter.
+     *
+     * @param key The key without '+'.
+     * @param value The value, or null for a flag.
+     * @param number The value as a number if it is known, otherwise NaN.
+     */
+    void setParameter(String key, String value, double number) {
+        final int i = keys.indexOf(key, 0, key.length());
+        if (i >= 0) {
+            if (value == null) {
+                set(keys.valueAt(i), "", -1, 0, number);
+            } else {
+                set(keys.valueAt(i), value, 0, value.length(), number);
+            }
+        }
+    }
+
+    /**
+     * Sets a parameter.
+     *
+     * @param key The key.
+     * @param s The characters with the value.
+     * @param start The index of the first character of the value, or -1 if
+     * the parameter has no value.
+     * @param end The index after the last character of the value.
+     * @param number The value as a number if it is known, otherwise NaN.
+     */
+    private void set(int key, CharSequence s, int start, int end, double number) {
+        switch (key) {
+            case R_A:
+                authalic = flag(s, start, end);
+                return;
+            case R_V:
+                volumetric = flag(s, start, end);
+                return;
+            case R_a:
+                arithmeticMean = flag(s, start, end);
+                return;
+            case R_g:
+                geometricMean = flag(s, start, end);
+                return;
+            case R_h:
+                harmonicMean = flag(s, start, end);
+                return;
+            case SOUTH:
+                south = flag(s, start, end);
+                return;
+        }
+        if (start < 0) {
+            // other parameters are ignored without a value
+            return;
+        }
+        switch (key) {
+            case PROJ:
+                proj = Projections.table.get(s, start, end);
+                if (proj == null) {
+                    throw new ProjectionException("Unknown projection: " + s.subSequence(start, end));
+                }
+                break;
+            case INIT:
+                init = s.subSequence(start, end).toString();
+                break;
+            case R:
+                radius = number(s, start, end, number);
+                break;
+            case ELLPS: {
+                final int i = ellipsoids.indexOf(s, start, end);
+                if (i < 0) {
+                    throw new ProjectionException("Unknown ellipsoid: " + s.subSequence(start, end));
+                }
+                ellipsoidName = ellipsoids.keyAt(i);
+                ellipsoid = ellipsoids.valueAt(i);
+                break;
+            }
+            case DATUM: {
+                // an unknown datum is only an error if the ellipsoid of the
+                // datum is needed
+                final int i = datums.indexOf(s, start, end);
+                datum = i < 0 ? null : datums.valueAt(i);
+                datumName = i < 0 ? s.subSequence(start, end).toString() : datums.keyAt(i);
+                break;
+            }
+            case A:
+                a = number(s, start, end, number);
+                break;
+            case B:
+                b = number(s, start, end, number);
+                break;
+            case ES:
+                es = number(s, start, end, number);
+                break;
+            case RF:
+                rf = number(s, start, end, number);
+                break;
+            case F:
+                f = number(s, start, end, number);
+                break;
+            case R_LAT_A:
+                authalicLatitude = angle(s, start, end, number);
+                break;
+            case R_LAT_G:
+                geometricLatitude = angle(s, start, end, number);
+                break;
+            case LAT_0:
+                lat0 = angle(s, start, end, number);
+                break;
+            case LON_0:
+                lon0 = angle(s, start, end, number);
+                break;
+            case LAT_1:
+                lat1 = angle(s, start, end, number);
+                break;
+            case LAT_2:
+                lat2 = angle(s, start, end, number);
+                break;
+            case LAT_TS:
+                latTS = angle(s, start, end, number);
+                break;
+            case X_0:
+                x0 = number(s, start, end, number);
+                break;
+            case Y_0:
+                y0 = number(s, start, end, number);
+                break;
+            case K_0:
+                k0 = number(s, start, end, number);
+                break;
+            case K:
+                k = number(s, start, end, number);
+                break;
+            case UNITS:
+                unit = units.get(s, start, end);
+                if (unit == null) {
+                    unit = Units.METRES;
+                }
+                break;
+            case TO_METER:
+                toMeter = number(s, start, end, number);
+                break;
+            case ZONE:
+                zone = parseInt(s, start, end);
+                break;
+            case ALPHA:
+                alpha = angle(s, start, end, number);
+                break;
+            case LONC:
+                lonc = angle(s, start, end, number);
+                break;
+            case PM: {
+                Double meridian = primeMeridians.get(s, start, end);
+                if (meridian != null) {
+                    pm = meridian;
+                } else {
+                    try {
+                        pm = angle(s, start, end, number);
+                    } catch (NumberFormatException exc) {
+                        throw new ProjectionException("Unknown prime meridian: " + s.subSequence(start, end));
+                    }
+                }
+                break;
+            }
+            case TOWGS84:
+                parseTOWGS84(s, start, end);
+                break;
+            case NADGRIDS:
+                gridShiftFiles = s.subSequence(start, end).toString();
+                break;
+        }
+    }
+
+    /**
+     * Returns a new projection with the parameters. The initialize() method
+     * of the projection must still be called.
+     *
+     * @throws ProjectionException If the parameters do not define a
+     * projection.
+     */
+    Projection createProjection() {
+        Projection projection = null;
+        double a = 0, b = 0, es = 0;
+
+        if (proj != null) {
+            projection = proj.create();
+        }
+        if (init != null) {
+            projection = ProjectionFactory.getNamedPROJ4CoordinateSystem(init);
+            if (projection == null) {
+                throw new ProjectionException("Unknown projection: " + init);
+            }
+            a = projection.getEquatorRadius();
+            es = projection.getEllipsoid().getEccentricitySquared();
+        }
+        if (projection == null) {
+            throw new ProjectionException("No projection");
+        }
+
+        // Set the ellipsoid
+        String ellipsoidName = "";
+        if (!Double.isNaN(radius)) {
+            a = radius;
+            es = 0;
+        } else {
+            Ellipsoid ellipsoid = this.ellipsoid;
+            if (ellipsoid != null) {
+                ellipsoidName = this.ellipsoidName;
+            } else if (datumName != null) {
+                if (datum != null) {
+                    ellipsoid = datum.ellipsoid;
+                    ellipsoidName = datum.ellipsoidName;
+                } else {
+                    // an ellipsoid name can be used as a datum
+                    ellipsoid = ellipsoids.get(datumName, 0, datumName.length());
+                    ellipsoidName = datumName;
+                    if (ellipsoid == null) {
+                        throw new ProjectionException("Unknown ellipsoid: " + datumName);
+                    }
+                }
+            }
+            if (ellipsoid != null) {
+                es = ellipsoid.eccentricity2;
+                a = ellipsoid.equatorRadius;
+            } else {
+                if (!Double.isNaN(this.a)) {
+                    a = this.a;
+                }
+                if (!Double.isNaN(this.es)) {
+                    es = this.es;
+                } else if (!Double.isNaN(rf)) {
+                    es = 1. / rf;
+                    es = es * (2. - es);
+                } else if (!Double.isNaN(f)) {
+                    es = f * (2. - f);
+                } else if (!Double.isNaN(this.b)) {
+                    b = this.b;
+                    es = 1. - (b * b) / (a * a);
+                }
+            }
+            if (b == 0) {
+                b = a * Math.sqrt(1. - es);
+            }
+
+            // spheres derived from the ellipsoid
+            if (authalic) {
+                a *= 1. - es * (SIXTH + es * (RA4 + es * RA6));
+                es = 0.;
+            } else if (volumetric) {
+                a *= 1. - es * (SIXTH + es * (RV4 + es * RV6));
+                es = 0.;
+            } else if (arithmeticMean) {
+                a = .5 * (a + b);
+                es = 0.;
+            } else if (geometricMean) {
+                a = Math.sqrt(a * b);
+                es = 0.;
+            } else if (harmonicMean) {
+                a = 2. * a * b / (a + b);
+                es = 0.;
+            } else if (!Double.isNaN(authalicLatitude)) {
+                double tmp = Math.toRadians(authalicLatitude);
+                if (Math.abs(tmp) > MapMath.HALFPI) {
+                    throw new ProjectionException("-11");
+                }
+                tmp = Math.sin(tmp);
+                tmp = 1. - es * tmp * tmp;
+                a *= .5 * (1. - es + tmp) / (tmp * Math.sqrt(tmp));
+                es = 0.;
+            } else if (!Double.isNaN(geometricLatitude)) {
+                double tmp = Math.toRadians(geometricLatitude);
+                if (Math.abs(tmp) > MapMath.HALFPI) {
+                    throw new ProjectionException("-11");
+                }
+                tmp = Math.sin(tmp);
+                tmp = 1. - es * tmp * tmp;
+                a *= Math.sqrt(1. - es) / tmp;
+                es = 0.;
+            }
+        }
+        projection.setEllipsoid(new Ellipsoid(ellipsoidName, a, es, ellipsoidName));
+
+        // Other arguments
+        if (!Double.isNaN(lat0)) {
+            projection.setProjectionLatitudeDegrees(lat0);
+        }
+        // longitudes are relative to the prime meridian
+        if (!Double.isNaN(lon0) || pm != 0) {
+            double lon = Double.isNaN(lon0) ? projection.getProjectionLongitudeDegrees() : lon0;
+            projection.setProjectionLongitudeDegrees(lon + pm);
+        }
+        if (projection instanceof ConicProjection) {
+            ConicProjection conic = (ConicProjection) projection;
+            if (!Double.isNaN(lat1)) {
+                conic.setProjectionLatitude1Degrees(lat1);
+            }
+            if (!Double.isNaN(lat2)) {
+                conic.setProjectionLatitude2Degrees(lat2);
+            }
+        }
+        if (!Double.isNaN(latTS)) {
+            projection.setTrueScaleLatitudeDegrees(latTS);
+        }
+        if (!Double.isNaN(x0)) {
+            projection.setFalseEasting(x0);
+        }
+        if (!Double.isNaN(y0)) {
+            projection.setFalseNorthing(y0);
+        }
+        if (!Double.isNaN(k0)) {
+            projection.setScaleFactor(k0);
+        } else if (!Double.isNaN(k)) {
+            projection.setScaleFactor(k);
+        }
+        if (unit != null) {
+            projection.setFromMetres(1.0 / unit.value);
+        }
+        if (!Double.isNaN(toMeter)) {
+            projection.setFromMetres(1.0 / toMeter);
+        }
+
+        if (projection instanceof UniversalTransverseMercatorProjection) {
+            UniversalTransverseMercatorProjection utm = (UniversalTransverseMercatorProjection) projection;
+            if (zone != 0) {
+                utm.setUTMZone(zone);
+            }
+            if (south) {
+                utm.setIsSouth(true);
+            }
+        }
+
+        if (projection instanceof ObliqueMercatorProjection) {
+            ObliqueMercatorProjection omerc = (ObliqueMercatorProjection) projection;
+            if (!Double.isNaN(alpha)) {
+                omerc.setAlphaDegrees(alpha);
+            }
+            if (!Double.isNaN(lonc) || pm != 0) {
+                double lon = Double.isNaN(lonc) ? omerc.getCenterLongitudeDegrees() : lonc;
+                omerc.setCenterLongitudeDegrees(lon + pm);
+            }
+        }
+
+        // datum shift
+        if (toWGS84Count > 0) {
+            projection.setToWGS84(Arrays.copyOf(toWGS84, toWGS84Count));
+        } else if (datum != null && datum.toWGS84 != null) {
+            projection.setToWGS84(datum.toWGS84);
+        }
+        if (gridShiftFiles != null) {
+            projection.setGridShiftFiles(gridShiftFiles);
+        } else if (datum != null && datum.gridShiftFiles != null) {
+            projection.setGridShiftFiles(datum.gridShiftFiles);
+        }
+        return projection;
+    }
+
+    /**
+     * Parses the 3 or 7 comma-separated values of towgs84.
+     */
+    private void parseTOWGS84(CharSequence s, int start, int end) {
+        int count = 0;
+        int i = start;
+        while (i <= end) {
+            int j = i;
+            while (j < end && s.charAt(j) != ',') {
+                ++j;
+            }
+            if (count == toWGS84.length) {
+                count = 0;
+                break;
+            }
+            toWGS84[count++] = FastDoubleParser.parseDouble(s, i, j);
+            i = j + 1;
+        }
+        if (count != 3 && count != 7) {
+            throw new ProjectionException("towgs84 requires 3 or 7 values: " + s.subSequence(start, end));
+        }
+        toWGS84Count = count;
+    }
+
+    /**
+     * Returns the value of a flag. A flag without value or with a value that
+     * does not start with 'F' or 'f' is set.
+     */
+    private static boolean flag(CharSequence s, int start, int end) {
+        if (start < 0 || start == end) {
+            return true;
+        }
+        final char c = s.charAt(start);
+        return c != 'F' && c != 'f';
+    }
+
+    private static double number(CharSequence s, int start, int end, double number) {
+        return Double.isNaN(number) ? FastDoubleParser.parseDouble(s, start, end) : number;
+    }
+
+    private static double angle(CharSequence s, int start, int end, double number) {
+        return Double.isNaN(number) ? parseAngle(s, start, end) : number;
+    }
+
+    /**
+     * Converts characters to an angle in degrees. The angle is either a
+     * decimal number or in degrees, minutes and seconds, for example
+     * 2d20'14.025", optionally followed by N, S, E or W, as accepted by
+     * com.jhlabs.map.AngleFormat.
+     *
+     * @throws NumberFormatException If the characters are not an angle.
+     */
+    static double parseAngle(CharSequence s, int start, int end) {
+        boolean negate = false;
+        if (end > start) {
+            final char c = Character.toUpperCase(s.charAt(end - 1));
+            if (c == 'W' || c == 'S') {
+                negate = true;
+                --end;
+            } else if (c == 'E' || c == 'N') {
+                --end;
+            }
+        }
+        int d = start;
+        while (d < end && s.charAt(d) != 'd' && s.charAt(d) != '\u00b0') {
+            ++d;
+        }
+        double result;
+        if (d == end) {
+            result = FastDoubleParser.parseDouble(s, start, end);
+        } else {
+            double deg = FastDoubleParser.parseDouble(s, start, d);
+            double min = 0, sec = 0;
+            int m = d + 1;
+            while (m < end && s.charAt(m) != 'm' && s.charAt(m) != '\'') {
+                ++m;
+            }
+            if (m < end) {
+                if (m > d + 1) {
+                    min = FastDoubleParser.parseDouble(s, d + 1, m);
+                }
+                int secEnd = end;
+                if (secEnd > m + 1 && (s.charAt(secEnd - 1) == 's' || s.charAt(secEnd - 1) == '"')) {
+                    --secEnd;
+                }
+                if (secEnd > m + 1) {
+                    sec = FastDoubleParser.parseDouble(s, m + 1, secEnd);
+                }
+                if (min < 0 || min > 59) {
+                    throw new NumberFormatException("Minutes must be between 0 and 59");
+                }
+                if (sec < 0 || sec >= 60) {
+                    throw new NumberFormatException("Seconds must be between 0 and 59");
+                }
+            } else if (end > d + 1) {
+                min = FastDoubleParser.parseDouble(s, d + 1, end);
+            }
+            if (s.charAt(start) == '-') {
+                result = deg - min / 60 - sec / 3600;
+            } else {
+                result = deg + min / 60 + sec / 3600;
+            }
+        }
+        return negate ? -result : result;
+    }
+
+    /**
+     * Converts characters to an int like Integer.parseInt.
+     */
+    private static int parseInt(CharSequence s, int start, int end) {
+        int i = start;
+        final boolean negative = i < end && s.charAt(i) == '-';
+        if (negative || (i < end && s.charAt(i) == '+')) {
+            ++i;
+        }
+        if (i == end || end - i > 9) {
+            return Integer.parseInt(s.subSequence(start, end).toString());
+        }
+        int v = 0;
+        for (; i < end; i++) {
+            final char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return Integer.parseInt(s.subSequence(start, end).toString());
+            }
+            v = v * 10 + (c - '0');
+        }
+        return negative ? -v : v;
+    }
+}
@@ -0,0 +1,285 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Projects large coordinate arrays on all available cores. The arrays are
+ * split into fork/join tasks that each call the batch transform methods of
+ * Projection on a sub-range. Projections for which isReentrant() returns true
+ * are shared by all tasks; other projections are cloned once for each worker
+ * thread taking part in a transformation.
+ *
+ * The projection must be initialized before it is passed to this class and
+ * must not be modified while a transformation is running.
+ */
+public class ParallelProjector {
+
+    /**
+     * Default minimum number of points processed by a single task.
+     */
+    public final static int DEFAULT_THRESHOLD = 8192;
+
+    private final Projection projection;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Creates a projector using the common fork/join pool.
+     *
+     * @param projection An initialized projection.
+     */
+    public ParallelProjector(Projection projection) {
+        this(projection, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates a projector.
+     *
+     * @param projection An initialized projection.
+     * @param pool The pool executing the tasks.
+     * @param threshold Arrays with fewer points than this are not split.
+     */
+    public ParallelProjector(Projection projection, ForkJoinPool pool, int threshold) {
+        if (projection == null || pool == null) {
+            throw new IllegalArgumentException();
+        }
+        this.projection = projection;
+        this.pool = pool;
+        this.threshold = Math.max(1, threshold);
+    }
+
+    public Projection getProjection() {
+        return projection;
+    }
+
+    /**
+     * Project a number of lat/long points (in degrees), producing a result in
+     * metres. See Projection.transform(double[], int, double[], int, int).
+     */
+    public void transform(double[] srcPoints, int srcOffset, double[] dstPoints, int dstOffset, int numPoints) {
+        run(new InterleavedTask(Mode.FORWARD, clones(), srcPoints, srcOffset, dstPoints, dstOffset, 0, numPoints));
+    }
+
+    /**
+     * Project a number of lat/long points (in radians), producing a result in
+     * metres.
+     */
+    public void transformRadians(double[] srcPoints, int srcOffset, double[] dstPoints, int dstOffset, int numPoints) {
+        run(new InterleavedTask(Mode.FORWARD_RADIANS, clones(), srcPoints, srcOffset, dstPoints, dstOffset, 0, numPoints));
+    }
+
+    /**
+     * Inverse-project a number of points (in metres), producing a lat/long
+     * result in degrees.
+     */
+    public void inverseTransform(double[] srcPoints, int srcOffset, double[] dstPoints, int dstOffset, int numPoints) {
+        run(new InterleavedTask(Mode.INVERSE, clones(), srcPoints, srcOffset, dstPoints, dstOffset, 0, numPoints));
+    }
+
+    /**
+     * Inverse-project a number of points (in metres), producing a lat/long
+     * result in radians.
+     */
+    public void inverseTransformRadians(double[] srcPoints, int srcOffset, double[] dstPoints, int dstOffset, int numPoints) {
+        run(new InterleavedTask(Mode.INVERSE_RADIANS, clones(), srcPoints, srcOffset, dstPoints, dstOffset, 0, numPoints));
+    }
+
+    /**
+     * Project a number of lon/lat points (in degrees) stored in separate
+     * arrays, producing a result in metres. See
+     * Projection.transform(double[], double[], int, double[], double[], int, int).
+     */
+    public void transform(double[] lon, double[] lat, int srcOffset,
+            double[] x, double[] y, int dstOffset, int numPoints) {
+        run(new ColumnTask(Mode.FORWARD, clones(), lon, lat, srcOffset, x, y, dstOffset, 0, numPoints));
+    }
+
+    /**
+     * Project a number of lon/lat points (in radians) stored in separate
+     * arrays, producing a result in metres.
+     */
+    public void transformRadians(double[] lon, double[] lat, int srcOffset,
+            double[] x, double[] y, int dstOffset, int numPoints) {
+        run(new ColumnTask(Mode.FORWARD_RADIANS, clones(), lon, lat, srcOffset, x, y, dstOffset, 0, numPoints));
+    }
+
+    /**
+     * Inverse-project a number of points (in metres) stored in separate
+     * arrays, producing a lon/lat result in degrees.
+     */
+    public void inverseTransform(double[] x, double[] y, int srcOffset,
+            double[] lon, double[] lat, int dstOffset, int numPoints) {
+        run(new ColumnTask(Mode.INVERSE, clones(), x, y, srcOffset, lon, lat, dstOffset, 0, numPoints));
+    }
+
+    /**
+     * Inverse-project a number of points (in metres) stored in separate
+     * arrays, producing a lon/lat result in radians.
+     */
+    public void inverseTransformRadians(double[] x, double[] y, int srcOffset,
+            double[] lon, double[] lat, int dstOffset, int numPoints) {
+        run(new ColumnTask(Mode.INVERSE_RADIANS, clones(), x, y, srcOffset, lon, lat, dstOffset, 0, numPoints));
+    }
+
+    private void run(RecursiveAction task) {
+        if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * Returns the clones of the projection for each worker thread of one
+     * transformation, or null if the projection is reentrant and can be
+     * shared.
+     */
+    private ThreadLocal<Projection> clones() {
+        return projection.isReentrant() ? null
+                : ThreadLocal.withInitial(() -> (Projection) projection.clone());
+    }
+
+    /**
+     * Returns the projection to use in the current thread.
+     */
+    private Projection projectionForThread(ThreadLocal<Projection> clones) {
+        return clones == null ? projection : clones.get();
+    }
+
+    private enum Mode {
+        FORWARD, FORWARD_RADIANS, INVERSE, INVERSE_RADIANS
+    }
+
+    /**
+     * Projects a range of points stored in interleaved arrays.
+     */
+    private final class InterleavedTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Mode mode;
+        private final ThreadLocal<Projection> clones;
+        private final double[] src;
+        private final int srcOffset;
+        private final double[] dst;
+        private final int dstOffset;
+        private final int from;
+        private final int count;
+
+        InterleavedTask(Mode mode, ThreadLocal<Projection> clones,
+                double[] src, int srcOffset, double[] dst, int dstOffset, int from, int count) {
+            this.mode = mode;
+            this.clones = clones;
+            this.src = src;
+            this.srcOffset = srcOffset;
+            this.dst = dst;
+            this.dstOffset = dstOffset;
+            this.from = from;
+            this.count = count;
+        }
+
+        @Override
+        protected void compute() {
+            if (count <= threshold) {
+                Projection p = projectionForThread(clones);
+                int s = srcOffset + 2 * from;
+                int d = dstOffset + 2 * from;
+                switch (mode) {
+                    case FORWARD:
+                        p.transform(src, s, dst, d, count);
+                        break;
+                    case FORWARD_RADIANS:
+                        p.transformRadians(src, s, dst, d, count);
+                        break;
+                    case INVERSE:
+                        p.inverseTransform(src, s, dst, d, count);
+                        break;
+                    case INVERSE_RADIANS:
+                        p.inverseTransformRadians(src, s, dst, d, count);
+                        break;
+                }
+            } else {
+                int half = count / 2;
+                invokeAll(new InterleavedTask(mode, clones, src, srcOffset, dst, dstOffset, from, half),
+                        new InterleavedTask(mode, clones, src, srcOffset, dst, dstOffset, from + half, count - half));
+            }
+        }
+    }
+
+    /**
+     * Projects a range of points stored in separate coordinate arrays.
+     */
+    private final class ColumnTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Mode mode;
+        private final ThreadLocal<Projection> clones;
+        private final double[] srcX;
+        private final double[] srcY;
+        private final int srcOffset;
+        private final double[] dstX;
+        private final double[] dstY;
+        private final int dstOffset;
+        private final int from;
+        private final int count;
+
+        ColumnTask(Mode mode, ThreadLocal<Projection> clones, double[] srcX, double[] srcY, int srcOffset,
+                double[] dstX, double[] dstY, int dstOffset, int from, int count) {
+            this.mode = mode;
+            this.clones = clones;
+            this.srcX = srcX;
+            this.srcY = srcY;
+            this.srcOffset = srcOffset;
+            this.dstX = dstX;
+            this.dstY = dstY;
+            this.dstOffset = dstOffset;
+            this.from = from;
+            this.count = count;
+        }
+
+        @Override
+        protected void compute() {
+            if (count <= threshold) {
+                Projection p = projectionForThread(clones);
+                int s = srcOffset + from;
+                int d = dstOffset + from;
+                switch (mode) {
+                    case FORWARD:
+                        p.transform(srcX, srcY, s, dstX, dstY, d, count);
+                        break;
+                    case FORWARD_RADIANS:
+                        p.transformRadians(srcX, srcY, s, dstX, dstY, d, count);
+                        break;
+                    case INVERSE:
+                        p.inverseTransform(srcX, srcY, s, dstX, dstY, d, count);
+                        break;
+                    case INVERSE_RADIANS:
+                        p.inverseTransformRadians(srcX, srcY, s, dstX, dstY, d, count);
+                        break;
+                }
+            } else {
+                int half = count / 2;
+                invokeAll(new ColumnTask(mode, clones, srcX, srcY, srcOffset, dstX, dstY, dstOffset, from, half),
+                        new ColumnTask(mode, clones, srcX, srcY, srcOffset, dstX, dstY, dstOffset, from + half, count - half));
+            }
+        }
+    }
+}
@@ -52,6 +52,11 @@ public class PattersonProjection extends CylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public Point2D.Double projectInverse(double x, double y, Point2D.Double lp) {
 
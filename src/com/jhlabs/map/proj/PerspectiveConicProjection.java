@@ -25,6 +25,11 @@ public class PerspectiveConicProjection extends SimpleConicProjection {
 		super( SimpleConicProjection.PCONIC );
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Perspective Conic";
 	}
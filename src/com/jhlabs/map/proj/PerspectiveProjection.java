@@ -94,10 +94,35 @@ public class PerspectiveProjection extends Projection {
 		return xy;
 	}
 
+	/**
+	 * Only the part of the globe that can be seen from the height of the
+	 * perspective point is inside. This is a small circle around the centre
+	 * of the projection, which is always on the equator.
+	 */
+	@Override
+	public boolean inside(double lon, double lat) {
+		return MapMath.greatCircleDistance(Math.toRadians(lon), Math.toRadians(lat), projectionLongitude, 0) < Math.acos(rp);
+	}
+
+	@Override
+	public double getDomainRadiusDegrees() {
+		return Math.toDegrees(Math.acos(rp));
+	}
+
+	@Override
+	public double getDomainCentreLatitudeDegrees() {
+		return 0;
+	}
+
 	public boolean hasInverse() {
 		return false; // FIXME
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 /*FIXME
 INVERSE(s_inverse); /* spheroid * /
 	double  rh, cosz, sinz;
@@ -137,6 +137,11 @@ public class PolyconicProjection extends Projection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public void initialize() {
         super.initialize();
         spherical = true;//FIXME
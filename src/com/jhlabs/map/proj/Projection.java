@@ -21,7 +21,12 @@ import com.jhlabs.map.MapMath;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.DoubleBuffer;
 import java.time.Year;
+import java.util.ArrayList;
 
 /**
  * The superclass for all map projections
@@ -37,6 +42,11 @@ import java.time.Year;
  *
  * Added getYear(), getAuthor(), getDescription(), getHistory() methods by
  * Bernhard Jenny, February 2017.
+ *
+ * Thread safety: a projection must not be modified while it is used by other
+ * threads. After initialize() has been called, the transform methods of a
+ * projection for which isReentrant() returns true can be called concurrently.
+ * Other projections must be cloned for each thread.
  */
 public abstract class Projection implements Cloneable, Serializable {
 
@@ -123,6 +133,16 @@ public abstract class Projection implements Cloneable, Serializable {
      * Conversion factor from metres to whatever units the projection uses.
      */
     protected double fromMetres = 1;
+    /**
+     * The 3 or 7 parameters of the transformation of the datum to WGS 84, or
+     * null. They are not used by the projection.
+     */
+    private double[] toWGS84;
+    /**
+     * The grid shift files of the datum, or null. They are not used by the
+     * projection.
+     */
+    private String gridShiftFiles;
     /**
      * The total scale factor = Earth radius * units
      */
@@ -135,18 +155,42 @@ public abstract class Projection implements Cloneable, Serializable {
      * falseNorthing, adjusted to the appropriate units using fromMetres
      */
     private double totalFalseNorthing = 0;
+    /**
+     * Optional lookup table for newtonInverse.
+     */
+    private transient InverseGrid inverseGrid;
     // Some useful constants
     protected final static double EPS10 = 1e-10;
     protected final static double RTD = 180.0 / Math.PI;
     protected final static double DTR = Math.PI / 180.0;
+    /**
+     * Number of points copied at a time between a direct DoubleBuffer and the
+     * scratch array used by the buffer variants of transform().
+     */
+    private final static int BUFFER_CHUNK_POINTS = 512;
+    /**
+     * Largest latitude of the first approximation for newtonInverse. Some
+     * projections are infinite at the poles.
+     */
+    private final static double NEWTON_MAX_GUESS_LATITUDE = 89.9 * DTR;
 
     protected Projection() {
         setEllipsoid(Ellipsoid.SPHERE);
     }
 
+    /**
+     * Returns a copy of this projection. The towgs84 parameters are copied,
+     * so that clones handed out by ProjectionCache do not share them. Arrays
+     * computed by initialize() are shared; initialize() replaces them instead
+     * of modifying them. The Ellipsoid is shared, like the predefined
+     * ellipsoids of the Ellipsoid class, and must not be modified.
+     */
     public Object clone() {
         try {
             Projection e = (Projection) super.clone();
+            if (toWGS84 != null) {
+                e.toWGS84 = toWGS84.clone();
+            }
             return e;
         } catch (CloneNotSupportedException e) {
             throw new InternalError();
@@ -227,34 +271,195 @@ public abstract class Projection implements Cloneable, Serializable {
     }
 
     /**
-     * Project a number of lat/long points (in degrees), producing a result in
-     * metres
+     * Project a number of interleaved lon/lat points on the unary sphere. This
+     * is the batch equivalent of project() and is called by the array variants
+     * of transform() after the longitude has been made relative to the
+     * projection centre and converted to radians. The default implementation
+     * calls project() for each point. Derived classes may override this with a
+     * tighter loop. Source and destination may be the same array with the same
+     * offset.
+     *
+     * @param src Interleaved longitude and latitude in radians.
+     * @param srcOffset Index of the first longitude in src.
+     * @param dst Receives the interleaved projected x and y coordinates.
+     * @param dstOffset Index of the first x coordinate in dst.
+     * @param numPoints Number of points to project.
      */
-    public void transform(double[] srcPoints, int srcOffset, double[] dstPoints, int dstOffset, int numPoints) {
-        Point2D.Double in = new Point2D.Double();
+    protected void projectBatch(double[] src, int srcOffset, double[] dst, int dstOffset, int numPoints) {
         Point2D.Double out = new Point2D.Double();
-        for (int i = 0; i < numPoints; i++) {
-            in.x = srcPoints[srcOffset++];
-            in.y = srcPoints[srcOffset++];
-            transform(in, out);
-            dstPoints[dstOffset++] = out.x;
-            dstPoints[dstOffset++] = out.y;
+        final int end = srcOffset + 2 * numPoints;
+        for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+            project(src[i], src[i + 1], out);
+            dst[j] = out.x;
+            dst[j + 1] = out.y;
         }
     }
 
+    /**
+     * Project a number of lat/long points (in degrees), producing a result in
+     * metres. Source and destination may be the same array with the same
+     * offset.
+     */
+    public void transform(double[] srcPoints, int srcOffset, double[] dstPoints, int dstOffset, int numPoints) {
+        toRelativeRadians(srcPoints, srcOffset, DTR, dstPoints, dstOffset, numPoints);
+        projectBatch(dstPoints, dstOffset, dstPoints, dstOffset, numPoints);
+        scaleAndShift(dstPoints, dstOffset, numPoints);
+    }
+
     /**
      * Project a number of lat/long points (in radians), producing a result in
-     * metres
+     * metres. Source and destination may be the same array with the same
+     * offset.
      */
     public void transformRadians(double[] srcPoints, int srcOffset, double[] dstPoints, int dstOffset, int numPoints) {
-        Point2D.Double in = new Point2D.Double();
+        toRelativeRadians(srcPoints, srcOffset, 1, dstPoints, dstOffset, numPoints);
+        projectBatch(dstPoints, dstOffset, dstPoints, dstOffset, numPoints);
+        scaleAndShift(dstPoints, dstOffset, numPoints);
+    }
+
+    /**
+     * Converts interleaved lon/lat points to radians and makes the longitude
+     * relative to the projection centre. This is the first stage of the array
+     * variants of transform(). NaN longitudes are kept.
+     *
+     * @param toRadians 1 for radians, DTR for degrees.
+     */
+    private void toRelativeRadians(double[] src, int srcOffset, double toRadians,
+            double[] dst, int dstOffset, int numPoints) {
+        final int end = srcOffset + 2 * numPoints;
+        if (projectionLongitude != 0) {
+            final double lon0 = projectionLongitude;
+            for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+                final double lam = src[i] * toRadians - lon0;
+                dst[j] = Double.isNaN(lam) ? lam : MapMath.normalizeLongitude(lam);
+                dst[j + 1] = src[i + 1] * toRadians;
+            }
+        } else if (toRadians != 1 || src != dst || srcOffset != dstOffset) {
+            for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+                dst[j] = src[i] * toRadians;
+                dst[j + 1] = src[i + 1] * toRadians;
+            }
+        }
+    }
+
+    /**
+     * Applies the total scale and the false origin to interleaved points on
+     * the unary sphere. This is the last stage of the array variants of
+     * transform().
+     */
+    private void scaleAndShift(double[] pts, int offset, int numPoints) {
+        final double k = totalScale;
+        final double x0 = totalFalseEasting;
+        final double y0 = totalFalseNorthing;
+        final int end = offset + 2 * numPoints;
+        for (int i = offset; i < end; i += 2) {
+            pts[i] = k * pts[i] + x0;
+            pts[i + 1] = k * pts[i + 1] + y0;
+        }
+    }
+
+    /**
+     * Project a number of lon/lat points stored in separate arrays on the
+     * unary sphere. This is the structure-of-arrays equivalent of
+     * projectBatch(double[], int, double[], int, int). The default
+     * implementation calls project() for each point. Source and destination
+     * arrays may be identical.
+     *
+     * @param lam Longitudes in radians relative to the projection centre.
+     * @param phi Latitudes in radians.
+     * @param srcOffset Index of the first point in lam and phi.
+     * @param x Receives the projected x coordinates.
+     * @param y Receives the projected y coordinates.
+     * @param dstOffset Index of the first point in x and y.
+     * @param numPoints Number of points to project.
+     */
+    protected void projectBatch(double[] lam, double[] phi, int srcOffset,
+            double[] x, double[] y, int dstOffset, int numPoints) {
         Point2D.Double out = new Point2D.Double();
         for (int i = 0; i < numPoints; i++) {
-            in.x = srcPoints[srcOffset++];
-            in.y = srcPoints[srcOffset++];
-            transform(in, out);
-            dstPoints[dstOffset++] = out.x;
-            dstPoints[dstOffset++] = out.y;
+            project(lam[srcOffset + i], phi[srcOffset + i], out);
+            x[dstOffset + i] = out.x;
+            y[dstOffset + i] = out.y;
+        }
+    }
+
+    /**
+     * Project a number of lon/lat points (in degrees) stored in separate
+     * arrays, producing a result in metres. The results can be written in
+     * place by passing lon and lat as x and y.
+     *
+     * @param lon Longitudes in degrees.
+     * @param lat Latitudes in degrees.
+     * @param srcOffset Index of the first point in lon and lat.
+     * @param x Receives the projected x coordinates.
+     * @param y Receives the projected y coordinates.
+     * @param dstOffset Index of the first point in x and y.
+     * @param numPoints Number of points to project.
+     */
+    public void transform(double[] lon, double[] lat, int srcOffset,
+            double[] x, double[] y, int dstOffset, int numPoints) {
+        toRelativeRadians(lon, lat, srcOffset, DTR, x, y, dstOffset, numPoints);
+        projectBatch(x, y, dstOffset, x, y, dstOffset, numPoints);
+        scaleAndShift(x, y, dstOffset, numPoints);
+    }
+
+    /**
+     * Project a number of lon/lat points (in radians) stored in separate
+     * arrays, producing a result in metres. The results can be written in
+     * place by passing lon and lat as x and y.
+     *
+     * @param lon Longitudes in radians.
+     * @param lat Latitudes in radians.
+     * @param srcOffset Index of the first point in lon and lat.
+     * @param x Receives the projected x coordinates.
+     * @param y Receives the projected y coordinates.
+     * @param dstOffset Index of the first point in x and y.
+     * @param numPoints Number of points to project.
+     */
+    public void transformRadians(double[] lon, double[] lat, int srcOffset,
+            double[] x, double[] y, int dstOffset, int numPoints) {
+        toRelativeRadians(lon, lat, srcOffset, 1, x, y, dstOffset, numPoints);
+        projectBatch(x, y, dstOffset, x, y, dstOffset, numPoints);
+        scaleAndShift(x, y, dstOffset, numPoints);
+    }
+
+    /**
+     * Structure-of-arrays version of toRelativeRadians(). Longitude and
+     * latitude are processed in separate unit-stride loops.
+     */
+    private void toRelativeRadians(double[] lon, double[] lat, int srcOffset, double toRadians,
+            double[] lam, double[] phi, int dstOffset, int numPoints) {
+        if (projectionLongitude != 0) {
+            final double lon0 = projectionLongitude;
+            for (int i = 0; i < numPoints; i++) {
+                final double l = lon[srcOffset + i] * toRadians - lon0;
+                lam[dstOffset + i] = Double.isNaN(l) ? l : MapMath.normalizeLongitude(l);
+            }
+        } else if (toRadians != 1 || lon != lam || srcOffset != dstOffset) {
+            for (int i = 0; i < numPoints; i++) {
+                lam[dstOffset + i] = lon[srcOffset + i] * toRadians;
+            }
+        }
+        if (toRadians != 1 || lat != phi || srcOffset != dstOffset) {
+            for (int i = 0; i < numPoints; i++) {
+                phi[dstOffset + i] = lat[srcOffset + i] * toRadians;
+            }
+        }
+    }
+
+    /**
+     * Structure-of-arrays version of scaleAndShift().
+     */
+    private void scaleAndShift(double[] x, double[] y, int offset, int numPoints) {
+        final double k = totalScale;
+        final double x0 = totalFalseEasting;
+        final double y0 = totalFalseNorthing;
+        final int end = offset + numPoints;
+        for (int i = offset; i < end; i++) {
+            x[i] = k * x[i] + x0;
+        }
+        for (int i = offset; i < end; i++) {
+            y[i] = k * y[i] + y0;
         }
     }
 
@@ -327,34 +532,298 @@ public abstract class Projection implements Cloneable, Serializable {
     }
 
     /**
-     * Inverse-project a number of points (in metres), producing a lat/long
-     * result in degrees
+     * Inverse-project a number of interleaved points on the unary sphere. This
+     * is the batch equivalent of projectInverse() and is called by the array
+     * variants of inverseTransform() after the false origin and the total
+     * scale have been removed. The default implementation calls
+     * projectInverse() for each point and stores NaN for points that cannot
+     * be inverse-projected. Derived classes may override this with a tighter
+     * loop. Source and destination may be the same array with the same
+     * offset.
+     *
+     * @param src Interleaved x and y coordinates on the unary sphere.
+     * @param srcOffset Index of the first x coordinate in src.
+     * @param dst Receives the interleaved longitude and latitude in radians.
+     * @param dstOffset Index of the first longitude in dst.
+     * @param numPoints Number of points to inverse-project.
      */
-    public void inverseTransform(double[] srcPoints, int srcOffset, double[] dstPoints, int dstOffset, int numPoints) {
-        Point2D.Double in = new Point2D.Double();
+    protected void projectInverseBatch(double[] src, int srcOffset, double[] dst, int dstOffset, int numPoints) {
         Point2D.Double out = new Point2D.Double();
-        for (int i = 0; i < numPoints; i++) {
-            in.x = srcPoints[srcOffset++];
-            in.y = srcPoints[srcOffset++];
-            inverseTransform(in, out);
-            dstPoints[dstOffset++] = out.x;
-            dstPoints[dstOffset++] = out.y;
+        final int end = srcOffset + 2 * numPoints;
+        for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+            try {
+                projectInverse(src[i], src[i + 1], out);
+                dst[j] = out.x;
+                dst[j + 1] = out.y;
+            } catch (ProjectionException e) {
+                dst[j] = dst[j + 1] = Double.NaN;
+            }
         }
     }
 
     /**
      * Inverse-project a number of points (in metres), producing a lat/long
-     * result in radians
+     * result in degrees. Points that cannot be inverse-projected, for example
+     * because they are outside of the graticule, result in NaN values instead
+     * of an exception. Source and destination may be the same array with the
+     * same offset.
+     */
+    public void inverseTransform(double[] srcPoints, int srcOffset, double[] dstPoints, int dstOffset, int numPoints) {
+        unscaleAndShift(srcPoints, srcOffset, dstPoints, dstOffset, numPoints);
+        projectInverseBatch(dstPoints, dstOffset, dstPoints, dstOffset, numPoints);
+        toAbsoluteLonLat(dstPoints, dstOffset, RTD, numPoints);
+    }
+
+    /**
+     * Inverse-project a number of points (in metres), producing a lat/long
+     * result in radians. Points that cannot be inverse-projected result in NaN
+     * values. Source and destination may be the same array with the same
+     * offset.
      */
     public void inverseTransformRadians(double[] srcPoints, int srcOffset, double[] dstPoints, int dstOffset, int numPoints) {
-        Point2D.Double in = new Point2D.Double();
+        unscaleAndShift(srcPoints, srcOffset, dstPoints, dstOffset, numPoints);
+        projectInverseBatch(dstPoints, dstOffset, dstPoints, dstOffset, numPoints);
+        toAbsoluteLonLat(dstPoints, dstOffset, 1, numPoints);
+    }
+
+    /**
+     * Removes the false origin and the total scale from interleaved points.
+     * This is the first stage of the array variants of inverseTransform().
+     */
+    private void unscaleAndShift(double[] src, int srcOffset, double[] dst, int dstOffset, int numPoints) {
+        final double k = totalScale;
+        final double x0 = totalFalseEasting;
+        final double y0 = totalFalseNorthing;
+        final int end = srcOffset + 2 * numPoints;
+        for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+            dst[j] = (src[i] - x0) / k;
+            dst[j + 1] = (src[i + 1] - y0) / k;
+        }
+    }
+
+    /**
+     * Clamps the longitude of interleaved lon/lat points to +/-PI, adds the
+     * projection centre and converts to the requested unit. This is the last
+     * stage of the array variants of inverseTransform(). NaN values of points
+     * that could not be inverse-projected are kept.
+     *
+     * @param fromRadians 1 for radians, RTD for degrees.
+     */
+    private void toAbsoluteLonLat(double[] pts, int offset, double fromRadians, int numPoints) {
+        final double lon0 = projectionLongitude;
+        final int end = offset + 2 * numPoints;
+        for (int i = offset; i < end; i += 2) {
+            double lon = pts[i];
+            if (lon < -Math.PI) {
+                lon = -Math.PI;
+            } else if (lon > Math.PI) {
+                lon = Math.PI;
+            }
+            if (lon0 != 0 && !Double.isNaN(lon)) {
+                lon = MapMath.normalizeLongitude(lon + lon0);
+            }
+            pts[i] = lon * fromRadians;
+            pts[i + 1] *= fromRadians;
+        }
+    }
+
+    /**
+     * Inverse-project a number of points on the unary sphere stored in
+     * separate arrays. This is the structure-of-arrays equivalent of
+     * projectInverseBatch(double[], int, double[], int, int). The default
+     * implementation calls projectInverse() for each point and stores NaN for
+     * points that cannot be inverse-projected. Source and destination arrays
+     * may be identical.
+     *
+     * @param x The x coordinates on the unary sphere.
+     * @param y The y coordinates on the unary sphere.
+     * @param srcOffset Index of the first point in x and y.
+     * @param lam Receives the longitudes in radians.
+     * @param phi Receives the latitudes in radians.
+     * @param dstOffset Index of the first point in lam and phi.
+     * @param numPoints Number of points to inverse-project.
+     */
+    protected void projectInverseBatch(double[] x, double[] y, int srcOffset,
+            double[] lam, double[] phi, int dstOffset, int numPoints) {
         Point2D.Double out = new Point2D.Double();
         for (int i = 0; i < numPoints; i++) {
-            in.x = srcPoints[srcOffset++];
-            in.y = srcPoints[srcOffset++];
-            inverseTransformRadians(in, out);
-            dstPoints[dstOffset++] = out.x;
-            dstPoints[dstOffset++] = out.y;
+            try {
+                projectInverse(x[srcOffset + i], y[srcOffset + i], out);
+                lam[dstOffset + i] = out.x;
+                phi[dstOffset + i] = out.y;
+            } catch (ProjectionException e) {
+                lam[dstOffset + i] = phi[dstOffset + i] = Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * Inverse-project a number of points (in metres) stored in separate
+     * arrays, producing a lon/lat result in degrees. Points that cannot be
+     * inverse-projected result in NaN values. The results can be written in
+     * place by passing x and y as lon and lat.
+     *
+     * @param x The x coordinates in metres.
+     * @param y The y coordinates in metres.
+     * @param srcOffset Index of the first point in x and y.
+     * @param lon Receives the longitudes in degrees.
+     * @param lat Receives the latitudes in degrees.
+     * @param dstOffset Index of the first point in lon and lat.
+     * @param numPoints Number of points to inverse-project.
+     */
+    public void inverseTransform(double[] x, double[] y, int srcOffset,
+            double[] lon, double[] lat, int dstOffset, int numPoints) {
+        unscaleAndShift(x, y, srcOffset, lon, lat, dstOffset, numPoints);
+        projectInverseBatch(lon, lat, dstOffset, lon, lat, dstOffset, numPoints);
+        toAbsoluteLonLat(lon, lat, dstOffset, RTD, numPoints);
+    }
+
+    /**
+     * Inverse-project a number of points (in metres) stored in separate
+     * arrays, producing a lon/lat result in radians. Points that cannot be
+     * inverse-projected result in NaN values. The results can be written in
+     * place by passing x and y as lon and lat.
+     *
+     * @param x The x coordinates in metres.
+     * @param y The y coordinates in metres.
+     * @param srcOffset Index of the first point in x and y.
+     * @param lon Receives the longitudes in radians.
+     * @param lat Receives the latitudes in radians.
+     * @param dstOffset Index of the first point in lon and lat.
+     * @param numPoints Number of points to inverse-project.
+     */
+    public void inverseTransformRadians(double[] x, double[] y, int srcOffset,
+            double[] lon, double[] lat, int dstOffset, int numPoints) {
+        unscaleAndShift(x, y, srcOffset, lon, lat, dstOffset, numPoints);
+        projectInverseBatch(lon, lat, dstOffset, lon, lat, dstOffset, numPoints);
+        toAbsoluteLonLat(lon, lat, dstOffset, 1, numPoints);
+    }
+
+    /**
+     * Structure-of-arrays version of unscaleAndShift().
+     */
+    private void unscaleAndShift(double[] x, double[] y, int srcOffset,
+            double[] u, double[] v, int dstOffset, int numPoints) {
+        final double k = totalScale;
+        final double x0 = totalFalseEasting;
+        final double y0 = totalFalseNorthing;
+        for (int i = 0; i < numPoints; i++) {
+            u[dstOffset + i] = (x[srcOffset + i] - x0) / k;
+        }
+        for (int i = 0; i < numPoints; i++) {
+            v[dstOffset + i] = (y[srcOffset + i] - y0) / k;
+        }
+    }
+
+    /**
+     * Structure-of-arrays version of toAbsoluteLonLat().
+     */
+    private void toAbsoluteLonLat(double[] lon, double[] lat, int offset,
+            double fromRadians, int numPoints) {
+        final double lon0 = projectionLongitude;
+        final int end = offset + numPoints;
+        for (int i = offset; i < end; i++) {
+            double l = lon[i];
+            if (l < -Math.PI) {
+                l = -Math.PI;
+            } else if (l > Math.PI) {
+                l = Math.PI;
+            }
+            if (lon0 != 0 && !Double.isNaN(l)) {
+                l = MapMath.normalizeLongitude(l + lon0);
+            }
+            lon[i] = l * fromRadians;
+        }
+        if (fromRadians != 1) {
+            for (int i = offset; i < end; i++) {
+                lat[i] *= fromRadians;
+            }
+        }
+    }
+
+    /**
+     * Project a number of interleaved lon/lat points (in degrees) stored in a
+     * DoubleBuffer, producing a result in metres. Indices are absolute; the
+     * positions of the buffers are not changed. Source and destination may be
+     * the same buffer with the same index, which allows for projecting a
+     * memory-mapped file in place.
+     *
+     * @param src Interleaved longitude and latitude in degrees.
+     * @param srcIndex Index of the first longitude in src.
+     * @param dst Receives the interleaved x and y coordinates in metres.
+     * @param dstIndex Index of the first x coordinate in dst.
+     * @param numPoints Number of points to project.
+     */
+    public void transform(DoubleBuffer src, int srcIndex, DoubleBuffer dst, int dstIndex, int numPoints) {
+        transform(src, srcIndex, dst, dstIndex, numPoints, false, false);
+    }
+
+    /**
+     * Project a number of interleaved lon/lat points (in radians) stored in a
+     * DoubleBuffer, producing a result in metres. See
+     * transform(DoubleBuffer, int, DoubleBuffer, int, int).
+     */
+    public void transformRadians(DoubleBuffer src, int srcIndex, DoubleBuffer dst, int dstIndex, int numPoints) {
+        transform(src, srcIndex, dst, dstIndex, numPoints, false, true);
+    }
+
+    /**
+     * Inverse-project a number of interleaved points (in metres) stored in a
+     * DoubleBuffer, producing a lon/lat result in degrees. See
+     * transform(DoubleBuffer, int, DoubleBuffer, int, int).
+     */
+    public void inverseTransform(DoubleBuffer src, int srcIndex, DoubleBuffer dst, int dstIndex, int numPoints) {
+        transform(src, srcIndex, dst, dstIndex, numPoints, true, false);
+    }
+
+    /**
+     * Inverse-project a number of interleaved points (in metres) stored in a
+     * DoubleBuffer, producing a lon/lat result in radians. See
+     * transform(DoubleBuffer, int, DoubleBuffer, int, int).
+     */
+    public void inverseTransformRadians(DoubleBuffer src, int srcIndex, DoubleBuffer dst, int dstIndex, int numPoints) {
+        transform(src, srcIndex, dst, dstIndex, numPoints, true, true);
+    }
+
+    /**
+     * Shared implementation of the DoubleBuffer variants. Buffers backed by
+     * accessible arrays are passed directly to the array variants. Direct
+     * buffers are streamed through a small scratch array, so the amount of
+     * heap memory used does not depend on the number of points.
+     */
+    private void transform(DoubleBuffer src, int srcIndex, DoubleBuffer dst, int dstIndex,
+            int numPoints, boolean inverse, boolean radians) {
+        if (src.hasArray() && dst.hasArray()) {
+            transform(src.array(), src.arrayOffset() + srcIndex,
+                    dst.array(), dst.arrayOffset() + dstIndex,
+                    numPoints, inverse, radians);
+            return;
+        }
+        final double[] tmp = new double[2 * Math.min(numPoints, BUFFER_CHUNK_POINTS)];
+        final DoubleBuffer in = src.duplicate();
+        final DoubleBuffer out = dst.duplicate();
+        in.position(srcIndex);
+        out.position(dstIndex);
+        for (int done = 0; done < numPoints; done += BUFFER_CHUNK_POINTS) {
+            final int n = Math.min(BUFFER_CHUNK_POINTS, numPoints - done);
+            in.get(tmp, 0, 2 * n);
+            transform(tmp, 0, tmp, 0, n, inverse, radians);
+            out.put(tmp, 0, 2 * n);
+        }
+    }
+
+    private void transform(double[] src, int srcOffset, double[] dst, int dstOffset,
+            int numPoints, boolean inverse, boolean radians) {
+        if (inverse) {
+            if (radians) {
+                inverseTransformRadians(src, srcOffset, dst, dstOffset, numPoints);
+            } else {
+                inverseTransform(src, srcOffset, dst, dstOffset, numPoints);
+            }
+        } else if (radians) {
+            transformRadians(src, srcOffset, dst, dstOffset, numPoints);
+        } else {
+            transform(src, srcOffset, dst, dstOffset, numPoints);
         }
     }
 
@@ -500,6 +969,334 @@ public abstract class Projection implements Cloneable, Serializable {
         lp.y = lat;
     }
 
+    /**
+     * Compute the inverse projection with Newton's method, starting from x and
+     * y as approximations of longitude and latitude, with the latitude
+     * clamped to +/-89.9 degrees. If an InverseGrid has
+     * been attached with setInverseGrid(), the grid provides the
+     * approximation instead. See
+     * newtonInverse(double, double, double, double, Point2D.Double).
+     *
+     * @param x The projected x coordinate relative to the unary sphere.
+     * @param y The projected y coordinate relative to the unary sphere.
+     * @param lp A point that will receive the result.
+     * @return The number of iterations, or -1 if the method did not converge.
+     */
+    protected int newtonInverse(double x, double y, Point2D.Double lp) {
+        final InverseGrid grid = inverseGrid;
+        if (grid != null) {
+            return grid.projectInverse(this, x, y, lp);
+        }
+        return newtonInverse(x, y, newtonGuessLongitude(x), newtonGuessLatitude(y), lp);
+    }
+
+    /**
+     * Returns the default first approximation of the longitude for
+     * newtonInverse.
+     *
+     * @param x The projected x coordinate relative to the unary sphere.
+     * @return The longitude in radians.
+     */
+    static double newtonGuessLongitude(double x) {
+        return Math.max(-Math.PI, Math.min(Math.PI, x));
+    }
+
+    /**
+     * Returns the default first approximation of the latitude for
+     * newtonInverse.
+     *
+     * @param y The projected y coordinate relative to the unary sphere.
+     * @return The latitude in radians.
+     */
+    static double newtonGuessLatitude(double y) {
+        return Math.max(-NEWTON_MAX_GUESS_LATITUDE, Math.min(NEWTON_MAX_GUESS_LATITUDE, y));
+    }
+
+    /**
+     * Compute the inverse projection with Newton's method for two variables.
+     * This is a generic inverse for projections that do not provide their own
+     * projectInverse method. It usually needs less than ten forward
+     * projections per point, compared to up to 1000 for binarySearchInverse.
+     * The partial derivatives are taken from partialDerivatives() if a
+     * projection overrides it, otherwise they are approximated with finite
+     * differences. Steps that would leave the sphere (+/-180 degrees of
+     * longitude and +/-90 degrees of latitude) are shortened. The bounds of
+     * the projection (minLongitude to maxLongitude and minLatitude to
+     * maxLatitude) are not used, because they may only limit the displayed
+     * graticule. Points that cannot be reached, for example because they are
+     * outside of the graticule, result in NaN values. The iteration stops
+     * early for such points when a step shortened at the border no longer
+     * moves the approximation and the residual no longer decreases.
+     *
+     * @param x The projected x coordinate relative to the unary sphere.
+     * @param y The projected y coordinate relative to the unary sphere.
+     * @param lon An approximation of the longitude in radians.
+     * @param lat An approximation of the latitude in radians.
+     * @param lp A point that will receive the result.
+     * @return The number of iterations, or -1 if the method did not converge.
+     */
+    protected int newtonInverse(double x, double y, double lon, double lat,
+            Point2D.Double lp) {
+        return newtonInverse(x, y, lon, lat, 1e-12, 30, lp);
+    }
+
+    /**
+     * Compute the inverse projection with Newton's method for two variables,
+     * with a custom tolerance and a custom maximum number of iterations. See
+     * newtonInverse(double, double, double, double, Point2D.Double).
+     *
+     * @param x The projected x coordinate relative to the unary sphere.
+     * @param y The projected y coordinate relative to the unary sphere.
+     * @param lon An approximation of the longitude in radians.
+     * @param lat An approximation of the latitude in radians.
+     * @param tol Tolerance in projected coordinates on the unary sphere.
+     * @param maxIter Maximum number of forward projections of the
+     * approximation, including the one that tests for convergence.
+     * @param lp A point that will receive the result.
+     * @return The number of iterations, or -1 if the method did not converge.
+     */
+    protected int newtonInverse(double x, double y, double lon, double lat,
+            double tol, int maxIter, Point2D.Double lp) {
+
+        // step size for finite differences in radians
+        final double H = 1e-7;
+
+        // distance to the bounds in radians below which steps leaving the
+        // bounds end on the border
+        final double SNAP = 1e-6;
+
+        // a step shortened at the border that moves the approximation less
+        // than this distance in radians, followed by a residual that does not
+        // decrease, indicates an unreachable point
+        final double STALL = 1e-9;
+
+        // borders crossed by the last step: 1 west, 2 east, 4 south, 8 north
+        int exits = 0;
+        // true if the last step was shortened at the border and hardly moved
+        boolean stalled = false;
+        double prevResidual = Double.POSITIVE_INFINITY;
+        Point2D.Double xy = new Point2D.Double();
+        Point2D.Double dLon = new Point2D.Double();
+        Point2D.Double dLat = new Point2D.Double();
+        for (int i = 1; i <= maxIter; i++) {
+            project(lon, lat, xy);
+            final double fx = xy.x - x;
+            final double fy = xy.y - y;
+            if (Math.abs(fx) < tol && Math.abs(fy) < tol) {
+                lp.x = lon;
+                lp.y = lat;
+                return i;
+            }
+
+            // points outside of the graticule end up stuck on the border
+            final double residual = Math.abs(fx) + Math.abs(fy);
+            if (stalled && !(residual < prevResidual)) {
+                break;
+            }
+            prevResidual = residual;
+
+            if (!partialDerivatives(lon, lat, dLon, dLat)) {
+                // forward differences, stepping away from the graticule border
+                final double hLon = lon + H > Math.PI ? -H : H;
+                final double hLat = lat + H > MapMath.HALFPI ? -H : H;
+                project(lon + hLon, lat, dLon);
+                dLon.x = (dLon.x - xy.x) / hLon;
+                dLon.y = (dLon.y - xy.y) / hLon;
+                project(lon, lat + hLat, dLat);
+                dLat.x = (dLat.x - xy.x) / hLat;
+                dLat.y = (dLat.y - xy.y) / hLat;
+            }
+
+            // solve the 2x2 linear system J * delta = f
+            final double det = dLon.x * dLat.y - dLat.x * dLon.y;
+            if (det == 0 || Double.isNaN(det)) {
+                break;
+            }
+            final double lon1 = lon - (fx * dLat.y - fy * dLat.x) / det;
+            final double lat1 = lat - (fy * dLon.x - fx * dLon.y) / det;
+
+            // a step leaving the sphere only goes half way to the border, or
+            // onto the border if the previous step left across the same border
+            // or if the approximation is already close to the border
+            final int prevExits = exits;
+            exits = (lon1 < -Math.PI ? 1 : 0) | (lon1 > Math.PI ? 2 : 0)
+                    | (lat1 < -MapMath.HALFPI ? 4 : 0) | (lat1 > MapMath.HALFPI ? 8 : 0);
+            final int snap = exits & prevExits;
+            final double prevLon = lon;
+            final double prevLat = lat;
+            if (lon1 < -Math.PI) {
+                lon = (snap & 1) != 0 || lon + Math.PI < SNAP ? -Math.PI : 0.5 * (lon - Math.PI);
+            } else if (lon1 > Math.PI) {
+                lon = (snap & 2) != 0 || Math.PI - lon < SNAP ? Math.PI : 0.5 * (lon + Math.PI);
+            } else {
+                lon = lon1;
+            }
+            if (lat1 < -MapMath.HALFPI) {
+                lat = (snap & 4) != 0 || lat + MapMath.HALFPI < SNAP ? -MapMath.HALFPI : 0.5 * (lat - MapMath.HALFPI);
+            } else if (lat1 > MapMath.HALFPI) {
+                lat = (snap & 8) != 0 || MapMath.HALFPI - lat < SNAP ? MapMath.HALFPI : 0.5 * (lat + MapMath.HALFPI);
+            } else {
+                lat = lat1;
+            }
+
+            stalled = exits != 0 && Math.abs(lon - prevLon) + Math.abs(lat - prevLat) < STALL;
+        }
+        lp.x = Double.NaN;
+        lp.y = Double.NaN;
+        return -1;
+    }
+
+    /**
+     * Computes the partial derivatives of the forward projection on the unary
+     * sphere. This is used by newtonInverse. Projections with a closed-form
+     * Jacobian may override this method; the default implementation returns
+     * false, in which case finite differences are used.
+     *
+     * @param lam Longitude in radians.
+     * @param phi Latitude in radians.
+     * @param dLam Receives dx/dlam and dy/dlam.
+     * @param dPhi Receives dx/dphi and dy/dphi.
+     * @return true if the derivatives were computed, false otherwise.
+     */
+    protected boolean partialDerivatives(double lam, double phi,
+            Point2D.Double dLam, Point2D.Double dPhi) {
+        return false;
+    }
+
+    /**
+     * Attach a precomputed inverse grid. Projections that use newtonInverse
+     * then start from an approximation interpolated in the grid, which needs
+     * far fewer iterations. The grid must have been created for this
+     * projection with the current parameters; pass null to remove the grid.
+     *
+     * @param inverseGrid The grid or null.
+     */
+    public void setInverseGrid(InverseGrid inverseGrid) {
+        if (inverseGrid != null && !inverseGrid.matches(this)) {
+            throw new IllegalArgumentException("grid created for different projection parameters");
+        }
+        this.inverseGrid = inverseGrid;
+    }
+
+    public InverseGrid getInverseGrid() {
+        return inverseGrid;
+    }
+
+    /**
+     * Returns a string that identifies the shape of this projection on the
+     * unary sphere: the class, the area tested by inside() (the bounds and
+     * the domain circle), and the results of project() for a few probe
+     * points. Parameters that do not change the shape, such as
+     * the ellipsoid radius, the false origin or the central meridian, do not
+     * change this fingerprint. InverseGrid uses it to match grids to
+     * projections.
+     */
+    String getShapeFingerprint() {
+        StringBuilder sb = new StringBuilder(getClass().getName());
+        final double minLon = getMinLongitude();
+        final double maxLon = getMaxLongitude();
+        final double minLat = getMinLatitude();
+        final double maxLat = getMaxLatitude();
+        appendFingerprint(sb, minLon);
+        appendFingerprint(sb, maxLon);
+        appendFingerprint(sb, minLat);
+        appendFingerprint(sb, maxLat);
+        appendFingerprint(sb, getDomainRadiusDegrees());
+        appendFingerprint(sb, getDomainCentreLatitudeDegrees());
+        Point2D.Double pt = new Point2D.Double();
+        final double[] f = {0.1, 0.37, 0.5, 0.81};
+        for (int r = 0; r < f.length; r++) {
+            for (int c = 0; c < f.length; c++) {
+                try {
+                    project(minLon + (maxLon - minLon) * f[c],
+                            minLat + (maxLat - minLat) * f[r], pt);
+                    appendFingerprint(sb, pt.x);
+                    appendFingerprint(sb, pt.y);
+                } catch (ProjectionException exc) {
+                    sb.append(" -");
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns a string that identifies this initialized projection: the class
+     * and the values of all instance fields of the class and its super
+     * classes. These include all parameters, such as lat_1 and lat_2 of conic
+     * projections, and the values that initialize() derives from them. Fields
+     * that hold other objects, such as the ellipsoid or the projections
+     * combined by the Goode projection, are included with their fields.
+     * Transient fields are ignored; projections that use fields as scratch
+     * space while projecting should declare them transient, as otherwise the
+     * fingerprint changes when the projection is used. Caches of projected
+     * data use it as a key.
+     */
+    public String getFingerprint() {
+        StringBuilder sb = new StringBuilder(256);
+        appendFingerprint(sb, this);
+        return sb.substring(1);
+    }
+
+    /**
+     * Non-static, non-transient instance fields of a class and its super
+     * classes, made accessible once per class for getFingerprint().
+     */
+    private static final ClassValue<Field[]> FINGERPRINT_FIELDS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            ArrayList<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    final int mod = field.getModifiers();
+                    if (!Modifier.isStatic(mod) && !Modifier.isTransient(mod)) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields.toArray(new Field[fields.size()]);
+        }
+    };
+
+    private static void appendFingerprint(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append(" null");
+        } else if (value instanceof Double) {
+            appendFingerprint(sb, ((Double) value).doubleValue());
+        } else if (value instanceof Float) {
+            appendFingerprint(sb, ((Float) value).doubleValue());
+        } else if (value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum) {
+            sb.append(' ').append(value);
+        } else if (value instanceof String) {
+            // the length keeps strings with spaces unambiguous
+            final String str = (String) value;
+            sb.append(' ').append(str.length()).append(':').append(str);
+        } else if (value.getClass().isArray()) {
+            final int n = Array.getLength(value);
+            sb.append(" [").append(n);
+            for (int i = 0; i < n; i++) {
+                appendFingerprint(sb, Array.get(value, i));
+            }
+            sb.append(" ]");
+        } else {
+            sb.append(' ').append(value.getClass().getName()).append(" {");
+            try {
+                for (Field field : FINGERPRINT_FIELDS.get(value.getClass())) {
+                    appendFingerprint(sb, field.get(value));
+                }
+            } catch (IllegalAccessException exc) {
+                throw new IllegalStateException(exc);
+            }
+            sb.append(" }");
+        }
+    }
+
+    private static void appendFingerprint(StringBuilder sb, double v) {
+        sb.append(' ').append(Long.toHexString(Double.doubleToLongBits(v)));
+    }
+
     /**
      * Transform a bounding box. This is only a rough estimate.
      */
@@ -568,6 +1365,20 @@ public abstract class Projection implements Cloneable, Serializable {
         return false;
     }
 
+    /**
+     * Returns true if project() and projectInverse() can be called
+     * concurrently from several threads on this instance once initialize()
+     * has been called. This is the case if these methods only read fields
+     * computed by initialize(). Projections that use fields as scratch space
+     * must return false; such instances must be cloned for each thread.
+     * ParallelProjector relies on this method.
+     *
+     * @return true if the projection methods are reentrant, false otherwise.
+     */
+    public boolean isReentrant() {
+        return false;
+    }
+
     /**
      * Returns true if lat/long lines form a rectangular grid for this
      * projection. This is generally only the case for cylindrical projections,
@@ -588,6 +1399,27 @@ public abstract class Projection implements Cloneable, Serializable {
         return isRectilinear();
     }
 
+    /**
+     * Returns true if meridians (lines of constant longitude) are straight
+     * lines. This is the case for cylindrical projections, conic projections
+     * and azimuthal projections in polar aspect.
+     *
+     * @return true if lines of constant longitude are straight.
+     */
+    public boolean meridiansAreStraight() {
+        return isRectilinear();
+    }
+
+    /**
+     * Returns true if all great circles are straight lines, which is only the
+     * case for the gnomonic projection.
+     *
+     * @return true if great circles are straight.
+     */
+    public boolean greatCirclesAreStraight() {
+        return false;
+    }
+
     /**
      * Returns true if the given lat/lon point is visible in this projection.
      *
@@ -601,6 +1433,30 @@ public abstract class Projection implements Cloneable, Serializable {
         return minLongitude <= lon && lon <= maxLongitude && minLatitude <= lat && lat <= maxLatitude;
     }
 
+    /**
+     * Returns the angular radius of the circle that bounds the visible area
+     * if inside() tests the distance to a centre point instead of the
+     * longitude and latitude bounds. Points on the circle are not inside.
+     * The centre is at the projection longitude and at
+     * getDomainCentreLatitudeDegrees().
+     *
+     * @return the radius in degrees, or 0 if inside() tests the longitude and
+     * latitude bounds.
+     */
+    public double getDomainRadiusDegrees() {
+        return 0;
+    }
+
+    /**
+     * Returns the latitude of the centre of the circle returned by
+     * getDomainRadiusDegrees().
+     *
+     * @return the latitude in degrees.
+     */
+    public double getDomainCentreLatitudeDegrees() {
+        return getProjectionLatitudeDegrees();
+    }
+
     /**
      * Returns the name of the projection.
      *
@@ -733,6 +1589,15 @@ public abstract class Projection implements Cloneable, Serializable {
         if (fromMetres != 1) {
             sb.append(" +fr_meters=" + fromMetres);
         }
+        if (toWGS84 != null) {
+            sb.append(" +towgs84=");
+            for (int i = 0; i < toWGS84.length; i++) {
+                sb.append(i == 0 ? "" : ",").append(toWGS84[i]);
+            }
+        }
+        if (gridShiftFiles != null) {
+            sb.append(" +nadgrids=").append(gridShiftFiles);
+        }
         return sb.toString();
     }
 
@@ -921,6 +1786,42 @@ public abstract class Projection implements Cloneable, Serializable {
         return fromMetres;
     }
 
+    /**
+     * Set the parameters of the transformation of the datum to WGS 84: either
+     * 3 translations in metres, or 3 translations, 3 rotations in arc seconds
+     * and a scale difference in parts per million, as with the PROJ.4
+     * parameter towgs84. The projection does not transform datums.
+     *
+     * @param toWGS84 The parameters, or null.
+     */
+    public void setToWGS84(double[] toWGS84) {
+        if (toWGS84 != null && toWGS84.length != 3 && toWGS84.length != 7) {
+            throw new IllegalArgumentException("3 or 7 parameters required");
+        }
+        this.toWGS84 = toWGS84 == null ? null : toWGS84.clone();
+    }
+
+    /**
+     * Returns the parameters of the transformation of the datum to WGS 84, or
+     * null.
+     */
+    public double[] getToWGS84() {
+        return toWGS84 == null ? null : toWGS84.clone();
+    }
+
+    /**
+     * Set the comma-separated names of the grid shift files of the datum, as
+     * with the PROJ.4 parameter nadgrids. The projection does not transform
+     * datums.
+     */
+    public void setGridShiftFiles(String gridShiftFiles) {
+        this.gridShiftFiles = gridShiftFiles;
+    }
+
+    public String getGridShiftFiles() {
+        return gridShiftFiles;
+    }
+
     public void setEllipsoid(Ellipsoid ellipsoid) {
         this.ellipsoid = ellipsoid;
         a = ellipsoid.equatorRadius;
@@ -0,0 +1,226 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of initialized projections, identified by their PROJ.4
+ * definition. A projection is created and initialized once for each
+ * definition; later requests return the cached projection or a clone of it.
+ *
+ * Definitions are canonicalized before they are looked up: arguments that do
+ * not start with '+' are ignored, the last value of a repeated key is used,
+ * and the keys are sorted. "+proj=merc +lon_0=10" and
+ * "+lon_0=10 +proj=merc" therefore share an entry. When the cache is full,
+ * the least recently used entry is removed.
+ *
+ * The cached projections are never handed out. get() returns a clone of the
+ * initialized projection, which is cheap to create compared to parsing and
+ * initializing. The clone belongs to the caller and its parameters can be
+ * modified without affecting the cache or other callers. Projection.clone()
+ * copies the towgs84 parameters set by the parser; the arrays computed by
+ * initialize() are shared but never modified in place, and the Ellipsoid
+ * object is shared and must not be modified.
+ *
+ * The cache is thread-safe. Projections are created outside of the lock; two
+ * threads missing the same definition at the same time may both create the
+ * projection, and only one of them is stored.
+ */
+public final class ProjectionCache {
+
+    /**
+     * Default maximum number of projections.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final ProjectionCache defaultCache = new ProjectionCache(DEFAULT_CAPACITY);
+
+    private final int capacity;
+
+    /**
+     * Initialized projections in the order of access. Access must be
+     * synchronized on the map.
+     */
+    private final LinkedHashMap<String, Projection> projections;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Creates a cache.
+     *
+     * @param capacity The maximum number of projections.
+     */
+    public ProjectionCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.capacity = capacity;
+        this.projections = new LinkedHashMap<String, Projection>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Projection> eldest) {
+                if (size() > ProjectionCache.this.capacity) {
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a cache shared by all users of the library.
+     */
+    public static ProjectionCache getDefault() {
+        return defaultCache;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns an initialized projection for a PROJ.4 definition.
+     *
+     * @param definition The definition, for example "+proj=merc +lon_0=10".
+     * @return A new clone of the cached projection.
+     */
+    public Projection get(String definition) {
+        return get(definition.trim().split("\\s+"));
+    }
+
+    /**
+     * Returns an initialized projection for a PROJ.4 argument list.
+     *
+     * @param args The arguments, for example {"+proj=merc", "+lon_0=10"}.
+     * @return A new clone of the cached projection.
+     */
+    public Projection get(String[] args) {
+        return (Projection) lookup(args).clone();
+    }
+
+    private Projection lookup(String[] args) {
+        final PROJ4Parameters params = PROJ4Parameters.fromArguments(args);
+        final String key = canonicalDefinition(params);
+        Projection projection;
+        synchronized (projections) {
+            projection = projections.get(key);
+        }
+        if (projection != null) {
+            hitCount.increment();
+            return projection;
+        }
+        missCount.increment();
+
+        if (!params.containsKey("proj") && !params.containsKey("init")) {
+            throw new ProjectionException("No projection in " + key);
+        }
+        projection = ProjectionFactory.fromPROJ4Parameters(params);
+        projection.initialize();
+        synchronized (projections) {
+            Projection existing = projections.putIfAbsent(key, projection);
+            return existing == null ? projection : existing;
+        }
+    }
+
+    /**
+     * Returns the canonical form of a PROJ.4 argument list: the arguments
+     * starting with '+', each key once with its last value, sorted by key.
+     */
+    public static String canonicalDefinition(String[] args) {
+        return canonicalDefinition(PROJ4Parameters.fromArguments(args));
+    }
+
+    private static String canonicalDefinition(PROJ4Parameters params) {
+        TreeMap<String, String> sorted = new TreeMap<>();
+        for (String arg : params.toArguments()) {
+            final int eq = arg.indexOf('=');
+            if (eq < 0) {
+                sorted.put(arg, "");
+            } else {
+                sorted.put(arg.substring(0, eq), arg.substring(eq));
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> e : sorted.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(e.getKey()).append(e.getValue());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the number of cached projections.
+     */
+    public int size() {
+        synchronized (projections) {
+            return projections.size();
+        }
+    }
+
+    /**
+     * Removes all projections. The statistics are not reset.
+     */
+    public void clear() {
+        synchronized (projections) {
+            projections.clear();
+        }
+    }
+
+    /**
+     * Returns the number of requests answered from the cache since the
+     * creation of this cache or the last call to resetStatistics().
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of requests for which a projection was created.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of projections removed because the cache was full.
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Returns the ratio of hits to all requests.
+     */
+    public double getHitRate() {
+        final long hits = hitCount.sum();
+        final long requests = hits + missCount.sum();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public void resetStatistics() {
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import java.util.function.Supplier;
+
+/**
+ * Describes a projection that can be created by the ProjectionFactory: its
+ * PROJ.4 name, its human-readable name and a factory for new instances. The
+ * names are known without creating a projection.
+ */
+public final class ProjectionDescriptor {
+
+    private final String proj4Name;
+    private final String name;
+    private final Supplier<Projection> factory;
+
+    /**
+     * Creates a descriptor.
+     *
+     * @param proj4Name The PROJ.4 name, for example "robin".
+     * @param name The human-readable name, which must be the name returned by
+     * getName() of the created projections, for example "Robinson".
+     * @param factory Creates a new, uninitialized projection for each call.
+     */
+    public ProjectionDescriptor(String proj4Name, String name, Supplier<Projection> factory) {
+        if (proj4Name == null || name == null || factory == null) {
+            throw new IllegalArgumentException();
+        }
+        this.proj4Name = proj4Name;
+        this.name = name;
+        this.factory = factory;
+    }
+
+    public String getPROJ4Name() {
+        return proj4Name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns a new, uninitialized projection.
+     */
+    public Projection create() {
+        return factory.get();
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + proj4Name + ")";
+    }
+}
@@ -31,561 +31,157 @@ limitations under the License.
  */
 package com.jhlabs.map.proj;
 
-import com.jhlabs.map.*;
-import java.awt.geom.Point2D;
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.StreamTokenizer;
 import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ProjectionFactory {
 
-    private final static double SIXTH = .1666666666666666667;
-    /* 1/6 */
-
-    private final static double RA4 = .04722222222222222222;
-    /* 17/360 */
-
-    private final static double RA6 = .02215608465608465608;
-    /* 67/3024 */
-
-    private final static double RV4 = .06944444444444444444;
-    /* 5/72 */
-
-    private final static double RV6 = .04243827160493827160;
-    /* 55/1296 */
-
-    private static final AngleFormat format = new AngleFormat(AngleFormat.ddmmssPattern, true);
-
     /**
-     * Return a projection initialized with a PROJ.4 argument list.
+     * Return a projection initialized with a PROJ.4 argument list. The
+     * initialize() method of the returned projection must still be called.
+     * ProjectionCache returns initialized projections and avoids creating a
+     * projection again for a definition that is used repeatedly.
      */
     public static Projection fromPROJ4Specification(String[] args) {
-        Projection projection = null;
-        Ellipsoid ellipsoid = null;
-        double a = 0, b = 0, es = 0;
-
-        Hashtable params = new Hashtable();
-        for (int i = 0; i < args.length; i++) {
-            String arg = args[i];
-            if (arg.startsWith("+")) {
-                int index = arg.indexOf('=');
-                if (index != -1) {
-                    String key = arg.substring(1, index);
-                    String value = arg.substring(index + 1);
-                    params.put(key, value);
-                }
-            }
+        PROJ4Parser parser = new PROJ4Parser();
+        for (String arg : args) {
+            parser.parseArgument(arg, 0, arg.length());
         }
+        return parser.createProjection();
+    }
 
-        String s;
-        s = (String) params.get("proj");
-        if (s != null) {
-            projection = getNamedPROJ4Projection(s);
-            if (projection == null) {
-                throw new ProjectionException("Unknown projection: " + s);
-            }
-        }
+    /**
+     * Return a projection initialized with a PROJ.4 definition, for example
+     * "+proj=tmerc +lat_0=0 +lon_0=9 +k=0.9996 +x_0=500000 +ellps=WGS84". The
+     * definition is parsed in a single pass without splitting it into
+     * arguments. The initialize() method of the returned projection must
+     * still be called.
+     */
+    public static Projection fromPROJ4Specification(CharSequence definition) {
+        PROJ4Parser parser = new PROJ4Parser();
+        parser.parse(definition);
+        return parser.createProjection();
+    }
 
-        s = (String) params.get("init");
-        if (s != null) {
-            projection = getNamedPROJ4CoordinateSystem(s);
-            if (projection == null) {
-                throw new ProjectionException("Unknown projection: " + s);
-            }
-            a = projection.getEquatorRadius();
-            es = projection.getEllipsoid().getEccentricitySquared();
+    /**
+     * Return a projection initialized with PROJ.4 parameters. Numbers that
+     * have been parsed in advance are not parsed again.
+     */
+    static Projection fromPROJ4Parameters(PROJ4Parameters params) {
+        PROJ4Parser parser = new PROJ4Parser();
+        for (String key : params.keys()) {
+            parser.setParameter(key, params.get(key), params.getNumber(key));
         }
+        return parser.createProjection();
+    }
 
-        // Set the ellipsoid
-        String ellipsoidName = "";
-        s = (String) params.get("R");
-        if (s != null) {
-            a = Double.parseDouble(s);
-        } else {
-            s = (String) params.get("ellps");
-            if (s == null) {
-                s = (String) params.get("datum");
-            }
-            if (s != null) {
-                Ellipsoid[] ellipsoids = Ellipsoid.ellipsoids;
-                for (int i = 0; i < ellipsoids.length; i++) {
-                    if (ellipsoids[i].shortName.equals(s)) {
-                        ellipsoid = ellipsoids[i];
-                        break;
-                    }
-                }
-                if (ellipsoid == null) {
-                    throw new ProjectionException("Unknown ellipsoid: " + s);
-                }
-                es = ellipsoid.eccentricity2;
-                a = ellipsoid.equatorRadius;
-                ellipsoidName = s;
-            } else {
-                s = (String) params.get("a");
-                if (s != null) {
-                    a = Double.parseDouble(s);
-                }
-                s = (String) params.get("es");
-                if (s != null) {
-                    es = Double.parseDouble(s);
-                } else {
-                    s = (String) params.get("rf");
-                    if (s != null) {
-                        es = Double.parseDouble(s);
-                        es = es * (2. - es);
-                    } else {
-                        s = (String) params.get("f");
-                        if (s != null) {
-                            es = Double.parseDouble(s);
-                            es = 1.0 / es;
-                            es = es * (2. - es);
-                        } else {
-                            s = (String) params.get("b");
-                            if (s != null) {
-                                b = Double.parseDouble(s);
-                                es = 1. - (b * b) / (a * a);
-                            }
-                        }
-                    }
-                }
-                if (b == 0) {
-                    b = a * Math.sqrt(1. - es);
-                }
-            }
+    /**
+     * The registered projections. The registry is built when it is first
+     * used, which the class loader guarantees to happen once. The built-in
+     * projections are registered first, followed by the projections of each
+     * ProjectionProvider found with the ServiceLoader. No projection is
+     * created.
+     */
+    private static final class Registry {
 
-            s = (String) params.get("R_A");
-            if (s != null && Boolean.getBoolean(s)) {
-                a *= 1. - es * (SIXTH + es * (RA4 + es * RA6));
-            } else {
-                s = (String) params.get("R_V");
-                if (s != null && Boolean.getBoolean(s)) {
-                    a *= 1. - es * (SIXTH + es * (RV4 + es * RV6));
-                } else {
-                    s = (String) params.get("R_a");
-                    if (s != null && Boolean.getBoolean(s)) {
-                        a = .5 * (a + b);
-                    } else {
-                        s = (String) params.get("R_g");
-                        if (s != null && Boolean.getBoolean(s)) {
-                            a = Math.sqrt(a * b);
-                        } else {
-                            s = (String) params.get("R_h");
-                            if (s != null && Boolean.getBoolean(s)) {
-                                a = 2. * a * b / (a + b);
-                                es = 0.;
-                            } else {
-                                s = (String) params.get("R_lat_a");
-                                if (s != null) {
-                                    double tmp = Math.sin(parseAngle(s));
-                                    if (Math.abs(tmp) > MapMath.HALFPI) {
-                                        throw new ProjectionException("-11");
-                                    }
-                                    tmp = 1. - es * tmp * tmp;
-                                    a *= .5 * (1. - es + tmp) / (tmp * Math.sqrt(tmp));
-                                    es = 0.;
-                                } else {
-                                    s = (String) params.get("R_lat_g");
-                                    if (s != null) {
-                                        double tmp = Math.sin(parseAngle(s));
-                                        if (Math.abs(tmp) > MapMath.HALFPI) {
-                                            throw new ProjectionException("-11");
-                                        }
-                                        tmp = 1. - es * tmp * tmp;
-                                        a *= Math.sqrt(1. - es) / tmp;
-                                        es = 0.;
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        projection.setEllipsoid(new Ellipsoid(ellipsoidName, a, es, ellipsoidName));
+        /**
+         * Descriptors by PROJ.4 name.
+         */
+        static final HashMap<String, ProjectionDescriptor> registry = new HashMap<>();
 
-        // Other arguments
-//		projection.setProjectionLatitudeDegrees( 0 );
-//		projection.setProjectionLatitude1Degrees( 0 );
-//		projection.setProjectionLatitude2Degrees( 0 );
-        s = (String) params.get("lat_0");
-        if (s != null) {
-            projection.setProjectionLatitudeDegrees(parseAngle(s));
-        }
-        s = (String) params.get("lon_0");
-        if (s != null) {
-            projection.setProjectionLongitudeDegrees(parseAngle(s));
-        }
-        s = (String) params.get("lat_1");
-        if (s != null && projection instanceof ConicProjection) {
-            ConicProjection conic = (ConicProjection) projection;
-            conic.setProjectionLatitude1Degrees(parseAngle(s));
-        }
-        s = (String) params.get("lat_2");
-        if (s != null && projection instanceof ConicProjection) {
-            ConicProjection conic = (ConicProjection) projection;
-            conic.setProjectionLatitude2Degrees(parseAngle(s));
-        }
-        s = (String) params.get("lat_ts");
-        if (s != null) {
-            projection.setTrueScaleLatitudeDegrees(parseAngle(s));
-        }
-        s = (String) params.get("x_0");
-        if (s != null) {
-            projection.setFalseEasting(Double.parseDouble(s));
-        }
-        s = (String) params.get("y_0");
-        if (s != null) {
-            projection.setFalseNorthing(Double.parseDouble(s));
-        }
+        /**
+         * Descriptors by human-readable name.
+         */
+        static final HashMap<String, ProjectionDescriptor> nameMap = new HashMap<>();
 
-        s = (String) params.get("k_0");
-        if (s == null) {
-            s = (String) params.get("k");
-        }
-        if (s != null) {
-            projection.setScaleFactor(Double.parseDouble(s));
-        }
+        /**
+         * Sorted human-readable names.
+         */
+        static final String[] orderedNames;
 
-        s = (String) params.get("units");
-        if (s != null) {
-            Unit unit = Units.findUnits(s);
-            if (unit != null) {
-                projection.setFromMetres(1.0 / unit.value);
+        static {
+            register(new BuiltInProjections());
+            try {
+                for (ProjectionProvider provider : ServiceLoader.load(ProjectionProvider.class)) {
+                    register(provider);
+                }
+            } catch (ServiceConfigurationError e) {
+                Logger.getLogger(ProjectionFactory.class.getName()).log(Level.SEVERE, null, e);
             }
+            orderedNames = nameMap.keySet().toArray(new String[nameMap.size()]);
+            Arrays.sort(orderedNames);
         }
-        s = (String) params.get("to_meter");
-        if (s != null) {
-            projection.setFromMetres(1.0 / Double.parseDouble(s));
-        }
-
-        if (projection instanceof UniversalTransverseMercatorProjection) {
-            s = (String) params.get("zone");
-            if (s != null) {
-                ((UniversalTransverseMercatorProjection) projection).setUTMZone(Integer.parseInt(s));
-            }
 
-            s = (String) params.get("bsouth");
-            if (s != null) {
-                ((UniversalTransverseMercatorProjection) projection).setIsSouth(true);
+        private static void register(ProjectionProvider provider) {
+            for (ProjectionDescriptor descriptor : provider.getProjections()) {
+                ProjectionDescriptor old = registry.put(descriptor.getPROJ4Name(), descriptor);
+                if (old != null) {
+                    nameMap.remove(old.getName());
+                }
+                nameMap.put(descriptor.getName(), descriptor);
             }
         }
-
-//zone
-//towgs84 - see Datum
-//alpha
-//datum
-//lat_ts
-//azi
-//lonc
-//rf
-//pm
-        // FIXME !!!
-        // projection.initialize();
-        return projection;
-    }
-
-    private static double parseAngle(String s) {
-        return format.parse(s, null).doubleValue();
-    }
-    private static Hashtable registry;
-    private static Hashtable nameMap;
-
-    private static void register(String proj4Name, Class cls) throws InstantiationException, IllegalAccessException {
-        try {
-            registry.put(proj4Name, cls);
-            Projection projection = (Projection) cls.getDeclaredConstructor().newInstance();
-            String readableName = projection.getName();
-            nameMap.put(readableName, proj4Name);
-        } catch (Exception e) {
-            System.err.println("unable to register " + proj4Name);
-            Logger.getLogger(ProjectionFactory.class.getName()).log(Level.SEVERE, null, e);
-        }
     }
 
     public static Projection getNamedProjection(String name) {
-        if (registry == null) {
-            initialize();
-        }
-        String proj4Name = (String) nameMap.get(name);
-        return getNamedPROJ4Projection(proj4Name);
+        ProjectionDescriptor descriptor = Registry.nameMap.get(name);
+        return descriptor == null ? null : descriptor.create();
     }
 
     public static Projection getNamedPROJ4Projection(String name) {
-        if (registry == null) {
-            initialize();
-        }
-        Class cls = (Class) registry.get(name);
-        if (cls != null) {
-            try {
-                return (Projection) cls.getDeclaredConstructor().newInstance();
-            } catch (Exception e) {
-                System.err.println("unable to instantiate " + name);
-                Logger.getLogger(ProjectionFactory.class.getName()).log(Level.SEVERE, null, e);
-            }
-        }
-        return null;
+        ProjectionDescriptor descriptor = Registry.registry.get(name);
+        return descriptor == null ? null : descriptor.create();
     }
 
-    public static Object[] getOrderedProjectionNames() {
-        if (registry == null) {
-            initialize();
-        }
-        Object[] names = nameMap.keySet().toArray();
-        Arrays.sort(names);
-        return names;
+    /**
+     * Returns the descriptor of a projection.
+     *
+     * @param proj4Name The PROJ.4 name of the projection.
+     * @return The descriptor, or null if no projection with this name is
+     * registered.
+     */
+    public static ProjectionDescriptor getProjectionDescriptor(String proj4Name) {
+        return Registry.registry.get(proj4Name);
     }
 
-    private static void initialize() {
-        try {
-            registry = new Hashtable();
-            nameMap = new Hashtable();
-
-            register("aea", AlbersProjection.class);
-            register("aeqd", EquidistantAzimuthalProjection.class);
-            register("airy", AiryProjection.class);
-            register("aitoff", AitoffProjection.class);
-//            register("alsk", Projection.class);
-            register("apian1", Apian1Projection.class);
-            register("apian2", Apian2Projection.class);
-            register("ardn_cls", ArdenCloseProjection.class);
-            register("aspect", AspectAdaptiveProjection.class);
-            register("august", AugustProjection.class);
-            register("bacon", BaconProjection.class);
-            register("bipc", BipolarProjection.class);
-            register("boggs", BoggsProjection.class);
-            register("bonne", BonneProjection.class);
-            register("cass", CassiniProjection.class);
-            register("cc", CentralCylindricalProjection.class);
-            register("cea", CylindricalEqualAreaProjection.class);
-            register("compmill", CompactMillerProjection.class);
-//		register( "chamb", Projection.class);
-            register("collg", CollignonProjection.class);
-            register("crast", CrasterProjection.class);
-            register("denoy", DenoyerProjection.class);
-            register("eck1", Eckert1Projection.class);
-            register("eck2", Eckert2Projection.class);
-            register("eck3", Eckert3Projection.class);
-            register("eck4", Eckert4Projection.class);
-            register("eck5", Eckert5Projection.class);
-            register("eck6", Eckert6Projection.class);
-            register("eckgreif", EckertGreifendorffProjection.class);
-            register("equalearth", EqualEarthProjection.class);
-            register("eqc", EquidistantCylindricalProjection.class);
-            register("eqdc", EquidistantConicProjection.class);
-            register("euler", EulerProjection.class);
-            register("fahey", FaheyProjection.class);
-            register("fouc", FoucautProjection.class);
-            register("fouc_s", FoucautSinusoidalProjection.class);
-            register("four2", Fournier2Projection.class);
-            register("gall", GallProjection.class);
-            register("gallpeters", GallPetersProjection.class);
-            register("gins8", Ginzburg8Projection.class);
-//		register( "gn_sinu", Projection.class);
-            register("gnom", GnomonicAzimuthalProjection.class);
-            register("goode", GoodeProjection.class);
-//		register( "gs48", Projection.class, "Mod. Stererographics of 48 U.S." );
-//		register( "gs50", Projection.class, "Mod. Stererographics of 50 U.S." );
-            register("hammer", HammerProjection.class); // Eckert-Greifendorff is in own class
-            register("hatano", HatanoProjection.class);
-            register("holzel", HolzelProjection.class);
-            register("hufnagel", HufnagelProjection.class);
-//		register( "imw_p", Projection.class, "Internation Map of the World Polyconic" );
-            register("kav1", Kavrayskiy1Projection.class);
-            register("kav5", Kavrayskiy5Projection.class);
-            register("kav7", Kavrayskiy7Projection.class);
-//		register( "labrd", Projection.class, "Laborde" );
-            register("laea", LambertAzimuthalEqualAreaProjection.class);
-            register("lagrng", LagrangeProjection.class);
-            register("larr", LarriveeProjection.class);
-            register("lask", LaskowskiProjection.class);
-            register("lcc", LambertConformalConicProjection.class);
-            register("leac", LambertEqualAreaConicProjection.class);
-//		register( "lee_os", Projection.class, "Lee Oblated Stereographic" );
-            register("longlat", LinearProjection.class);
-            register("loxim", LoximuthalProjection.class);
-            register("lsat", LandsatProjection.class);
-            register("mbt_s", McBrydeThomasSine1Projection.class);
-            register("mbt_fps", McBrydeThomasFlatPolarSine2Projection.class);
-            register("mbtfpp", McBrydeThomasFlatPolarParabolicProjection.class);
-            register("mbtfpq", McBrydeThomasFlatPolarQuarticProjection.class);
-            // register("mbtfps", .class);
-            register("merc", MercatorProjection.class);
-//		register( "mil_os", Projection.class, "Miller Oblated Stereographic" );
-            register("mill", MillerCylindrical1Projection.class);
-//		register( "mpoly", Projection.class, "Modified Polyconic" );
-            register("moll", MollweideProjection.class);
-            register("murd1", Murdoch1Projection.class);
-            register("murd2", Murdoch2Projection.class);
-            register("murd3", Murdoch3Projection.class);
-            register("natearth", NaturalEarthProjection.class);
-            register("natearth2", NaturalEarth2Projection.class);
-            register("nell", NellProjection.class);
-            register("nell_h", NellHammerProjection.class);
-            register("nicol", NicolosiProjection.class);
-            register("nsper", PerspectiveProjection.class);
-            register("nzmg", NZMGProjection.class);
-//		register( "ob_tran", Projection.class, "General Oblique Transformation" );
-//		register( "ocea", Projection.class, "Oblique Cylindrical Equal Area" );
-//		register( "oea", Projection.class, "Oblated Equal Area" );
-            register("omerc", ObliqueMercatorProjection.class);
-            register("ortel", OrteliusProjection.class);
-            register("ortho", OrthographicAzimuthalProjection.class);
-            register("patt", PattersonProjection.class);
-            register("pconic", PerspectiveConicProjection.class);
-            register("poly", PolyconicProjection.class);
-            register("putp1", PutninsP1Projection.class);
-            register("putp2", PutninsP2Projection.class);
-//		register( "putp3", Projection.class, "Putnins P3" );            
-            register("putp4p", PutninsP4PProjection.class);
-            register("putp5", PutninsP5Projection.class);
-            register("putp5p", PutninsP5PProjection.class);
-//		register( "putp6", Projection.class, "Putnins P6" );
-//		register( "putp6p", Projection.class, "Putnins P6'" );
-            register("qua_aut", QuarticAuthalicProjection.class);
-            register("robin", RobinsonProjection.class); // RobinsonProjectionOriginal_Proj4_JHL has vertical shift at latitude +/-40 degrees
-            register("rpoly", RectangularPolyconicProjection.class);
-            register("sinu", SinusoidalProjection.class);
-            register("somerc", SwissObliqueMercatorProjection.class);
-            register("stere", StereographicAzimuthalProjection.class);
-            register("tcc", TCCProjection.class);
-            register("tcea", TCEAProjection.class);
-            register("tissot", TissotProjection.class);
-            register("toblermercator", ToblerMercator.class);
-            register("tmerc", TransverseMercatorProjection.class);
-            register("tlat", TransformedLambertAzimuthalTransverse.class);
+    /**
+     * Returns the descriptors of all registered projections.
+     */
+    public static Collection<ProjectionDescriptor> getProjectionDescriptors() {
+        return Collections.unmodifiableCollection(Registry.registry.values());
+    }
 
-//		register( "tpeqd", Projection.class, "Two Point Equidistant" );
-//		register( "tpers", Projection.class, "Tilted perspective" );
-//		register( "ups", Projection.class, "Universal Polar Stereographic" );
-//		register( "urm5", Projection.class, "Urmaev V" );
-            register("urmfps", URMFPSProjection.class); // Urmaev Flat-Polar Sinusoidal
-            register("utm", UniversalTransverseMercatorProjection.class);
-            register("vandg", VanDerGrintenProjection.class);
-//		register( "vandg2", Projection.class, "van der Grinten II" );
-//		register( "vandg3", Projection.class, "van der Grinten III" );
-//		register( "vandg4", Projection.class, "van der Grinten IV" );
-            register("vitk1", VitkovskyProjection.class);
-            register("wag1", Wagner1Projection.class);
-            register("wag2", Wagner2Projection.class);
-            register("wag3", Wagner3Projection.class);
-            register("wag4", Wagner4Projection.class);
-            register("wag5", Wagner5Projection.class);
-            register("wag6", Wagner6Projection.class);
-            register("wag7", Wagner7Projection.class);
-            register("weren", Werenskiold1Projection.class);
-            register("wink1", Winkel1Projection.class);
-            register("wink2", Winkel2Projection.class);
-            register("wintri", WinkelTripelProjection.class);
-        } catch (InstantiationException | IllegalAccessException ex) {
-            Logger.getLogger(ProjectionFactory.class.getName()).log(Level.SEVERE, null, ex);
-        }
+    /**
+     * Returns the human-readable names of all registered projections in
+     * alphabetical order. No projection is created.
+     */
+    public static Object[] getOrderedProjectionNames() {
+        return Registry.orderedNames.clone();
     }
 
+    /**
+     * Returns the coordinate system with a name in a file in /coordsys. The
+     * coordinate system is read from the binary catalog if the library was
+     * built with one; otherwise the file is parsed and indexed by the
+     * CoordinateSystemCatalog when it is first used.
+     */
     public static Projection readProjectionFile(String file, String name) throws IOException {
-
-        BufferedReader reader = null;
-        try {
-            String filePath = "/coordsys/" + file;
-            InputStream is = ProjectionFactory.class.getResourceAsStream(filePath);
-            reader = new BufferedReader(new InputStreamReader(is));
-            StreamTokenizer t = new StreamTokenizer(reader);
-            t.commentChar('#');
-            t.ordinaryChars('0', '9');
-            t.ordinaryChars('.', '.');
-            t.ordinaryChars('-', '-');
-            t.ordinaryChars('+', '+');
-            t.wordChars('0', '9');
-            t.wordChars('\'', '\'');
-            t.wordChars('"', '"');
-            t.wordChars('_', '_');
-            t.wordChars('.', '.');
-            t.wordChars('-', '-');
-            t.wordChars('+', '+');
-            t.wordChars(',', ',');
-            t.nextToken();
-
-            while (t.ttype == '<') {
-                t.nextToken();
-                if (t.ttype != StreamTokenizer.TT_WORD) {
-                    throw new IOException(t.lineno() + ": Word expected after '<'");
-                }
-
-                String cname = t.sval;
-                t.nextToken();
-                if (t.ttype != '>') {
-                    throw new IOException(t.lineno() + ": '>' expected");
-                }
-                t.nextToken();
-                Vector v = new Vector();
-                while (t.ttype != '<') {
-                    if (t.ttype == '+') {
-                        t.nextToken();
-                    }
-                    if (t.ttype != StreamTokenizer.TT_WORD) {
-                        throw new IOException(t.lineno() + ": Word expected after '+'");
-                    }
-                    String key = t.sval;
-                    t.nextToken();
-                    if (t.ttype == '=') {
-                        t.nextToken();
-                        //Removed check to allow for proj4 hack +nadgrids=@null
-                        //if ( t.ttype != StreamTokenizer.TT_WORD )
-                        //	throw new IOException( t.lineno()+": Value expected after '='" );
-                        String value = t.sval;
-                        t.nextToken();
-                        if (key.startsWith("+")) {
-                            v.add(key + "=" + value);
-                        } else {
-                            v.add("+" + key + "=" + value);
-                        }
-                    }
-                }
-                t.nextToken();
-                if (t.ttype != '>') {
-                    throw new IOException(t.lineno() + ": '<>' expected");
-                }
-                t.nextToken();
-                if (cname.equals(name)) {
-                    String[] args = new String[v.size()];
-                    v.copyInto(args);
-                    return fromPROJ4Specification(args);
-                }
-            }
-            return null;
-        } finally {
-            if (reader != null) {
-                reader.close();
-            }
-        }
-
+        PROJ4Parameters params = CoordinateSystemCatalog.getParameters(file, name);
+        return params == null ? null : fromPROJ4Parameters(params);
     }
 
+    /**
+     * Returns a coordinate system by name, either "file:code", for example
+     * "epsg:4326", or only the code, which is searched in the files world,
+     * nad83, nad27, esri and epsg.
+     */
     public static Projection getNamedPROJ4CoordinateSystem(String name) {
-        String[] files = {
-            "world",
-            "nad83",
-            "nad27",
-            "esri",
-            "epsg",};
-
         try {
-            int p = name.indexOf(':');
-            if (p >= 0) {
-                return readProjectionFile(name.substring(0, p), name.substring(p + 1));
-            }
-
-            for (int i = 0; i < files.length; i++) {
-                Projection projection = readProjectionFile(files[i], name);
-                if (projection != null) {
-                    return projection;
-                }
+            PROJ4Parameters params = CoordinateSystemCatalog.getParameters(name);
+            if (params != null) {
+                return fromPROJ4Parameters(params);
             }
         } catch (IOException e) {
         }
@@ -0,0 +1,36 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import java.util.Collection;
+
+/**
+ * A service that adds projections to the ProjectionFactory. Implementations
+ * are found with java.util.ServiceLoader: the class name is listed in
+ * META-INF/services/com.jhlabs.map.proj.ProjectionProvider and the class has
+ * a public constructor without parameters.
+ *
+ * A projection with the same PROJ.4 name or human-readable name as a built-in
+ * projection replaces the built-in projection.
+ */
+public interface ProjectionProvider {
+
+    /**
+     * Returns the descriptors of the provided projections. No projection
+     * should be created by this method.
+     */
+    Collection<ProjectionDescriptor> getProjections();
+}
@@ -35,6 +35,11 @@ public class PutninsP1Projection extends EllipticalPseudoCylindrical{
                 0.30396355092701331433);
     }
     
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Putnins P1";
     }
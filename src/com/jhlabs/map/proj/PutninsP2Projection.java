@@ -71,6 +71,11 @@ public class PutninsP2Projection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Putnins P2";
     }
@@ -64,6 +64,11 @@ public class PutninsP4PProjection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Putnins P4'";
     }
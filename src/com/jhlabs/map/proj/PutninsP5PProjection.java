@@ -31,6 +31,11 @@ public class PutninsP5PProjection extends PutninsP5Projection {
 		B = 0.5;
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Putnins P5'";
 	}
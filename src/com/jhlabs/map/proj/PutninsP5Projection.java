@@ -55,6 +55,11 @@ public class PutninsP5Projection extends PseudoCylindricalProjection {
 		return true;
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Putnins P5";
 	}
@@ -32,6 +32,11 @@ public class QuarticAuthalicProjection extends STSProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Quartic Authalic";
     }
@@ -59,6 +59,11 @@ public class RectangularPolyconicProjection extends Projection {
 */
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Rectangular Polyconic";
 	}
@@ -133,6 +133,29 @@ public class RobinsonProjection extends PseudoCylindricalProjection {
         return xy;
     }
 
+    /**
+     * Batch version of project() with the spline evaluation inlined.
+     */
+    @Override
+    protected void projectBatch(double[] src, int srcOffset, double[] dst, int dstOffset, int numPoints) {
+        final int end = srcOffset + 2 * numPoints;
+        for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+            final double lplam = src[i];
+            final double lpphi = src[i + 1];
+            final double phiAbs = Math.abs(lpphi);
+            int n = (int) (phiAbs * C1);
+            if (n >= NODES) {
+                n = NODES - 1;
+            }
+            final double z = Math.toDegrees(phiAbs - RC1 * n);
+            n *= 4;
+            final double x = X[n] + z * (X[n + 1] + z * (X[n + 2] + z * X[n + 3]));
+            final double y = Y[n] + z * (Y[n + 1] + z * (Y[n + 2] + z * Y[n + 3]));
+            dst[j] = x * FXC * lplam;
+            dst[j + 1] = lpphi < 0.0 ? -y * FYC : y * FYC;
+        }
+    }
+
     public Point2D.Double projectInverse(double x, double y, Point2D.Double lp) {
         int i;
         double t, t1;
@@ -184,7 +207,9 @@ public class RobinsonProjection extends PseudoCylindricalProjection {
                     break;
                 }
             }
-            lp.y = Math.toRadians(5 * i + t);
+            // i is the index of the first coefficient of the segment, and
+            // segments are 5 degrees apart
+            lp.y = Math.toRadians(5 * (i / 4) + t);
             if (y < 0.) {
                 lp.y = -lp.y;
             }
@@ -197,6 +222,11 @@ public class RobinsonProjection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Robinson";
     }
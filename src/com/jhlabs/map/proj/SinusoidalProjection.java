@@ -39,6 +39,48 @@ public class SinusoidalProjection extends PseudoCylindricalProjection {
         return lp;
     }
 
+    @Override
+    protected void projectBatch(double[] src, int srcOffset, double[] dst, int dstOffset, int numPoints) {
+        final int end = srcOffset + 2 * numPoints;
+        for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+            final double phi = src[i + 1];
+            dst[j] = src[i] * Math.cos(phi);
+            dst[j + 1] = phi;
+        }
+    }
+
+    @Override
+    protected void projectInverseBatch(double[] src, int srcOffset, double[] dst, int dstOffset, int numPoints) {
+        final int end = srcOffset + 2 * numPoints;
+        for (int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2) {
+            final double y = src[i + 1];
+            dst[j] = src[i] / Math.cos(y);
+            dst[j + 1] = y;
+        }
+    }
+
+    @Override
+    protected void projectBatch(double[] lam, double[] phi, int srcOffset,
+            double[] x, double[] y, int dstOffset, int numPoints) {
+        for (int i = 0; i < numPoints; i++) {
+            x[dstOffset + i] = lam[srcOffset + i] * Math.cos(phi[srcOffset + i]);
+        }
+        if (phi != y || srcOffset != dstOffset) {
+            System.arraycopy(phi, srcOffset, y, dstOffset, numPoints);
+        }
+    }
+
+    @Override
+    protected void projectInverseBatch(double[] x, double[] y, int srcOffset,
+            double[] lam, double[] phi, int dstOffset, int numPoints) {
+        for (int i = 0; i < numPoints; i++) {
+            lam[dstOffset + i] = x[srcOffset + i] / Math.cos(y[srcOffset + i]);
+        }
+        if (y != phi || srcOffset != dstOffset) {
+            System.arraycopy(y, srcOffset, phi, dstOffset, numPoints);
+        }
+    }
+
     public double getWidth(double y) {
         return MapMath.normalizeLongitude(Math.PI) * Math.cos(y); // FIXME
     }
@@ -47,6 +89,11 @@ public class SinusoidalProjection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public boolean isEqualArea() {
         return true;
     }
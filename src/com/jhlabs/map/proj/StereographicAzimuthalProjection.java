@@ -263,6 +263,11 @@ public class StereographicAzimuthalProjection extends AzimuthalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     private double ssfn(double phit, double sinphi, double eccen) {
         sinphi *= eccen;
         return Math.tan(.5 * (MapMath.HALFPI + phit))
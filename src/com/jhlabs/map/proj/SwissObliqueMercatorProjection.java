@@ -92,6 +92,16 @@ public class SwissObliqueMercatorProjection extends CylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
+    @Override
+    public boolean isRectilinear() {
+        return false;
+    }
+
     public String toString() {
         // For CH1903
         return "Swiss Oblique Mercator";
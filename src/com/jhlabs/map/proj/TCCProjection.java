@@ -44,6 +44,11 @@ public class TCCProjection extends CylindricalProjection {
 		return false;
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Transverse Central Cylindrical";
 	}
@@ -79,6 +79,11 @@ public class TissotProjection extends ConicProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Tissot";
     }
@@ -62,11 +62,26 @@ public class ToblerMercator extends CylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public boolean isEqualArea() {
         return true;
     }
 
+    @Override
+    public boolean isRectilinear() {
+        return false;
+    }
+
+    @Override
+    public boolean parallelsAreParallel() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return "Tobler-Mercator";
@@ -170,6 +170,11 @@ public class TransformedLambertAzimuthalTransverse extends Projection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public boolean isEqualArea() {
         return true;
@@ -183,6 +183,11 @@ public class TransverseMercatorProjection extends CylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public boolean isConformal() {
         return true;
     }
@@ -56,6 +56,11 @@ public class URMFPSProjection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public void initialize() { // urmfps
         super.initialize();
         if (n <= 0. || n > 1.) {
@@ -89,6 +89,11 @@ public class UniversalTransverseMercatorProjection extends TransverseMercatorPro
         //initialize(); FIXME
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Universal Transverse Mercator";
     }
@@ -106,6 +106,11 @@ public class VanDerGrintenProjection extends Projection {
 		return true;
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "van der Grinten (I)";
 	}
@@ -26,6 +26,11 @@ public class VitkovskyProjection extends SimpleConicProjection {
         super(SimpleConicProjection.VITK1);
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Vitkovsky";
     }
@@ -23,6 +23,11 @@ package com.jhlabs.map.proj;
 
 public class Wagner1Projection extends URMFPSProjection {
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Wagner I";
 	}
@@ -53,6 +53,11 @@ public class Wagner2Projection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Wagner II";
     }
@@ -49,6 +49,11 @@ public class Wagner3Projection extends PseudoCylindricalProjection {
 		return true;
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 	public String toString() {
 		return "Wagner III";
 	}
@@ -25,4 +25,9 @@ public class Wagner4Projection extends MollweideProjection {
 		super( MollweideProjection.WAGNER4 );
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 }
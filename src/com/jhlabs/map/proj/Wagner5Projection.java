@@ -25,4 +25,9 @@ public class Wagner5Projection extends MollweideProjection {
 		super( MollweideProjection.WAGNER5 );
 	}
 
+	@Override
+	public boolean isReentrant() {
+		return true;
+	}
+
 }
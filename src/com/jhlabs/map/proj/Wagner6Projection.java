@@ -30,6 +30,11 @@ public class Wagner6Projection extends EllipticalPseudoCylindrical{
                 0.3039635509270133143316383896);
     }
     
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Wagner VI";
     }
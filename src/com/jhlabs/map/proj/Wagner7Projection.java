@@ -21,6 +21,7 @@ limitations under the License.
  */
 package com.jhlabs.map.proj;
 
+import com.jhlabs.map.MapMath;
 import java.awt.geom.Point2D;
 
 public class Wagner7Projection extends ModifiedAzimuthalProjection {
@@ -39,6 +40,43 @@ public class Wagner7Projection extends ModifiedAzimuthalProjection {
         return true;
     }
 
+    /**
+     * Wagner VII is the Lambert azimuthal equal-area projection of an
+     * auxiliary sphere with sin(theta) = sin(65 deg) * sin(phi) and
+     * lambda' = lambda / 3, stretched by 2.66723 horizontally and by 1.24104
+     * vertically. The inverse undoes these steps in closed form, which is also
+     * exact at the pole lines, where the latitude has no first derivative and
+     * Newton's method converges slowly.
+     */
+    @Override
+    public Point2D.Double projectInverse(double x, double y, Point2D.Double lp) {
+        final double EPS = 1e-10;
+        x /= 2.66723;
+        y /= 1.24104;
+        // cosine of half the angular distance from the centre on the
+        // auxiliary sphere; NaN outside of the auxiliary hemisphere
+        final double z = Math.sqrt(1. - 0.25 * (x * x + y * y));
+        final double sinPhi = z * y / 0.90630778703664996;
+        final double lam = 3. * Math.atan2(z * x, 2. * z * z - 1.);
+        if (Math.abs(sinPhi) > 1. + EPS || Math.abs(lam) > Math.PI + EPS) {
+            lp.x = lp.y = Double.NaN;
+        } else {
+            lp.x = lam;
+            lp.y = MapMath.asin(sinPhi);
+        }
+        return lp;
+    }
+
+    @Override
+    public boolean hasInverse() {
+        return true;
+    }
+
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Wagner VII";
     }
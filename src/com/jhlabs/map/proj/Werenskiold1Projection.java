@@ -34,6 +34,11 @@ public class Werenskiold1Projection extends PutninsP4PProjection {
         C_y = 4.442882938;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Werenskiold I";
     }
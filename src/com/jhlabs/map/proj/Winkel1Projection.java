@@ -69,6 +69,11 @@ public class Winkel1Projection extends PseudoCylindricalProjection {
         return true;
     }
 
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Winkel I";
     }
@@ -63,6 +63,22 @@ public class Winkel2Projection extends PseudoCylindricalProjection {
         this.cosphi1 = Math.cos(this.phi1);
     }
     
+    @Override
+    public Point2D.Double projectInverse(double x, double y, Point2D.Double lp) {
+        newtonInverse(x, y, lp);
+        return lp;
+    }
+
+    @Override
+    public boolean hasInverse() {
+        return true;
+    }
+
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     public String toString() {
         return "Winkel II";
     }
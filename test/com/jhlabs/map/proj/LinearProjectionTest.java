@@ -0,0 +1,107 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import java.awt.geom.Point2D;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Checks that all variants of transform and inverseTransform of
+ * LinearProjection pass coordinates through unchanged.
+ */
+public class LinearProjectionTest {
+
+    private static final double X = 1000;
+    private static final double Y = 2000;
+
+    private static LinearProjection createProjection() {
+        LinearProjection projection = new LinearProjection();
+        projection.setFalseEasting(500);
+        projection.setFalseNorthing(-300);
+        projection.initialize();
+        return projection;
+    }
+
+    private static void assertIdentity(Point2D.Double p) {
+        assertEquals(X, p.x, 0);
+        assertEquals(Y, p.y, 0);
+    }
+
+    @Test
+    public void singlePointTransformsAreIdentities() {
+        LinearProjection projection = createProjection();
+        Point2D.Double src = new Point2D.Double(X, Y);
+        assertIdentity(projection.transform(src, new Point2D.Double()));
+        assertIdentity(projection.transformRadians(src, new Point2D.Double()));
+        assertIdentity(projection.inverseTransform(src, new Point2D.Double()));
+        assertIdentity(projection.inverseTransformRadians(src, new Point2D.Double()));
+        Point2D.Double dst = new Point2D.Double();
+        projection.inverseTransformRadians(X, Y, dst);
+        assertIdentity(dst);
+    }
+
+    @Test
+    public void arrayTransformsAreIdentities() {
+        LinearProjection projection = createProjection();
+        double[] expected = {X, Y};
+        double[] pts = new double[2];
+        projection.transform(expected, 0, pts, 0, 1);
+        assertArrayEquals(expected, pts, 0);
+        projection.transformRadians(expected, 0, pts, 0, 1);
+        assertArrayEquals(expected, pts, 0);
+        projection.inverseTransform(expected, 0, pts, 0, 1);
+        assertArrayEquals(expected, pts, 0);
+        projection.inverseTransformRadians(expected, 0, pts, 0, 1);
+        assertArrayEquals(expected, pts, 0);
+    }
+
+    @Test
+    public void structureOfArraysTransformsAreIdentities() {
+        LinearProjection projection = createProjection();
+        double[] x = {X};
+        double[] y = {Y};
+        double[] u = new double[1];
+        double[] v = new double[1];
+        projection.transform(x, y, 0, u, v, 0, 1);
+        assertIdentity(new Point2D.Double(u[0], v[0]));
+        projection.transformRadians(x, y, 0, u, v, 0, 1);
+        assertIdentity(new Point2D.Double(u[0], v[0]));
+        projection.inverseTransform(x, y, 0, u, v, 0, 1);
+        assertIdentity(new Point2D.Double(u[0], v[0]));
+        projection.inverseTransformRadians(x, y, 0, u, v, 0, 1);
+        assertIdentity(new Point2D.Double(u[0], v[0]));
+    }
+
+    @Test
+    public void bufferTransformsAreIdentities() {
+        LinearProjection projection = createProjection();
+        DoubleBuffer src = ByteBuffer.allocateDirect(16).asDoubleBuffer();
+        src.put(0, X).put(1, Y);
+        DoubleBuffer dst = ByteBuffer.allocateDirect(16).asDoubleBuffer();
+        projection.transform(src, 0, dst, 0, 1);
+        assertIdentity(new Point2D.Double(dst.get(0), dst.get(1)));
+        projection.transformRadians(src, 0, dst, 0, 1);
+        assertIdentity(new Point2D.Double(dst.get(0), dst.get(1)));
+        projection.inverseTransform(src, 0, dst, 0, 1);
+        assertIdentity(new Point2D.Double(dst.get(0), dst.get(1)));
+        projection.inverseTransformRadians(src, 0, dst, 0, 1);
+        assertIdentity(new Point2D.Double(dst.get(0), dst.get(1)));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import java.awt.geom.Point2D;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Checks that the scalar, interleaved and structure-of-arrays inverse
+ * transforms of NullProjection agree.
+ */
+public class NullProjectionTest {
+
+    private static final double EPS = 1e-12;
+
+    @Test
+    public void inverseTransformsAgree() {
+        NullProjection projection = new NullProjection();
+        projection.setFalseEasting(500);
+        projection.setFalseNorthing(-300);
+        projection.initialize();
+
+        double[] x = {1000, -2500, 0};
+        double[] y = {2000, 700, 0};
+        int n = x.length;
+
+        double[] interleavedSrc = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            interleavedSrc[2 * i] = x[i];
+            interleavedSrc[2 * i + 1] = y[i];
+        }
+        double[] interleaved = new double[2 * n];
+        projection.inverseTransform(interleavedSrc, 0, interleaved, 0, n);
+
+        double[] lon = new double[n];
+        double[] lat = new double[n];
+        projection.inverseTransform(x, y, 0, lon, lat, 0, n);
+
+        for (int i = 0; i < n; i++) {
+            Point2D.Double scalar = projection.inverseTransform(
+                    new Point2D.Double(x[i], y[i]), new Point2D.Double());
+            assertEquals(scalar.x, interleaved[2 * i], EPS);
+            assertEquals(scalar.y, interleaved[2 * i + 1], EPS);
+            assertEquals(scalar.x, lon[i], EPS);
+            assertEquals(scalar.y, lat[i], EPS);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import java.awt.geom.Point2D;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests the array variants of transform and inverseTransform with points
+ * outside of the graticule, and the fingerprint used as a cache key.
+ */
+public class ProjectionTest {
+
+    private static final double EPS = 1e-9;
+
+    /**
+     * Inverse-projects a point inside the graticule and a point outside of it
+     * with the interleaved and the structure-of-arrays batch inverse.
+     */
+    private static void testOffMapPoint(String definition) {
+        Projection projection = ProjectionFactory.fromPROJ4Specification(definition);
+        projection.initialize();
+        Point2D.Double inside = projection.transform(
+                new Point2D.Double(10, 20), new Point2D.Double());
+        double far = 10 * projection.getEquatorRadius();
+        double[] x = {inside.x, far};
+        double[] y = {inside.y, far};
+
+        double[] lon = new double[2];
+        double[] lat = new double[2];
+        projection.inverseTransform(x, y, 0, lon, lat, 0, 2);
+        assertEquals(10, lon[0], EPS);
+        assertEquals(20, lat[0], EPS);
+        assertTrue(Double.isNaN(lon[1]));
+        assertTrue(Double.isNaN(lat[1]));
+
+        double[] pts = {inside.x, inside.y, far, far};
+        projection.inverseTransform(pts, 0, pts, 0, 2);
+        assertEquals(10, pts[0], EPS);
+        assertEquals(20, pts[1], EPS);
+        assertTrue(Double.isNaN(pts[2]));
+        assertTrue(Double.isNaN(pts[3]));
+    }
+
+    @Test
+    public void batchInverseWithCentralMeridianKeepsNaN() {
+        testOffMapPoint("+proj=wintri +lon_0=30 +ellps=sphere");
+    }
+
+    @Test
+    public void batchInverseStoresNaNForFailingPoints() {
+        testOffMapPoint("+proj=ortho +lon_0=30 +ellps=sphere");
+    }
+
+    @Test
+    public void batchForwardWithCentralMeridianKeepsNaN() {
+        Projection projection = ProjectionFactory.fromPROJ4Specification(
+                "+proj=wintri +lon_0=30 +ellps=sphere");
+        projection.initialize();
+        Point2D.Double expected = projection.transform(
+                new Point2D.Double(10, 20), new Point2D.Double());
+        double[] lon = {10, Double.NaN};
+        double[] lat = {20, Double.NaN};
+        double[] x = new double[2];
+        double[] y = new double[2];
+        projection.transform(lon, lat, 0, x, y, 0, 2);
+        assertEquals(expected.x, x[0], EPS);
+        assertEquals(expected.y, y[0], EPS);
+        assertTrue(Double.isNaN(x[1]));
+        assertTrue(Double.isNaN(y[1]));
+
+        double[] pts = {10, 20, Double.NaN, Double.NaN};
+        projection.transform(pts, 0, pts, 0, 2);
+        assertEquals(expected.x, pts[0], EPS);
+        assertEquals(expected.y, pts[1], EPS);
+        assertTrue(Double.isNaN(pts[2]));
+        assertTrue(Double.isNaN(pts[3]));
+    }
+
+    private static Projection create(String definition) {
+        Projection projection = ProjectionFactory.fromPROJ4Specification(definition);
+        projection.initialize();
+        return projection;
+    }
+
+    @Test
+    public void fingerprintDependsOnAllParameters() {
+        String f = create("+proj=eqdc +lat_1=20 +lat_2=60 +ellps=sphere").getFingerprint();
+        assertEquals(f, create("+proj=eqdc +lat_2=60 +lat_1=20 +ellps=sphere").getFingerprint());
+        assertNotEquals(f, create("+proj=eqdc +lat_1=20 +lat_2=61 +ellps=sphere").getFingerprint());
+        assertNotEquals(f, create("+proj=eqdc +lat_1=20 +lat_2=60 +ellps=WGS84").getFingerprint());
+    }
+
+    @Test
+    public void fingerprintDoesNotChangeWhenProjecting() {
+        Projection projection = create("+proj=cass +ellps=WGS84");
+        String f = projection.getFingerprint();
+        Point2D.Double xy = projection.transform(new Point2D.Double(10, 20), new Point2D.Double());
+        projection.inverseTransform(xy, xy);
+        assertEquals(f, projection.getFingerprint());
+        assertEquals(f, ((Projection) projection.clone()).getFingerprint());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+Copyright 2026 JMapProjLib contributors
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package com.jhlabs.map.proj;
+
+import java.awt.geom.Point2D;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Round trip tests for the inverse of Wagner VII, including the pole lines.
+ */
+public class Wagner7ProjectionTest {
+
+    /**
+     * Tolerance in degrees away from the poles.
+     */
+    private static final double EPS = 1e-9;
+
+    /**
+     * Tolerance in degrees on the pole lines. The projected y coordinate
+     * depends on the square of the distance to the pole, so a rounding error
+     * of the forward projection results in a latitude error of about the
+     * square root of the machine precision.
+     */
+    private static final double POLE_EPS = 1e-5;
+
+    @Test
+    public void roundTripIncludingPoles() {
+        Projection projection = new Wagner7Projection();
+        projection.initialize();
+        Point2D.Double xy = new Point2D.Double();
+        Point2D.Double lp = new Point2D.Double();
+        for (int lat = -90; lat <= 90; lat += 3) {
+            final double eps = Math.abs(lat) == 90 ? POLE_EPS : EPS;
+            for (int lon = -180; lon <= 180; lon += 3) {
+                projection.transform(new Point2D.Double(lon, lat), xy);
+                projection.inverseTransform(xy, lp);
+                assertEquals(lon, lp.x, eps);
+                assertEquals(lat, lp.y, eps);
+            }
+        }
+    }
+
+    @Test
+    public void pointOutsideOfOutlineIsNaN() {
+        Projection projection = new Wagner7Projection();
+        projection.initialize();
+        double r = projection.getEquatorRadius();
+        Point2D.Double lp = projection.inverseTransform(
+                new Point2D.Double(0, 1.5 * r), new Point2D.Double());
+        assertTrue(Double.isNaN(lp.y));
+    }
+}